@@ -0,0 +1,165 @@
+package app;
+
+import data.MySQLDataStore;
+import database.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Shows today's-attendance lookups staying flat as an employee's attendance history grows.
+ * Needs the local gawe_db. Seeds a temporary employee with one attendance row per day
+ * going back the given number of days, then compares the old DATE(tanggal) = CURDATE()
+ * predicate with MySQLDataStore.getTodayAttendance's tanggal = CURDATE(): rows the
+ * server examines (from the session's Handler_read counters) and best latency per size.
+ * The seed rows are removed again.
+ * Run with: java -cp target/classes:&lt;deps&gt; app.AttendanceLookupBenchmark
+ */
+public class AttendanceLookupBenchmark {
+    private static final String EMPLOYEE_ID = "BENCHATT";
+    private static final int[] HISTORY_DAYS = {30, 365, 1825, 3650};
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURE_ROUNDS = 200;
+
+    private static final String FUNCTION_WRAPPED =
+            "SELECT * FROM attendance WHERE employee_id = ? AND DATE(tanggal) = CURDATE()";
+    private static final String SARGABLE =
+            "SELECT * FROM attendance WHERE employee_id = ? AND tanggal = CURDATE()";
+
+    private static volatile int sink;
+
+    public static void main(String[] args) throws SQLException {
+        MySQLDataStore dataStore = new MySQLDataStore();
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        try {
+            createEmployee(db);
+            int seeded = 0;
+
+            System.out.println("=== today's attendance: DATE(tanggal) = CURDATE() vs tanggal = CURDATE() ===");
+            System.out.printf("%8s  %24s  %24s  %18s%n", "history", "DATE() (rows / ms)", "equality (rows / ms)",
+                    "getTodayAttendance");
+            for (int days : HISTORY_DAYS) {
+                seedAttendance(db, seeded, days);
+                seeded = days;
+                try (Connection conn = db.getConnection()) {
+                    Result wrapped = measure(conn, FUNCTION_WRAPPED);
+                    Result sargable = measure(conn, SARGABLE);
+                    double dataStoreMillis = best(() -> sink = dataStore.getTodayAttendance(EMPLOYEE_ID).size());
+                    System.out.printf("%8d  %10d / %11.3f  %10d / %11.3f  %14.3f ms%n", days,
+                            wrapped.rowsRead, wrapped.millis, sargable.rowsRead, sargable.millis, dataStoreMillis);
+                }
+            }
+        } finally {
+            removeEmployee(db);
+            dataStore.close();
+            db.close();
+        }
+    }
+
+    private interface Lookup {
+        void run() throws SQLException;
+    }
+
+    private static final class Result {
+        final long rowsRead;
+        final double millis;
+
+        Result(long rowsRead, double millis) {
+            this.rowsRead = rowsRead;
+            this.millis = millis;
+        }
+    }
+
+    private static Result measure(Connection conn, String query) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, EMPLOYEE_ID);
+            Lookup lookup = () -> {
+                int rows = 0;
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                    }
+                }
+                sink = rows;
+            };
+            double millis = best(lookup);
+            long before = handlerReads(conn);
+            lookup.run();
+            // The status query itself reads no table rows, so the delta is the lookup's
+            return new Result(handlerReads(conn) - before, millis);
+        }
+    }
+
+    private static double best(Lookup lookup) throws SQLException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            lookup.run();
+        }
+        long bestNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long start = System.nanoTime();
+            lookup.run();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+        }
+        return bestNanos / 1_000_000.0;
+    }
+
+    // Index and table rows read by this session so far
+    private static long handlerReads(Connection conn) throws SQLException {
+        long total = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement("SHOW SESSION STATUS LIKE 'Handler_read%'");
+             ResultSet rs = pstmt.executeQuery()) {
+            while (rs.next()) {
+                total += rs.getLong(2);
+            }
+        }
+        return total;
+    }
+
+    private static void createEmployee(DatabaseConnection db) throws SQLException {
+        removeEmployee(db);
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "INSERT INTO employees (id, nama, password, role, divisi, jabatan, tgl_masuk, gaji_pokok) "
+                             + "VALUES (?, 'Attendance Benchmark', 'x', 'pegawai', 'Benchmark', 'Benchmark', CURDATE(), 0)")) {
+            pstmt.setString(1, EMPLOYEE_ID);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Deleting the employee cascades to the seeded attendance
+    private static void removeEmployee(DatabaseConnection db) throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM employees WHERE id = ?")) {
+            pstmt.setString(1, EMPLOYEE_ID);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Adds the days [fromDaysAgo, toDaysAgo) before today; day 0 is today itself
+    private static void seedAttendance(DatabaseConnection db, int fromDaysAgo, int toDaysAgo) throws SQLException {
+        LocalDate today = LocalDate.now();
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO attendance (employee_id, tanggal, jam_masuk, jam_keluar, status) "
+                            + "VALUES (?, ?, '08:00:00', '17:00:00', 'hadir')")) {
+                for (int day = fromDaysAgo; day < toDaysAgo; day++) {
+                    pstmt.setString(1, EMPLOYEE_ID);
+                    pstmt.setDate(2, Date.valueOf(today.minusDays(day)));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package app;
 
+import data.IDataStore;
 import data.MySQLDataStore;
+import data.RemoteDataStore;
 import server.GaweServer;
 import javafx.application.Application;
 import javafx.application.Platform;
@@ -18,24 +20,37 @@ import java.util.logging.Logger;
 
 public class HelloApplication extends Application {
     private GaweServer server;
-    private static MySQLDataStore dataStore;
+    private static IDataStore dataStore;
     private static final Logger logger = Logger.getLogger(HelloApplication.class.getName());
 
-    public static MySQLDataStore getDataStore() {
+    public static IDataStore getDataStore() {
         return dataStore;
     }
 
+    /**
+     * Opens the data store selected by -Dgawe.datastore: "remote" talks to a GAWE server
+     * (-Dgawe.server.host, -Dgawe.server.port), anything else connects to MySQL directly
+     */
+    private static IDataStore createDataStore() {
+        if ("remote".equalsIgnoreCase(System.getProperty("gawe.datastore"))) {
+            String host = System.getProperty("gawe.server.host", "localhost");
+            int port = Integer.getInteger("gawe.server.port", GaweServer.PORT);
+            return new RemoteDataStore(host, port);
+        }
+        return new MySQLDataStore();
+    }
+
     @Override
     public void init() {
         System.out.println("=== GAWE APPLICATION INITIALIZATION ===");
         try {
             if (dataStore == null) {
-                System.out.println("Step 1: Creating MySQL DataStore instance...");
-                dataStore = new MySQLDataStore();
-                System.out.println("✅ Step 1: MySQL DataStore initialized successfully");
+                System.out.println("Step 1: Creating DataStore instance...");
+                dataStore = createDataStore();
+                System.out.println("✅ Step 1: DataStore initialized successfully");
             }
         } catch (Exception e) {
-            System.err.println("❌ Step 1 FAILED: MySQL DataStore initialization failed");
+            System.err.println("❌ Step 1 FAILED: DataStore initialization failed");
             System.err.println("Error details: " + e.getMessage());
             e.printStackTrace();
         }
@@ -51,7 +66,7 @@ public class HelloApplication extends Application {
         if (dataStore == null) {
             System.err.println("❌ Step 2: DataStore is null, attempting recovery...");
             try {
-                dataStore = new MySQLDataStore();
+                dataStore = createDataStore();
                 System.out.println("✅ Step 2: DataStore recovery successful");
             } catch (Exception e) {
                 System.err.println("❌ Step 2 CRITICAL FAILURE: Cannot create DataStore");
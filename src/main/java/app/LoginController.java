@@ -1,6 +1,6 @@
 package app;
 
-import data.MySQLDataStore;
+import data.IDataStore;
 import models.Employee;
 import ui.EmployeeDashboard;
 import ui.ManagerDashboard;
@@ -32,7 +32,7 @@ public class LoginController {
     private SVGPath eyeIcon;
 
     private Stage primaryStage;
-    private MySQLDataStore dataStore;
+    private IDataStore dataStore;
     private boolean isPasswordVisible = false;
 
     // SVG paths for eye icons
@@ -43,7 +43,7 @@ public class LoginController {
         this.primaryStage = primaryStage;
     }
 
-    public void setDataStore(MySQLDataStore dataStore) {
+    public void setDataStore(IDataStore dataStore) {
         this.dataStore = dataStore;
     }
 
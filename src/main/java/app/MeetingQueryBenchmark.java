@@ -0,0 +1,203 @@
+package app;
+
+import data.MySQLDataStore;
+import database.DatabaseConnection;
+import models.Meeting;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares loading a user's meetings with one participant query per meeting (the old
+ * mapResultSetToMeeting behaviour) against MySQLDataStore's set-based participant fetch.
+ * Needs the local gawe_db. Seeds a temporary organizer with meetings, reports SELECTs
+ * issued (from MySQL's Com_select counter) and best latency per size, then removes
+ * the seed rows again.
+ * Run with: java -cp target/classes:&lt;deps&gt; app.MeetingQueryBenchmark
+ */
+public class MeetingQueryBenchmark {
+    private static final String ORGANIZER_ID = "BENCHMTG";
+    private static final int[] MEETING_COUNTS = {10, 50, 200, 500};
+    private static final int PARTICIPANTS_PER_MEETING = 4;
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURE_ROUNDS = 5;
+
+    private static volatile int sink;
+
+    public static void main(String[] args) throws SQLException {
+        MySQLDataStore dataStore = new MySQLDataStore();
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        try {
+            createOrganizer(db);
+            List<String> participants = participantIds(db);
+            int seeded = 0;
+
+            System.out.println("=== getMeetingsByEmployee: per-meeting participants vs set-based ===");
+            System.out.printf("%8s  %22s  %22s%n", "meetings", "per-meeting (sel / ms)", "set-based (sel / ms)");
+            for (int count : MEETING_COUNTS) {
+                seedMeetings(db, count - seeded, participants);
+                seeded = count;
+                Result perMeeting = measure(db, () -> perMeetingLoad(db));
+                Result setBased = measure(db, () -> dataStore.getMeetingsByEmployee(ORGANIZER_ID).size());
+                System.out.printf("%8d  %10d / %9.2f  %10d / %9.2f%n", count,
+                        perMeeting.selects, perMeeting.millis, setBased.selects, setBased.millis);
+            }
+        } finally {
+            removeOrganizer(db);
+            dataStore.close();
+            db.close();
+        }
+    }
+
+    private interface Load {
+        int run() throws SQLException;
+    }
+
+    private static final class Result {
+        final long selects;
+        final double millis;
+
+        Result(long selects, double millis) {
+            this.selects = selects;
+            this.millis = millis;
+        }
+    }
+
+    private static Result measure(DatabaseConnection db, Load load) throws SQLException {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink = load.run();
+        }
+        long bestNanos = Long.MAX_VALUE;
+        long selects = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long selectsBefore = selectCount(db);
+            long start = System.nanoTime();
+            sink = load.run();
+            bestNanos = Math.min(bestNanos, System.nanoTime() - start);
+            // The counter read itself is not a Com_select, so the delta is the load's queries
+            selects = selectCount(db) - selectsBefore;
+        }
+        return new Result(selects, bestNanos / 1_000_000.0);
+    }
+
+    /**
+     * The previous implementation: the meeting query, then one participant query per row
+     * on a second pooled connection while the outer result set is still open
+     */
+    private static int perMeetingLoad(DatabaseConnection db) throws SQLException {
+        List<Meeting> meetings = new ArrayList<>();
+        String query = """
+            SELECT DISTINCT m.* FROM meetings m
+            LEFT JOIN meeting_participants mp ON m.id = mp.meeting_id
+            WHERE m.organizer_id = ? OR mp.participant_id = ?
+            ORDER BY m.tanggal ASC
+            """;
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, ORGANIZER_ID);
+            pstmt.setString(2, ORGANIZER_ID);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                Meeting meeting = new Meeting();
+                meeting.setId(rs.getInt("id"));
+                meeting.setTitle(rs.getString("title"));
+                meeting.setParticipantIds(participantsOf(db, meeting.getId()));
+                meetings.add(meeting);
+            }
+        }
+        return meetings.size();
+    }
+
+    private static List<String> participantsOf(DatabaseConnection db, int meetingId) throws SQLException {
+        List<String> participants = new ArrayList<>();
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "SELECT participant_id FROM meeting_participants WHERE meeting_id = ?")) {
+            pstmt.setInt(1, meetingId);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                participants.add(rs.getString("participant_id"));
+            }
+        }
+        return participants;
+    }
+
+    private static long selectCount(DatabaseConnection db) throws SQLException {
+        try (Connection conn = db.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SHOW GLOBAL STATUS LIKE 'Com_select'")) {
+            return rs.next() ? rs.getLong(2) : 0;
+        }
+    }
+
+    private static void createOrganizer(DatabaseConnection db) throws SQLException {
+        removeOrganizer(db);
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(
+                     "INSERT INTO employees (id, nama, password, role, divisi, jabatan, tgl_masuk, gaji_pokok) "
+                             + "VALUES (?, 'Meeting Benchmark', 'x', 'pegawai', 'Benchmark', 'Benchmark', CURDATE(), 0)")) {
+            pstmt.setString(1, ORGANIZER_ID);
+            pstmt.executeUpdate();
+        }
+    }
+
+    // Deleting the organizer cascades to the seeded meetings and their participants
+    private static void removeOrganizer(DatabaseConnection db) throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM employees WHERE id = ?")) {
+            pstmt.setString(1, ORGANIZER_ID);
+            pstmt.executeUpdate();
+        }
+    }
+
+    private static List<String> participantIds(DatabaseConnection db) throws SQLException {
+        List<String> ids = new ArrayList<>();
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT id FROM employees WHERE id <> ? LIMIT ?")) {
+            pstmt.setString(1, ORGANIZER_ID);
+            pstmt.setInt(2, PARTICIPANTS_PER_MEETING);
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                ids.add(rs.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    private static void seedMeetings(DatabaseConnection db, int count, List<String> participants) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement meeting = conn.prepareStatement(
+                         "INSERT INTO meetings (title, tanggal, waktu_mulai, waktu_selesai, lokasi, organizer_id) "
+                                 + "VALUES ('Benchmark meeting', CURDATE(), '09:00', '10:00', 'Room B', ?)",
+                         Statement.RETURN_GENERATED_KEYS);
+                 PreparedStatement participant = conn.prepareStatement(
+                         "INSERT INTO meeting_participants (meeting_id, participant_id) VALUES (?, ?)")) {
+                for (int i = 0; i < count; i++) {
+                    meeting.setString(1, ORGANIZER_ID);
+                    meeting.executeUpdate();
+                    ResultSet keys = meeting.getGeneratedKeys();
+                    keys.next();
+                    int meetingId = keys.getInt(1);
+                    for (String participantId : participants) {
+                        participant.setInt(1, meetingId);
+                        participant.setString(2, participantId);
+                        participant.addBatch();
+                    }
+                }
+                participant.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+}
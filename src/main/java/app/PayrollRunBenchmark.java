@@ -0,0 +1,111 @@
+package app;
+
+import data.MySQLDataStore;
+import database.DatabaseConnection;
+import models.PayrollSummary;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Measures MySQLDataStore.runPayroll throughput. Needs the local gawe_db. Seeds the given
+ * number of temporary employees (100000 by default) with varied base salaries, KPI scores
+ * and supervisor ratings, then runs payroll for a period no real payroll uses: a first run,
+ * a second one that must be skipped as already completed, and a forced rerun that
+ * overwrites every row. The seed employees, the period's salary_history rows and its
+ * payroll_runs row are removed again.
+ * Run with: java -cp target/classes:&lt;deps&gt; app.PayrollRunBenchmark [employees]
+ */
+public class PayrollRunBenchmark {
+    private static final String ID_PREFIX = "BENCHPAY";
+    private static final int BULAN = 1;
+    private static final int TAHUN = 1999;
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    public static void main(String[] args) throws SQLException {
+        int employees = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        MySQLDataStore dataStore = new MySQLDataStore();
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        try {
+            cleanUp(db);
+            long seedStart = System.currentTimeMillis();
+            seedEmployees(db, employees);
+            System.out.printf("Seeded %d employees in %d ms%n", employees, System.currentTimeMillis() - seedStart);
+
+            System.out.println("=== payroll " + BULAN + "/" + TAHUN + " ===");
+            print("first run", dataStore.runPayroll(BULAN, TAHUN, false));
+            print("second run", dataStore.runPayroll(BULAN, TAHUN, false));
+            print("forced rerun", dataStore.runPayroll(BULAN, TAHUN, true));
+        } finally {
+            cleanUp(db);
+            dataStore.close();
+            db.close();
+        }
+    }
+
+    private static void print(String label, PayrollSummary summary) {
+        if (summary.isSkipped()) {
+            System.out.printf("%-13s skipped, period already completed%n", label);
+            return;
+        }
+        System.out.printf("%-13s %7d employees  snapshot %5d ms  compute %4d ms  write %6d ms  %,10.0f employees/s%n",
+                label, summary.getEmployees(), summary.getSnapshotMillis(), summary.getComputeMillis(),
+                summary.getWriteMillis(), summary.getEmployeesPerSecond());
+    }
+
+    private static void seedEmployees(DatabaseConnection db, int count) throws SQLException {
+        String[] divisions = {"HR", "Marketing", "Sales", "IT", "Finance"};
+        Random random = new Random(42);
+        Date joined = Date.valueOf(LocalDate.now().minusYears(1));
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO employees (id, nama, password, role, divisi, jabatan, tgl_masuk, gaji_pokok, kpi_score, supervisor_rating) "
+                            + "VALUES (?, 'Payroll Benchmark', 'x', 'pegawai', ?, 'Benchmark', ?, ?, ?, ?)")) {
+                for (int i = 0; i < count; i++) {
+                    pstmt.setString(1, String.format("%s%07d", ID_PREFIX, i));
+                    pstmt.setString(2, divisions[i % divisions.length]);
+                    pstmt.setDate(3, joined);
+                    pstmt.setDouble(4, 4_000_000 + random.nextInt(60) * 100_000);
+                    pstmt.setDouble(5, 40 + random.nextInt(61));
+                    pstmt.setDouble(6, 40 + random.nextInt(61));
+                    pstmt.addBatch();
+                    if ((i + 1) % SEED_BATCH_SIZE == 0) {
+                        pstmt.executeBatch();
+                    }
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    // Deleting the seed employees cascades to their salary rows; real employees' rows for the period go explicitly
+    private static void cleanUp(DatabaseConnection db) throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM employees WHERE id LIKE ?")) {
+                pstmt.setString(1, ID_PREFIX + "%");
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM salary_history WHERE bulan = ? AND tahun = ?")) {
+                pstmt.setInt(1, BULAN);
+                pstmt.setInt(2, TAHUN);
+                pstmt.executeUpdate();
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM payroll_runs WHERE bulan = ? AND tahun = ?")) {
+                pstmt.setInt(1, BULAN);
+                pstmt.setInt(2, TAHUN);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+}
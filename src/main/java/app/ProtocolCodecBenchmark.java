@@ -0,0 +1,86 @@
+package app;
+
+import com.google.gson.Gson;
+import models.RequestPayloads;
+import models.ServerRequest;
+import server.ProtocolTypeAdapters;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.Supplier;
+
+/**
+ * Compares the old Map-based request decoding with the typed payload adapters.
+ * Run from the IDE or with: java -cp target/classes:&lt;gson jar&gt; app.ProtocolCodecBenchmark
+ */
+public class ProtocolCodecBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURE_ROUNDS = 5;
+    private static final int OPS_PER_ROUND = 200_000;
+
+    private static final String REQUEST_JSON = "{\"action\":\"saveMonthlyEvaluation\",\"data\":{"
+            + "\"employeeId\":\"EMP001\",\"month\":11,\"year\":2024,\"punctualityScore\":87.5,"
+            + "\"attendanceScore\":91.0,\"productivityScore\":84.25,\"overallRating\":87.58,"
+            + "\"comments\":\"Consistent delivery, improved punctuality this month\"},\"userId\":\"SUP002\"}";
+
+    private static volatile double sink;
+
+    public static void main(String[] args) {
+        Gson plainGson = new Gson();
+        Gson typedGson = ProtocolTypeAdapters.createGson();
+
+        System.out.println("=== Request decode: Map<String,Object> vs typed payload ===");
+        run("map + Double casts", () -> decodeWithMap(plainGson));
+        run("typed TypeAdapter ", () -> decodeTyped(typedGson));
+    }
+
+    private static double decodeWithMap(Gson gson) {
+        ServerRequest request = gson.fromJson(REQUEST_JSON, ServerRequest.class);
+        int month = ((Double) request.getData().get("month")).intValue();
+        int year = ((Double) request.getData().get("year")).intValue();
+        double punctuality = (Double) request.getData().get("punctualityScore");
+        double overall = (Double) request.getData().get("overallRating");
+        String comments = (String) request.getData().get("comments");
+        return month + year + punctuality + overall + comments.length();
+    }
+
+    private static double decodeTyped(Gson gson) {
+        ServerRequest request = gson.fromJson(REQUEST_JSON, ServerRequest.class);
+        RequestPayloads.MonthlyEvaluation data = (RequestPayloads.MonthlyEvaluation) request.getPayload();
+        return data.getMonth() + data.getYear() + data.getPunctualityScore() + data.getOverallRating()
+                + data.getComments().length();
+    }
+
+    private static void run(String label, Supplier<Double> op) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round(op);
+        }
+        long bestNanos = Long.MAX_VALUE;
+        long bytes = 0;
+        for (int i = 0; i < MEASURE_ROUNDS; i++) {
+            long allocatedBefore = allocatedBytes();
+            long nanos = round(op);
+            bytes = allocatedBytes() - allocatedBefore;
+            bestNanos = Math.min(bestNanos, nanos);
+        }
+        System.out.printf("%s: %,8.0f ns/op, %,6d bytes/op%n", label,
+                (double) bestNanos / OPS_PER_ROUND, bytes / OPS_PER_ROUND);
+    }
+
+    private static long round(Supplier<Double> op) {
+        long start = System.nanoTime();
+        double total = 0;
+        for (int i = 0; i < OPS_PER_ROUND; i++) {
+            total += op.get();
+        }
+        sink = total;
+        return System.nanoTime() - start;
+    }
+
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,143 @@
+package app;
+
+import database.DatabaseConnection;
+import database.SchemaMigrations;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+
+/**
+ * Regression check for the plans of MySQLDataStore's hot queries. Needs the local gawe_db;
+ * applies pending schema migrations, EXPLAINs each query below and exits with status 1
+ * if any of them reads a table with a full scan that no index could have avoided
+ * (type ALL with no possible keys). A full scan chosen although an index was available
+ * is only reported: on a small sample database the optimizer rightly prefers it.
+ * Keep the queries here in step with the ones in MySQLDataStore.
+ * Run with: java -cp target/classes:&lt;deps&gt; app.QueryPlanCheck
+ */
+public class QueryPlanCheck {
+
+    private static final class HotQuery {
+        final String name;
+        final String sql;
+        final Object[] params;
+
+        HotQuery(String name, String sql, Object... params) {
+            this.name = name;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+
+    private static final HotQuery[] HOT_QUERIES = {
+            new HotQuery("authenticate",
+                    "SELECT * FROM employees WHERE id = ? AND password = ?", "EMP001", "x"),
+            new HotQuery("getEmployeesByDivision",
+                    "SELECT * FROM employees WHERE divisi = ? ORDER BY nama", "IT"),
+            new HotQuery("updateEmployeeKPIScores (risk flags)",
+                    "SELECT divisi, layoff_risk, COUNT(*) FROM employees WHERE role = 'pegawai' AND divisi IN (?, ?)"
+                            + " GROUP BY divisi, layoff_risk", "IT", "HR"),
+            new HotQuery("counter recount (layoff risk)",
+                    "SELECT COUNT(*) FROM employees WHERE layoff_risk = true"),
+            new HotQuery("counter recount (role)",
+                    "SELECT COUNT(*) FROM employees WHERE role = 'supervisor'"),
+            new HotQuery("getPendingReports",
+                    "SELECT * FROM reports WHERE status = 'pending' ORDER BY upload_date DESC"),
+            new HotQuery("getReportsByDivision",
+                    "SELECT * FROM reports WHERE divisi = ? ORDER BY upload_date DESC", "IT"),
+            new HotQuery("getAttendanceByEmployee",
+                    "SELECT * FROM attendance WHERE employee_id = ? ORDER BY tanggal DESC", "EMP001"),
+            new HotQuery("getTodayAttendance",
+                    "SELECT * FROM attendance WHERE employee_id = ? AND tanggal = CURDATE()", "EMP001"),
+            new HotQuery("updateAttendanceClockOut",
+                    "UPDATE attendance SET jam_keluar = ? WHERE employee_id = ? AND tanggal = CURDATE()", "17:00:00", "EMP001"),
+            new HotQuery("getMeetingsByEmployee", """
+                    SELECT m.* FROM meetings m WHERE m.organizer_id = ?
+                    UNION
+                    SELECT m.* FROM meetings m
+                    JOIN meeting_participants mp ON m.id = mp.meeting_id
+                    WHERE mp.participant_id = ?
+                    ORDER BY tanggal ASC
+                    """, "EMP001", "EMP001"),
+            new HotQuery("loadMeetingParticipants",
+                    "SELECT meeting_id, participant_id FROM meeting_participants WHERE meeting_id IN (?, ?, ?)", 1, 2, 3),
+            new HotQuery("counter recount (upcoming meetings)",
+                    "SELECT COUNT(*) FROM meetings WHERE tanggal >= CURDATE() AND status = 'scheduled'"),
+            new HotQuery("getPendingLeaveRequests",
+                    "SELECT * FROM leave_requests WHERE status = 'pending' ORDER BY request_date ASC"),
+            new HotQuery("getLeaveRequestsForApproval (supervisor)", """
+                    SELECT lr.* FROM leave_requests lr
+                    JOIN employees e ON lr.employee_id = e.id
+                    WHERE lr.status = 'pending' AND e.role = 'pegawai' AND e.divisi = ?
+                    ORDER BY lr.request_date ASC
+                    """, "IT"),
+            new HotQuery("getLeaveRequestsByEmployee",
+                    "SELECT * FROM leave_requests WHERE employee_id = ? ORDER BY request_date DESC", "EMP001"),
+            new HotQuery("getPendingLeaveRequestsByEmployee",
+                    "SELECT * FROM leave_requests WHERE employee_id = ? AND status = 'pending' ORDER BY request_date DESC", "EMP001"),
+            new HotQuery("getSalaryHistoryByEmployee",
+                    "SELECT * FROM salary_history WHERE employee_id = ? ORDER BY tahun DESC, bulan DESC", "EMP001"),
+            new HotQuery("getMonthlyEvaluationsBySupervisor",
+                    "SELECT * FROM monthly_evaluations WHERE supervisor_id = ? ORDER BY year DESC, month DESC", "SUP001"),
+            new HotQuery("getAllAttendance (division, last 30 days)",
+                    "SELECT a.* FROM attendance a WHERE 1 = 1"
+                            + " AND a.employee_id IN (SELECT id FROM employees WHERE divisi = ? AND role = ?)"
+                            + " AND a.tanggal >= ? ORDER BY a.id DESC LIMIT ?",
+                    "IT", "pegawai", Date.valueOf(LocalDate.now().minusDays(29)), 200),
+            new HotQuery("getAllSalaryHistory (employee)",
+                    "SELECT s.* FROM salary_history s WHERE 1 = 1 AND s.employee_id IN (?) ORDER BY s.id DESC LIMIT ?",
+                    "EMP001", 200),
+            new HotQuery("getDashboardStats",
+                    "SELECT * FROM dashboard_counters WHERE id = 1"),
+    };
+
+    public static void main(String[] args) throws SQLException {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        int failures = 0;
+        try (Connection conn = db.getConnection()) {
+            SchemaMigrations.migrate(conn);
+            System.out.println("Schema version " + SchemaMigrations.currentVersion(conn));
+            for (HotQuery query : HOT_QUERIES) {
+                failures += explain(conn, query);
+            }
+        } finally {
+            db.close();
+        }
+        System.out.println(failures == 0 ? "All hot queries use an index"
+                : failures + " hot query table access(es) fall back to a full scan");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    private static int explain(Connection conn, HotQuery query) throws SQLException {
+        int failures = 0;
+        System.out.println("== " + query.name);
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + query.sql)) {
+            for (int i = 0; i < query.params.length; i++) {
+                pstmt.setObject(i + 1, query.params[i]);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                String table = rs.getString("table");
+                String type = rs.getString("type");
+                String possibleKeys = rs.getString("possible_keys");
+                String verdict = "ok";
+                // <union1,2>, <derived2> and <subquery2> are the server's own temporary tables
+                if ("ALL".equals(type) && table != null && !table.startsWith("<")) {
+                    if (possibleKeys == null) {
+                        verdict = "FULL SCAN";
+                        failures++;
+                    } else {
+                        verdict = "scan preferred over " + possibleKeys;
+                    }
+                }
+                System.out.printf("   %-22s type=%-7s key=%-36s rows=%-6s %s%n", table, type,
+                        rs.getString("key"), rs.getString("rows"), verdict);
+            }
+        }
+        return failures;
+    }
+}
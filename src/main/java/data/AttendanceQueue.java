@@ -0,0 +1,601 @@
+package data;
+
+import models.Attendance;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.sql.Time;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Write-behind queue for clock-ins and clock-outs.
+ *
+ * A punch is acknowledged once it is appended and forced to a local segment file; a
+ * flusher then folds the pending punches per employee and day and writes them to MySQL
+ * as one transaction of batched upserts, so a burst of punches costs a handful of round
+ * trips instead of one commit each. A flush seals the current segment and deletes it
+ * after the commit. Segments still on disk at startup are replayed; the upserts are
+ * idempotent, so replaying a segment whose batch had already committed is harmless.
+ * Until a punch is committed, reads of that employee's attendance overlay it.
+ *
+ * Times are checked before a punch is acknowledged. If a batch still fails for a reason
+ * retrying cannot fix, its rows are written one by one and those that keep failing are
+ * moved to the dead-letter file instead of holding back every later punch.
+ */
+final class AttendanceQueue implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(AttendanceQueue.class.getName());
+    private static final long FLUSH_INTERVAL_MS = Long.getLong("gawe.attendance.flushMs", 250);
+    private static final int FLUSH_THRESHOLD = 500;
+    private static final String SEGMENT_PREFIX = "attendance-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    // Punches MySQL rejected for good, in log line format; never replayed
+    private static final String DEAD_LETTER_FILE = "dead-letter.log";
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm");
+
+    private static final String UPSERT = "INSERT INTO attendance (employee_id, tanggal, jam_masuk, jam_keluar, status, is_late) VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE jam_masuk = VALUES(jam_masuk), jam_keluar = VALUES(jam_keluar), status = VALUES(status)";
+    // MySQL ER_LOCK_WAIT_TIMEOUT, reported with the generic HY000 state
+    private static final int LOCK_WAIT_TIMEOUT = 1205;
+    private static final String CLOCK_OUT = "UPDATE attendance SET jam_keluar = ? WHERE employee_id = ? AND tanggal = ?";
+
+    /**
+     * What the queue will write for one employee and day: an upsert of the whole punch,
+     * or for a clock-out alone an update of jam_keluar on the existing row
+     */
+    private static final class Pending {
+        final String employeeId;
+        final LocalDate tanggal;
+        boolean upsert;
+        String jamMasuk;
+        String jamKeluar;
+        String status;
+        boolean late;
+
+        Pending(String employeeId, LocalDate tanggal) {
+            this.employeeId = employeeId;
+            this.tanggal = tanggal;
+        }
+
+        String key() {
+            return employeeId + "|" + tanggal;
+        }
+
+        // Log line: kind, employee, day, clock-in, clock-out, status, late; "-" for null
+        String toLine() {
+            return String.join("\t", upsert ? "S" : "O", employeeId, tanggal.toString(),
+                    orDash(jamMasuk), orDash(jamKeluar), orDash(status), late ? "1" : "0") + "\n";
+        }
+
+        static Pending parse(String line) {
+            String[] fields = line.split("\t", -1);
+            if (fields.length != 7) {
+                throw new IllegalArgumentException("Malformed attendance log line: " + line);
+            }
+            Pending punch = new Pending(fields[1], LocalDate.parse(fields[2]));
+            punch.upsert = "S".equals(fields[0]);
+            punch.jamMasuk = orNull(fields[3]);
+            punch.jamKeluar = orNull(fields[4]);
+            punch.status = orNull(fields[5]);
+            punch.late = "1".equals(fields[6]);
+            return punch;
+        }
+
+        private static String orDash(String value) {
+            return value != null ? value : "-";
+        }
+
+        private static String orNull(String value) {
+            return "-".equals(value) ? null : value;
+        }
+    }
+
+    private final Path directory;
+    private final DataSource dataSource;
+    private final FileChannel lockChannel;
+    private final FileLock directoryLock;
+    private final ScheduledExecutorService flusher;
+
+    // Guards the fields below; a lock rather than a monitor because append() holds it
+    // across fsync, which would pin the carrier of a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private FileChannel active;
+    private Path activePath;
+    private long activeSeq;
+    private final List<Path> sealed = new ArrayList<>();
+    private Map<String, Pending> pending = new LinkedHashMap<>();
+    private Map<String, Pending> inFlight = new LinkedHashMap<>();
+    private long punches;
+    private long flushes;
+    private long deadLetters;
+    private boolean closed;
+
+    private AttendanceQueue(Path directory, DataSource dataSource, FileChannel lockChannel, FileLock directoryLock) {
+        this.directory = directory;
+        this.dataSource = dataSource;
+        this.lockChannel = lockChannel;
+        this.directoryLock = directoryLock;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gawe-attendance-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens the queue in a directory, replaying any segments left by a previous run.
+     * Only one process may use a directory at a time.
+     */
+    static AttendanceQueue open(Path directory, DataSource dataSource) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel lockChannel = FileChannel.open(directory.resolve("queue.lock"),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        FileLock lock;
+        try {
+            lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lock = null;
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IOException("Attendance queue directory " + directory + " is in use");
+        }
+
+        AttendanceQueue queue = new AttendanceQueue(directory, dataSource, lockChannel, lock);
+        queue.replay();
+        queue.flusher.scheduleWithFixedDelay(queue::flushQuietly, 0, FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        return queue;
+    }
+
+    private void replay() throws IOException {
+        lock.lock();
+        try {
+            List<Path> segments;
+            try (Stream<Path> files = Files.list(directory)) {
+                segments = files.filter(path -> segmentSeq(path) >= 0)
+                        .sorted(Comparator.comparingLong(AttendanceQueue::segmentSeq))
+                        .collect(Collectors.toList());
+            }
+            int replayed = 0;
+            for (Path segment : segments) {
+                for (String line : Files.readAllLines(segment, StandardCharsets.UTF_8)) {
+                    if (line.isEmpty()) {
+                        continue;
+                    }
+                    try {
+                        fold(pending, Pending.parse(line));
+                        replayed++;
+                    } catch (RuntimeException e) {
+                        // A torn last line is a punch whose append never completed, so never acknowledged
+                        logger.warning("Skipping unreadable attendance log line in " + segment + ": " + e.getMessage());
+                    }
+                }
+                sealed.add(segment);
+                activeSeq = Math.max(activeSeq, segmentSeq(segment));
+            }
+            if (replayed > 0) {
+                logger.info("Replaying " + replayed + " unflushed attendance punches from " + segments.size() + " segment(s)");
+            }
+            openSegment(activeSeq + 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static long segmentSeq(Path path) {
+        String name = path.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void openSegment(long seq) throws IOException {
+        activeSeq = seq;
+        activePath = directory.resolve(SEGMENT_PREFIX + seq + SEGMENT_SUFFIX);
+        active = FileChannel.open(activePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Durably records a clock-in (or a full attendance entry) for a day.
+     * Throws IllegalArgumentException for a time that is not HH:mm.
+     */
+    void save(String employeeId, LocalDate tanggal, String jamMasuk, String jamKeluar, String status,
+              boolean late) throws IOException {
+        checkTime(jamMasuk);
+        checkTime(jamKeluar);
+        Pending punch = new Pending(employeeId, tanggal);
+        punch.upsert = true;
+        punch.jamMasuk = jamMasuk;
+        punch.jamKeluar = jamKeluar;
+        punch.status = status;
+        punch.late = late;
+        append(punch);
+    }
+
+    /**
+     * Durably records a clock-out for a day.
+     * Throws IllegalArgumentException for a time that is not HH:mm.
+     */
+    void clockOut(String employeeId, LocalDate tanggal, String jamKeluar) throws IOException {
+        checkTime(jamKeluar);
+        Pending punch = new Pending(employeeId, tanggal);
+        punch.jamKeluar = jamKeluar;
+        append(punch);
+    }
+
+    // Rejects what write() could not turn into a TIME, before the punch is acknowledged
+    private static void checkTime(String time) {
+        if (time == null || time.isEmpty()) {
+            return;
+        }
+        try {
+            LocalTime.parse(time, TIME_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid attendance time, expected HH:mm: " + time);
+        }
+    }
+
+    private void append(Pending punch) throws IOException {
+        boolean flushNow;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IOException("Attendance queue is closed");
+            }
+            ByteBuffer line = ByteBuffer.wrap(punch.toLine().getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                active.write(line);
+            }
+            active.force(false);
+            fold(pending, punch);
+            punches++;
+            flushNow = pending.size() >= FLUSH_THRESHOLD;
+        } finally {
+            lock.unlock();
+        }
+        if (flushNow) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * Whether an upsert for the employee and day is waiting to be written
+     */
+    boolean hasSave(String employeeId, LocalDate tanggal) {
+        lock.lock();
+        try {
+            String key = employeeId + "|" + tanggal;
+            Pending queued = pending.containsKey(key) ? pending.get(key) : inFlight.get(key);
+            return queued != null && queued.upsert;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies the employee's punches not yet written to MySQL to rows read from it,
+     * keeping the rows newest day first. onlyDay limits the overlay to one day when not null.
+     */
+    List<Attendance> overlay(String employeeId, LocalDate onlyDay, List<Attendance> rows) {
+        List<Pending> queued = new ArrayList<>();
+        lock.lock();
+        try {
+            for (Map<String, Pending> source : List.of(inFlight, pending)) {
+                for (Pending punch : source.values()) {
+                    if (punch.employeeId.equals(employeeId) && (onlyDay == null || onlyDay.equals(punch.tanggal))) {
+                        queued.add(punch);
+                    }
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (queued.isEmpty()) {
+            return rows;
+        }
+        for (Pending punch : queued) {
+            Attendance row = null;
+            for (Attendance candidate : rows) {
+                if (punch.tanggal.equals(toLocalDate(candidate))) {
+                    row = candidate;
+                    break;
+                }
+            }
+            if (row == null) {
+                if (!punch.upsert) {
+                    continue;
+                }
+                row = new Attendance(employeeId, java.sql.Date.valueOf(punch.tanggal), null, null, null);
+                row.setLate(punch.late);
+                rows.add(row);
+            }
+            if (punch.upsert) {
+                row.setJamMasuk(punch.jamMasuk);
+                row.setStatus(punch.status);
+            }
+            row.setJamKeluar(punch.jamKeluar);
+        }
+        rows.sort(Comparator.comparing(AttendanceQueue::toLocalDate).reversed());
+        return rows;
+    }
+
+    private static LocalDate toLocalDate(Attendance row) {
+        return row.getTanggal() instanceof java.sql.Date ? ((java.sql.Date) row.getTanggal()).toLocalDate()
+                : new java.sql.Date(row.getTanggal().getTime()).toLocalDate();
+    }
+
+    // Folds a newer punch into what is already queued for its employee and day
+    private static void fold(Map<String, Pending> queue, Pending newer) {
+        Pending older = queue.get(newer.key());
+        if (older == null) {
+            queue.put(newer.key(), newer);
+        } else if (newer.upsert) {
+            // ON DUPLICATE KEY UPDATE leaves is_late as first inserted
+            if (older.upsert) {
+                newer.late = older.late;
+            }
+            queue.put(newer.key(), newer);
+        } else {
+            older.jamKeluar = newer.jamKeluar;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warning("Attendance flush failed, retrying: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes every queued punch to MySQL in one transaction
+     */
+    void flush() throws IOException, SQLException {
+        Map<String, Pending> batch;
+        List<Path> committedSegments;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) {
+                inFlight = new LinkedHashMap<>();
+                return;
+            }
+            // The previous batch stays visible to overlay() until now, covering reads that
+            // hit MySQL just before its commit
+            batch = pending;
+            inFlight = batch;
+            pending = new LinkedHashMap<>();
+            active.close();
+            sealed.add(activePath);
+            openSegment(activeSeq + 1);
+            committedSegments = new ArrayList<>(sealed);
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            write(batch.values());
+        } catch (SQLException | RuntimeException e) {
+            if (isTransient(e)) {
+                restore(batch);
+                throw e;
+            }
+            logger.warning("Attendance batch rejected, writing its rows one by one: " + e.getMessage());
+            writeEach(batch);
+        }
+
+        lock.lock();
+        try {
+            sealed.removeAll(committedSegments);
+            flushes++;
+        } finally {
+            lock.unlock();
+        }
+        for (Path segment : committedSegments) {
+            Files.deleteIfExists(segment);
+        }
+        logger.fine("Flushed " + batch.size() + " attendance rows");
+    }
+
+    // Puts a batch back in front of the punches queued meanwhile; its segments stay on disk
+    private void restore(Map<String, Pending> batch) {
+        lock.lock();
+        try {
+            Map<String, Pending> restored = new LinkedHashMap<>(batch);
+            for (Pending newer : pending.values()) {
+                fold(restored, newer);
+            }
+            pending = restored;
+            inFlight = new LinkedHashMap<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes a rejected batch one row per transaction, moving rows that fail for good to the
+     * dead-letter file. At the first transient failure, or if the dead-letter file cannot be
+     * written, that row and the rest are restored and the failure is thrown.
+     */
+    private void writeEach(Map<String, Pending> batch) throws IOException, SQLException {
+        List<Pending> rows = new ArrayList<>(batch.values());
+        for (int i = 0; i < rows.size(); i++) {
+            Pending punch = rows.get(i);
+            try {
+                try {
+                    write(List.of(punch));
+                } catch (SQLException | RuntimeException e) {
+                    if (isTransient(e)) {
+                        throw e;
+                    }
+                    deadLetter(punch, e);
+                }
+            } catch (IOException | SQLException | RuntimeException e) {
+                Map<String, Pending> rest = new LinkedHashMap<>();
+                for (Pending row : rows.subList(i, rows.size())) {
+                    rest.put(row.key(), row);
+                }
+                restore(rest);
+                throw e;
+            }
+        }
+    }
+
+    private void deadLetter(Pending punch, Exception cause) throws IOException {
+        logger.severe("Moving attendance punch to " + DEAD_LETTER_FILE + " after a permanent failure: "
+                + punch.toLine().trim() + " (" + cause.getMessage() + ")");
+        try (FileChannel channel = FileChannel.open(directory.resolve(DEAD_LETTER_FILE), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer line = ByteBuffer.wrap(punch.toLine().getBytes(StandardCharsets.UTF_8));
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            channel.force(false);
+        }
+        lock.lock();
+        try {
+            deadLetters++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Whether a failed write may succeed when retried: lost connections, deadlocks and lock
+     * timeouts. Bad data, constraint violations and anything thrown outside the driver are not.
+     */
+    private static boolean isTransient(Exception e) {
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        if (!(e instanceof SQLException)) {
+            return false;
+        }
+        String state = ((SQLException) e).getSQLState();
+        if (state == null && e.getCause() instanceof SQLException) {
+            state = ((SQLException) e.getCause()).getSQLState();
+        }
+        return state == null || state.startsWith("08") || state.startsWith("40")
+                || ((SQLException) e).getErrorCode() == LOCK_WAIT_TIMEOUT;
+    }
+
+    private void write(Collection<Pending> batch) throws SQLException {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement upsert = conn.prepareStatement(UPSERT);
+                 PreparedStatement clockOut = conn.prepareStatement(CLOCK_OUT)) {
+                int upserts = 0;
+                int clockOuts = 0;
+                for (Pending punch : batch) {
+                    if (punch.upsert) {
+                        upsert.setString(1, punch.employeeId);
+                        upsert.setDate(2, java.sql.Date.valueOf(punch.tanggal));
+                        setTime(upsert, 3, punch.jamMasuk);
+                        setTime(upsert, 4, punch.jamKeluar);
+                        upsert.setString(5, punch.status);
+                        upsert.setBoolean(6, punch.late);
+                        upsert.addBatch();
+                        upserts++;
+                    } else {
+                        setTime(clockOut, 1, punch.jamKeluar);
+                        clockOut.setString(2, punch.employeeId);
+                        clockOut.setDate(3, java.sql.Date.valueOf(punch.tanggal));
+                        clockOut.addBatch();
+                        clockOuts++;
+                    }
+                }
+                if (upserts > 0) {
+                    upsert.executeBatch();
+                }
+                if (clockOuts > 0) {
+                    clockOut.executeBatch();
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private static void setTime(PreparedStatement pstmt, int index, String time) throws SQLException {
+        if (time != null && !time.isEmpty()) {
+            pstmt.setTime(index, Time.valueOf(LocalTime.parse(time, TIME_FORMAT)));
+        } else {
+            pstmt.setNull(index, Types.TIME);
+        }
+    }
+
+    /**
+     * Stops the flusher and writes what is left; anything that cannot be written stays
+     * in the segments for the next start
+     */
+    @Override
+    public void close() {
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warning("Final attendance flush failed, punches kept for replay: " + e.getMessage());
+        }
+        lock.lock();
+        try {
+            closed = true;
+            try {
+                active.close();
+                if (Files.size(activePath) == 0) {
+                    Files.delete(activePath);
+                }
+                directoryLock.release();
+                lockChannel.close();
+            } catch (IOException e) {
+                logger.warning("Error closing attendance queue: " + e.getMessage());
+            }
+            logger.info("Attendance queue closed after " + punches + " punches in " + flushes + " flushes, "
+                    + deadLetters + " dead-lettered");
+        } finally {
+            lock.unlock();
+        }
+    }
+}
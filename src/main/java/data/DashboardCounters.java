@@ -0,0 +1,227 @@
+package data;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * The single dashboard_counters row behind getDashboardStats.
+ *
+ * The mutating data store methods adjust it in the same transaction as their own change,
+ * so reading the stats is one primary-key lookup. Writes that bypass those methods (sample
+ * data, manual SQL) and meetings moving into the past make it drift; reconcile() recounts
+ * from the base tables and runs at startup and every RECONCILE_INTERVAL_MINUTES. Every
+ * process with a data store schedules it, but a MySQL named lock lets only one of them
+ * recount at a time.
+ */
+final class DashboardCounters {
+    private static final Logger logger = Logger.getLogger(DashboardCounters.class.getName());
+    private static final long RECONCILE_INTERVAL_MINUTES =
+            Long.getLong("gawe.counters.reconcileMinutes", 15);
+    private static final String RECONCILE_LOCK = "gawe_dashboard_reconcile";
+
+    static final String TOTAL_EMPLOYEES = "total_employees";
+    static final String LAYOFF_RISK = "layoff_risk_employees";
+    static final String PENDING_REPORTS = "pending_reports";
+    static final String PENDING_LEAVE_REQUESTS = "pending_leave_requests";
+    static final String UPCOMING_MEETINGS = "upcoming_meetings";
+
+    // Counter column -> getDashboardStats key
+    private static final String[][] STATS_KEYS = {
+            {TOTAL_EMPLOYEES, "totalEmployees"},
+            {"total_manajer", "totalManajer"},
+            {"total_supervisor", "totalSupervisor"},
+            {"total_pegawai", "totalPegawai"},
+            {LAYOFF_RISK, "layoffRiskEmployees"},
+            {PENDING_REPORTS, "pendingReports"},
+            {PENDING_LEAVE_REQUESTS, "pendingLeaveRequests"},
+            {UPCOMING_MEETINGS, "upcomingMeetings"},
+    };
+
+    // One statement recounting every counter, in STATS_KEYS order
+    private static final String RECOUNT = """
+            SELECT
+                (SELECT COUNT(*) FROM employees),
+                (SELECT COUNT(*) FROM employees WHERE role = 'manajer'),
+                (SELECT COUNT(*) FROM employees WHERE role = 'supervisor'),
+                (SELECT COUNT(*) FROM employees WHERE role = 'pegawai'),
+                (SELECT COUNT(*) FROM employees WHERE layoff_risk = true),
+                (SELECT COUNT(*) FROM reports WHERE status = 'pending'),
+                (SELECT COUNT(*) FROM leave_requests WHERE status = 'pending'),
+                (SELECT COUNT(*) FROM meetings WHERE tanggal >= CURDATE() AND status = 'scheduled')
+            """;
+
+    private static volatile ScheduledExecutorService reconciler;
+
+    private DashboardCounters() {}
+
+    /**
+     * Adds delta to the counter of a role; roles without a counter are left to reconcile()
+     */
+    static void adjustRole(Connection conn, String role, int delta) throws SQLException {
+        if ("manajer".equals(role) || "supervisor".equals(role) || "pegawai".equals(role)) {
+            adjust(conn, "total_" + role, delta);
+        }
+    }
+
+    /**
+     * Change of a pending counter when a row's status goes from one value to another
+     */
+    static int pendingDelta(String from, String to) {
+        return ("pending".equals(to) ? 1 : 0) - ("pending".equals(from) ? 1 : 0);
+    }
+
+    /**
+     * Adds delta to a counter; call inside the transaction making the counted change
+     */
+    static void adjust(Connection conn, String column, int delta) throws SQLException {
+        if (delta == 0) {
+            return;
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE dashboard_counters SET " + column + " = " + column + " + ? WHERE id = 1")) {
+            pstmt.setInt(1, delta);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * The stats from the counter row. Before the first reconcile() on a fresh database there
+     * is no row yet; they are then counted directly, and the row is left to the reconciler
+     * instead of writing on (and committing) a connection the caller owns.
+     */
+    static Map<String, Object> read(Connection conn) throws SQLException {
+        Map<String, Object> stats = new HashMap<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM dashboard_counters WHERE id = 1")) {
+            if (rs.next()) {
+                for (String[] key : STATS_KEYS) {
+                    stats.put(key[1], rs.getInt(key[0]));
+                }
+                return stats;
+            }
+        }
+        int[] actual = recount(conn);
+        for (int i = 0; i < STATS_KEYS.length; i++) {
+            stats.put(STATS_KEYS[i][1], actual[i]);
+        }
+        return stats;
+    }
+
+    private static int[] recount(Connection conn) throws SQLException {
+        int[] actual = new int[STATS_KEYS.length];
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(RECOUNT)) {
+            rs.next();
+            for (int i = 0; i < STATS_KEYS.length; i++) {
+                actual[i] = rs.getInt(i + 1);
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Recounts every counter from the base tables and repairs the row, returning how many
+     * counters had drifted. The row is locked first, so a writer that adjusted it has
+     * committed and is counted, and a writer still to adjust it waits and lands on top.
+     */
+    static int reconcile(Connection conn) throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT IGNORE INTO dashboard_counters (id) VALUES (1)");
+        }
+        conn.setAutoCommit(false);
+        try {
+            int[] stored = null;
+            try (Statement stmt = conn.createStatement()) {
+                ResultSet rs = stmt.executeQuery("SELECT * FROM dashboard_counters WHERE id = 1 FOR UPDATE");
+                if (rs.next()) {
+                    stored = new int[STATS_KEYS.length];
+                    for (int i = 0; i < STATS_KEYS.length; i++) {
+                        stored[i] = rs.getInt(STATS_KEYS[i][0]);
+                    }
+                }
+            }
+
+            int[] actual = recount(conn);
+
+            StringBuilder update = new StringBuilder("UPDATE dashboard_counters SET reconciled_at = NOW()");
+            for (String[] key : STATS_KEYS) {
+                update.append(", ").append(key[0]).append(" = ?");
+            }
+            update.append(" WHERE id = 1");
+            int drifted = 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(update.toString())) {
+                for (int i = 0; i < STATS_KEYS.length; i++) {
+                    pstmt.setInt(i + 1, actual[i]);
+                    if (stored != null && stored[i] != actual[i]) {
+                        logger.info("Dashboard counter " + STATS_KEYS[i][0] + " drifted: "
+                                + stored[i] + " -> " + actual[i]);
+                        drifted++;
+                    }
+                }
+                pstmt.executeUpdate();
+            }
+            conn.commit();
+            return drifted;
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Starts the periodic reconciliation once per process
+     */
+    static synchronized void startReconciler(DataSource dataSource) {
+        if (reconciler != null) {
+            return;
+        }
+        reconciler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gawe-counter-reconciler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        reconciler.scheduleWithFixedDelay(() -> {
+            try (Connection conn = dataSource.getConnection()) {
+                reconcileIfUnlocked(conn);
+            } catch (Exception e) {
+                logger.warning("Error reconciling dashboard counters: " + e.getMessage());
+            }
+        }, 0, RECONCILE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Runs reconcile() unless another process holds the reconcile lock; that one is already
+     * recounting, so this run is skipped rather than queued behind it
+     */
+    private static void reconcileIfUnlocked(Connection conn) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT GET_LOCK(?, 0)")) {
+            pstmt.setString(1, RECONCILE_LOCK);
+            ResultSet rs = pstmt.executeQuery();
+            if (!rs.next() || rs.getInt(1) != 1) {
+                logger.fine("Dashboard counters are being reconciled by another process");
+                return;
+            }
+        }
+        try {
+            reconcile(conn);
+        } finally {
+            try (PreparedStatement pstmt = conn.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+                pstmt.setString(1, RECONCILE_LOCK);
+                pstmt.executeQuery();
+            }
+        }
+    }
+}
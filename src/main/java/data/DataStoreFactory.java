@@ -1,26 +1,45 @@
 package data;
 
+import java.util.concurrent.locks.ReentrantLock;
+
 /**
  * Factory class for creating and managing DataStore instances
  */
 public class DataStoreFactory {
-    private static MySQLDataStore instance;
+    // volatile + ReentrantLock instead of synchronized so virtual threads
+    // waiting on the first initialization unmount instead of pinning their carrier
+    private static volatile MySQLDataStore instance;
+    private static final ReentrantLock lock = new ReentrantLock();
     
     private DataStoreFactory() {
         // Private constructor to prevent instantiation
     }
     
-    public static synchronized MySQLDataStore getMySQLDataStore() {
-        if (instance == null) {
-            instance = new MySQLDataStore();
+    public static MySQLDataStore getMySQLDataStore() {
+        MySQLDataStore current = instance;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (instance == null) {
+                instance = new MySQLDataStore();
+            }
+            return instance;
+        } finally {
+            lock.unlock();
         }
-        return instance;
     }
     
     public static void closeDataStore() {
-        if (instance != null) {
-            instance.close();
-            instance = null;
+        lock.lock();
+        try {
+            if (instance != null) {
+                instance.close();
+                instance = null;
+            }
+        } finally {
+            lock.unlock();
         }
     }
 }
@@ -0,0 +1,91 @@
+package data;
+
+import models.Employee;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Process-wide read-through cache of employee rows used by MySQLDataStore.
+ *
+ * The whole employees table is bulk-loaded on first use and reloaded once the load is
+ * older than the TTL, which also picks up rows changed by other processes. Writes made
+ * through this process drop the affected rows immediately. Loads take a stamp before
+ * querying and are discarded if an invalidation happened meanwhile, so a slow read
+ * cannot put back a row that was just updated. Callers always get copies.
+ */
+final class EmployeeCache {
+    private static final long TTL_MS = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<String, Employee> employees = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile long loadedAt = 0;
+
+    boolean isLoaded() {
+        return loadedAt != 0 && System.currentTimeMillis() - loadedAt < TTL_MS;
+    }
+
+    long stamp() {
+        return invalidations.get();
+    }
+
+    Employee get(String id) {
+        Employee employee = employees.get(id);
+        return employee != null ? new Employee(employee) : null;
+    }
+
+    /**
+     * Replaces the cache contents with a full table read
+     */
+    void load(Collection<Employee> all, long stamp) {
+        lock.lock();
+        try {
+            if (invalidations.get() != stamp) {
+                return;
+            }
+            employees.clear();
+            for (Employee employee : all) {
+                employees.put(employee.getId(), new Employee(employee));
+            }
+            loadedAt = System.currentTimeMillis();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void put(Employee employee, long stamp) {
+        lock.lock();
+        try {
+            if (invalidations.get() == stamp) {
+                employees.put(employee.getId(), new Employee(employee));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidate(String id) {
+        lock.lock();
+        try {
+            invalidations.incrementAndGet();
+            employees.remove(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidateAll() {
+        lock.lock();
+        try {
+            invalidations.incrementAndGet();
+            employees.clear();
+            loadedAt = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
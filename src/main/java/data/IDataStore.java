@@ -4,6 +4,7 @@ import models.*;
 import data.MySQLDataStore.MonthlyEvaluation;
 
 import java.sql.SQLException;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Date;
@@ -20,17 +21,23 @@ public interface IDataStore {
     List<Employee> getAllEmployees();
     List<Employee> getEmployeesByDivision(String divisi);
     Employee getEmployeeById(String id);
+    Map<String, Employee> getEmployeesByIds(Collection<String> ids);
     void updateEmployee(Employee employee);
+    /** Changes an employee's own name and, when not blank, password; other fields stay as they are */
+    void updateProfile(String employeeId, String nama, String password);
     void addEmployee(Employee employee) throws SQLException;
 
     // KPI operations
     List<KPI> getAllKPI();
     boolean saveKPI(String divisi, int bulan, int tahun, double score, String managerId);
+    boolean saveKPIs(List<KPI> kpis);
 
     // Report operations
     List<Report> getAllReports();
     List<Report> getPendingReports();
     List<Report> getReportsByDivision(String divisi);
+    String getReportContent(int reportId);
+    List<SearchResult> search(String text, String divisi, String employeeId, int limit);
     boolean saveReport(String supervisorId, String divisi, int bulan, int tahun, String filePath);
     boolean updateReportStatus(int reportId, String status, String managerNotes, String reviewedBy);
 
@@ -52,12 +59,14 @@ public interface IDataStore {
     List<LeaveRequest> getLeaveRequestsForApproval(String approverId);
     boolean saveLeaveRequest(String employeeId, String leaveType, Date startDate, Date endDate, String reason);
     boolean approveLeaveRequest(int leaveRequestId, String approverId, String notes);
+    List<Integer> approveLeaveRequests(List<Integer> leaveRequestIds, String approverId, String notes);
     boolean rejectLeaveRequest(int leaveRequestId, String approverId, String notes);
     List<LeaveRequest> getPendingLeaveRequestsByEmployee(String employeeId);
 
     // Salary History operations
     List<SalaryHistory> getAllSalaryHistory();
     List<SalaryHistory> getSalaryHistoryByEmployee(String employeeId);
+    PayrollSummary runPayroll(int bulan, int tahun, boolean rerun);
 
     // Employee Evaluation operations
     List<EmployeeEvaluation> getAllEvaluations();
@@ -70,6 +79,13 @@ public interface IDataStore {
     List<MonthlyEvaluation> getAllMonthlyEvaluations();
     List<MonthlyEvaluation> getMonthlyEvaluationsBySupervisor(String supervisorId);
 
+    // History operations: company, division or employee, one keyset-paged query per page
+    List<Meeting> getAllMeetings(HistoryQuery query);
+    List<Attendance> getAllAttendance(HistoryQuery query);
+    List<LeaveRequest> getAllLeaveRequests(HistoryQuery query);
+    List<SalaryHistory> getAllSalaryHistory(HistoryQuery query);
+    List<EmployeeEvaluation> getAllEvaluations(HistoryQuery query);
+
     // Dashboard & Utility operations
     // PERBAIKAN: Menambahkan metode getDashboardStats yang hilang
     Map<String, Object> getDashboardStats();
@@ -4,6 +4,10 @@ import database.DatabaseConnection;
 import database.DatabaseException;
 import database.MySQLDatabaseManager;
 import models.*;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
 import java.sql.*;
 import java.util.*;
 import java.util.Date;
@@ -11,12 +15,32 @@ import java.util.logging.Logger;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 public class MySQLDataStore implements IDataStore {
     private static final Logger logger = Logger.getLogger(MySQLDataStore.class.getName());
     private final DatabaseConnection dbConnection;
     private MySQLDatabaseManager dbManager;
+    private final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
+    // Connection of the transaction inTransaction is running on this thread, if any
+    private final ThreadLocal<Connection> transactionConnection = new ThreadLocal<>();
+    private final List<Consumer<ChangeEvent>> changeListeners = new CopyOnWriteArrayList<>();
+    // Shared by every MySQLDataStore in the process, like the connection pool
+    private static final EmployeeCache employeeCache = new EmployeeCache();
+    private static final SearchIndex searchIndex = new SearchIndex();
+    // Meetings per participant query; keeps IN lists well below packet and placeholder limits
+    private static final int PARTICIPANT_BATCH_SIZE = 500;
+    // Leave requests per approval statement in approveLeaveRequests
+    private static final int APPROVAL_BATCH_SIZE = 500;
+    // Report listings leave out the content body; it is fetched per report by getReportContent
+    private static final String REPORT_SUMMARY_COLUMNS =
+            "id, supervisor_id, divisi, bulan, tahun, upload_date, status, manager_notes, reviewed_by, reviewed_date";
+    // Write-behind clock-ins and clock-outs; null writes attendance straight through
+    private volatile AttendanceQueue attendanceQueue;
 
     public static class MonthlyEvaluation {
         private int id;
@@ -76,6 +100,8 @@ public class MySQLDataStore implements IDataStore {
             this.dbManager.initializeDatabase();
             System.out.println("✅ Database initialized successfully");
 
+            DashboardCounters.startReconciler(dbConnection.getDataSource());
+
             logger.info("MySQL DataStore initialized successfully");
 
         } catch (SQLException e) {
@@ -90,10 +116,170 @@ public class MySQLDataStore implements IDataStore {
         }
     }
 
+    /**
+     * Acknowledges clock-ins and clock-outs once they are logged durably in directory and
+     * writes them to MySQL in batches. Meant for the server, where the morning punches of
+     * every client arrive together; if the directory is unusable attendance stays write-through.
+     */
+    public void enableAttendanceQueue(Path directory) {
+        if (attendanceQueue != null) {
+            return;
+        }
+        try {
+            attendanceQueue = AttendanceQueue.open(directory, dbConnection.getDataSource());
+            logger.info("Attendance punches queued through " + directory);
+        } catch (IOException e) {
+            logger.warning("Attendance queue unavailable, writing punches directly: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs work with every data store call made on this thread sharing one pooled
+     * connection, instead of borrowing a connection per method. Nested calls reuse
+     * the connection already bound to the thread.
+     */
+    public <T> T withSharedConnection(Supplier<T> work) {
+        if (boundConnection.get() != null) {
+            return work.get();
+        }
+        try (Connection conn = dbConnection.getConnection()) {
+            boundConnection.set(nonClosing(conn, true));
+            try {
+                return work.get();
+            } finally {
+                boundConnection.remove();
+            }
+        } catch (SQLException e) {
+            logger.severe("Error borrowing shared connection: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to borrow shared connection", e);
+        }
+    }
+
+    private Connection getConnection() throws SQLException {
+        Connection transaction = transactionConnection.get();
+        if (transaction != null) {
+            return transaction;
+        }
+        Connection bound = boundConnection.get();
+        return bound != null ? bound : dbConnection.getConnection();
+    }
+
+    private interface Transaction<T> {
+        T run(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Runs work as one transaction, committing on success and rolling back on failure.
+     * While it runs, data store calls made on this thread, including nested inTransaction
+     * calls, join it on the same connection; only this outermost scope commits, rolls back
+     * and gives the connection up.
+     */
+    private <T> T inTransaction(Transaction<T> work) throws SQLException {
+        Connection joined = transactionConnection.get();
+        if (joined != null) {
+            return work.run(joined);
+        }
+        try (Connection conn = getConnection()) {
+            conn.setAutoCommit(false);
+            transactionConnection.set(nonClosing(conn, false));
+            try {
+                T result = work.run(conn);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                transactionConnection.remove();
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    /**
+     * Current status of a row, locked until the transaction ends; null if there is no such row
+     */
+    private static String statusForUpdate(Connection conn, String table, int id) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT status FROM " + table + " WHERE id = ? FOR UPDATE")) {
+            pstmt.setInt(1, id);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
+    /**
+     * Wraps a shared connection so try-with-resources in the data methods does not return it
+     * to the pool. With rollbackOnClose, close() instead undoes what a pooled close would: an
+     * abandoned transaction is rolled back and auto-commit restored for the next method on the
+     * connection. A transaction's own connection is wrapped without it, since the transaction
+     * is ended by the scope that opened it.
+     */
+    private static Connection nonClosing(Connection conn, boolean rollbackOnClose) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+                        if (rollbackOnClose && !conn.getAutoCommit()) {
+                            conn.rollback();
+                            conn.setAutoCommit(true);
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(conn, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    /**
+     * Registers a listener notified after each successful mutation with a compact ChangeEvent.
+     * Listeners run on the mutating thread and must return quickly.
+     */
+    public void addChangeListener(Consumer<ChangeEvent> listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Consumer<ChangeEvent> listener) {
+        changeListeners.remove(listener);
+    }
+
+    private boolean hasChangeListeners() {
+        return !changeListeners.isEmpty();
+    }
+
+    private void publishChange(String kind, String scope, String type, Object entityId, Map<String, Object> data) {
+        if (scope == null || changeListeners.isEmpty()) {
+            return;
+        }
+        ChangeEvent event = new ChangeEvent(ChangeEvent.topic(kind, scope), type,
+                entityId == null ? null : String.valueOf(entityId), data);
+        for (Consumer<ChangeEvent> listener : changeListeners) {
+            try {
+                listener.accept(event);
+            } catch (RuntimeException e) {
+                logger.warning("Change listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Builds event data from key/value pairs, leaving out null values
+     */
+    private static Map<String, Object> eventData(Object... keyValues) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < keyValues.length; i += 2) {
+            if (keyValues[i + 1] != null) {
+                data.put((String) keyValues[i], keyValues[i + 1]);
+            }
+        }
+        return data;
+    }
+
     @Override
     public Employee authenticateUser(String employeeId, String password) {
         String query = "SELECT * FROM employees WHERE id = ? AND password = ?";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, employeeId);
             pstmt.setString(2, password);
@@ -110,9 +296,10 @@ public class MySQLDataStore implements IDataStore {
 
     @Override
     public List<Employee> getAllEmployees() {
+        long stamp = employeeCache.stamp();
         List<Employee> employees = new ArrayList<>();
         String query = "SELECT * FROM employees ORDER BY nama";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -122,6 +309,7 @@ public class MySQLDataStore implements IDataStore {
             logger.severe("Error getting all employees: " + e.getMessage());
             throw new DatabaseException.QueryException("Failed to retrieve employees", e);
         }
+        employeeCache.load(employees, stamp);
         return employees;
     }
 
@@ -129,7 +317,7 @@ public class MySQLDataStore implements IDataStore {
     public List<Employee> getEmployeesByDivision(String divisi) {
         List<Employee> employees = new ArrayList<>();
         String query = "SELECT * FROM employees WHERE divisi = ? ORDER BY nama";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, divisi);
             ResultSet rs = pstmt.executeQuery();
@@ -145,42 +333,122 @@ public class MySQLDataStore implements IDataStore {
 
     @Override
     public Employee getEmployeeById(String id) {
-        String query = "SELECT * FROM employees WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
+        return id != null ? getEmployeesByIds(List.of(id)).get(id) : null;
+    }
+
+    /**
+     * Resolves many employees at once from the employee cache, bulk-loading it when
+     * needed; ids not cached yet are fetched together in one query
+     */
+    @Override
+    public Map<String, Employee> getEmployeesByIds(Collection<String> ids) {
+        if (!employeeCache.isLoaded()) {
+            getAllEmployees();
+        }
+        Map<String, Employee> found = new LinkedHashMap<>();
+        Set<String> missing = new LinkedHashSet<>();
+        for (String id : ids) {
+            if (id == null || found.containsKey(id)) {
+                continue;
+            }
+            Employee employee = employeeCache.get(id);
+            if (employee != null) {
+                found.put(id, employee);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (missing.isEmpty()) {
+            return found;
+        }
+
+        long stamp = employeeCache.stamp();
+        String placeholders = String.join(", ", Collections.nCopies(missing.size(), "?"));
+        String query = "SELECT * FROM employees WHERE id IN (" + placeholders + ")";
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, id);
+            int index = 1;
+            for (String id : missing) {
+                pstmt.setString(index++, id);
+            }
             ResultSet rs = pstmt.executeQuery();
-            if (rs.next()) {
-                return mapResultSetToEmployee(rs);
+            while (rs.next()) {
+                Employee employee = mapResultSetToEmployee(rs);
+                employeeCache.put(employee, stamp);
+                found.put(employee.getId(), employee);
             }
         } catch (SQLException e) {
-            logger.severe("Error getting employee by ID: " + e.getMessage());
-            throw new DatabaseException.QueryException("Failed to retrieve employee by ID", e);
+            logger.severe("Error getting employees by ID: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to retrieve employees by ID", e);
         }
-        return null;
+        return found;
     }
 
     @Override
     public void updateEmployee(Employee employee) {
         String query = "UPDATE employees SET nama = ?, password = ?, role = ?, divisi = ?, jabatan = ?, tgl_masuk = ?, sisa_cuti = ?, gaji_pokok = ?, kpi_score = ?, supervisor_rating = ?, layoff_risk = ? WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, employee.getNama());
-            pstmt.setString(2, employee.getPassword());
-            pstmt.setString(3, employee.getRole());
-            pstmt.setString(4, employee.getDivisi());
-            pstmt.setString(5, employee.getJabatan());
-            pstmt.setDate(6, new java.sql.Date(employee.getTglMasuk().getTime()));
-            pstmt.setInt(7, employee.getSisaCuti());
-            pstmt.setDouble(8, employee.getGajiPokok());
-            pstmt.setDouble(9, employee.getKpiScore());
-            pstmt.setDouble(10, employee.getSupervisorRating());
-            pstmt.setBoolean(11, employee.isLayoffRisk());
-            pstmt.setString(12, employee.getId());
-            pstmt.executeUpdate();
+        try {
+            inTransaction(conn -> {
+                // The previous role and risk flag decide which dashboard counters move
+                String oldRole;
+                boolean oldLayoffRisk;
+                try (PreparedStatement lock = conn.prepareStatement("SELECT role, layoff_risk FROM employees WHERE id = ? FOR UPDATE")) {
+                    lock.setString(1, employee.getId());
+                    ResultSet rs = lock.executeQuery();
+                    if (!rs.next()) {
+                        return null;
+                    }
+                    oldRole = rs.getString("role");
+                    oldLayoffRisk = rs.getBoolean("layoff_risk");
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    pstmt.setString(1, employee.getNama());
+                    pstmt.setString(2, employee.getPassword());
+                    pstmt.setString(3, employee.getRole());
+                    pstmt.setString(4, employee.getDivisi());
+                    pstmt.setString(5, employee.getJabatan());
+                    pstmt.setDate(6, new java.sql.Date(employee.getTglMasuk().getTime()));
+                    pstmt.setInt(7, employee.getSisaCuti());
+                    pstmt.setDouble(8, employee.getGajiPokok());
+                    pstmt.setDouble(9, employee.getKpiScore());
+                    pstmt.setDouble(10, employee.getSupervisorRating());
+                    pstmt.setBoolean(11, employee.isLayoffRisk());
+                    pstmt.setString(12, employee.getId());
+                    pstmt.executeUpdate();
+                }
+                if (!oldRole.equals(employee.getRole())) {
+                    DashboardCounters.adjustRole(conn, oldRole, -1);
+                    DashboardCounters.adjustRole(conn, employee.getRole(), 1);
+                }
+                DashboardCounters.adjust(conn, DashboardCounters.LAYOFF_RISK,
+                        (employee.isLayoffRisk() ? 1 : 0) - (oldLayoffRisk ? 1 : 0));
+                return null;
+            });
         } catch (SQLException e) {
             logger.severe("Error updating employee: " + e.getMessage());
             throw new DatabaseException.QueryException("Failed to update employee", e);
+        } finally {
+            employeeCache.invalidate(employee.getId());
+        }
+    }
+
+    /**
+     * Updates only the fields employees edit themselves; a null or blank value keeps the current one
+     */
+    @Override
+    public void updateProfile(String employeeId, String nama, String password) {
+        String query = "UPDATE employees SET nama = COALESCE(?, nama), password = COALESCE(?, password) WHERE id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setString(1, nama == null || nama.isBlank() ? null : nama);
+            pstmt.setString(2, password == null || password.isBlank() ? null : password);
+            pstmt.setString(3, employeeId);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            logger.severe("Error updating employee profile: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to update employee profile", e);
+        } finally {
+            employeeCache.invalidate(employeeId);
         }
     }
 
@@ -190,24 +458,33 @@ public class MySQLDataStore implements IDataStore {
         employee.setId(generatedId);
 
         String query = "INSERT INTO employees (id, nama, password, role, divisi, jabatan, tgl_masuk, sisa_cuti, gaji_pokok, kpi_score, supervisor_rating, layoff_risk) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, employee.getId());
-            pstmt.setString(2, employee.getNama());
-            pstmt.setString(3, employee.getPassword());
-            pstmt.setString(4, employee.getRole());
-            pstmt.setString(5, employee.getDivisi());
-            pstmt.setString(6, employee.getJabatan());
-            pstmt.setDate(7, new java.sql.Date(employee.getTglMasuk().getTime()));
-            pstmt.setInt(8, employee.getSisaCuti());
-            pstmt.setDouble(9, employee.getGajiPokok());
-            pstmt.setDouble(10, employee.getKpiScore());
-            pstmt.setDouble(11, employee.getSupervisorRating());
-            pstmt.setBoolean(12, employee.isLayoffRisk());
-            pstmt.executeUpdate();
+        try {
+            inTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    pstmt.setString(1, employee.getId());
+                    pstmt.setString(2, employee.getNama());
+                    pstmt.setString(3, employee.getPassword());
+                    pstmt.setString(4, employee.getRole());
+                    pstmt.setString(5, employee.getDivisi());
+                    pstmt.setString(6, employee.getJabatan());
+                    pstmt.setDate(7, new java.sql.Date(employee.getTglMasuk().getTime()));
+                    pstmt.setInt(8, employee.getSisaCuti());
+                    pstmt.setDouble(9, employee.getGajiPokok());
+                    pstmt.setDouble(10, employee.getKpiScore());
+                    pstmt.setDouble(11, employee.getSupervisorRating());
+                    pstmt.setBoolean(12, employee.isLayoffRisk());
+                    pstmt.executeUpdate();
+                }
+                DashboardCounters.adjust(conn, DashboardCounters.TOTAL_EMPLOYEES, 1);
+                DashboardCounters.adjustRole(conn, employee.getRole(), 1);
+                DashboardCounters.adjust(conn, DashboardCounters.LAYOFF_RISK, employee.isLayoffRisk() ? 1 : 0);
+                return null;
+            });
         } catch (SQLException e) {
             logger.severe("Error adding employee: " + e.getMessage());
             throw new DatabaseException.QueryException("Failed to add employee", e);
+        } finally {
+            employeeCache.invalidate(employee.getId());
         }
     }
 
@@ -229,7 +506,7 @@ public class MySQLDataStore implements IDataStore {
         }
 
         String query = "SELECT id FROM employees WHERE id LIKE ? ORDER BY id DESC LIMIT 1";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, prefix + "%");
             ResultSet rs = pstmt.executeQuery();
@@ -247,7 +524,7 @@ public class MySQLDataStore implements IDataStore {
     public List<KPI> getAllKPI() {
         List<KPI> kpiList = new ArrayList<>();
         String query = "SELECT * FROM kpi ORDER BY tahun DESC, bulan DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -262,41 +539,95 @@ public class MySQLDataStore implements IDataStore {
 
     @Override
     public boolean saveKPI(String divisi, int bulan, int tahun, double score, String managerId) {
+        return saveKPIs(List.of(new KPI(divisi, bulan, tahun, score, managerId)));
+    }
+
+    /**
+     * Upserts the KPI rows and propagates the scores to the divisions' employees in one
+     * transaction with batched statements. As when saving them one at a time, a division's
+     * employees take the score of its last KPI in the list.
+     */
+    @Override
+    public boolean saveKPIs(List<KPI> kpis) {
+        if (kpis == null || kpis.isEmpty()) {
+            return true;
+        }
         String query = "INSERT INTO kpi (divisi, bulan, tahun, score, manager_id) VALUES (?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE score = VALUES(score), manager_id = VALUES(manager_id)";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, divisi);
-            pstmt.setInt(2, bulan);
-            pstmt.setInt(3, tahun);
-            pstmt.setDouble(4, score);
-            pstmt.setString(5, managerId);
-            int result = pstmt.executeUpdate();
-            updateEmployeeKPIScores(divisi, score);
-            return result > 0;
+        Map<String, Double> divisionScores = new LinkedHashMap<>();
+        for (KPI kpi : kpis) {
+            divisionScores.put(kpi.getDivisi(), kpi.getScore());
+        }
+        try {
+            inTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    for (KPI kpi : kpis) {
+                        pstmt.setString(1, kpi.getDivisi());
+                        pstmt.setInt(2, kpi.getBulan());
+                        pstmt.setInt(3, kpi.getTahun());
+                        pstmt.setDouble(4, kpi.getScore());
+                        pstmt.setString(5, kpi.getManagerId());
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                }
+                updateEmployeeKPIScores(conn, divisionScores);
+                return null;
+            });
         } catch (SQLException e) {
             logger.severe("Error saving KPI: " + e.getMessage());
             return false;
+        } finally {
+            employeeCache.invalidateAll();
         }
+
+        for (KPI kpi : kpis) {
+            publishChange(ChangeEvent.KPI, kpi.getDivisi(), "updated", kpi.getDivisi() + "/" + kpi.getBulan() + "/" + kpi.getTahun(),
+                    eventData("divisi", kpi.getDivisi(), "bulan", kpi.getBulan(), "tahun", kpi.getTahun(), "score", kpi.getScore()));
+        }
+        return true;
     }
 
-    private void updateEmployeeKPIScores(String divisi, double kpiScore) {
-        String query = "UPDATE employees SET kpi_score = ?, layoff_risk = ? WHERE divisi = ? AND role = 'pegawai'";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setDouble(1, kpiScore);
-            pstmt.setBoolean(2, kpiScore < 60.0);
-            pstmt.setString(3, divisi);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            logger.severe("Error updating employee KPI scores: " + e.getMessage());
+    // Sets each division's employee scores and risk flags, moving the layoff risk counter by the flags flipped
+    private void updateEmployeeKPIScores(Connection conn, Map<String, Double> divisionScores) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(divisionScores.size(), "?"));
+        // Employees per division and current risk flag, locked until the update commits
+        Map<String, int[]> riskCounts = new HashMap<>();
+        try (PreparedStatement lock = conn.prepareStatement(
+                "SELECT divisi, layoff_risk, COUNT(*) FROM employees WHERE role = 'pegawai' AND divisi IN ("
+                        + placeholders + ") GROUP BY divisi, layoff_risk FOR UPDATE")) {
+            int index = 1;
+            for (String divisi : divisionScores.keySet()) {
+                lock.setString(index++, divisi);
+            }
+            ResultSet rs = lock.executeQuery();
+            while (rs.next()) {
+                riskCounts.computeIfAbsent(rs.getString(1), d -> new int[2])[rs.getBoolean(2) ? 1 : 0] = rs.getInt(3);
+            }
         }
+
+        int layoffRiskDelta = 0;
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE employees SET kpi_score = ?, layoff_risk = ? WHERE divisi = ? AND role = 'pegawai'")) {
+            for (Map.Entry<String, Double> entry : divisionScores.entrySet()) {
+                boolean layoffRisk = entry.getValue() < 60.0;
+                int[] counts = riskCounts.getOrDefault(entry.getKey(), new int[2]);
+                // Newly at risk are those not flagged yet; no longer at risk those flagged
+                layoffRiskDelta += layoffRisk ? counts[0] : -counts[1];
+                pstmt.setDouble(1, entry.getValue());
+                pstmt.setBoolean(2, layoffRisk);
+                pstmt.setString(3, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+        DashboardCounters.adjust(conn, DashboardCounters.LAYOFF_RISK, layoffRiskDelta);
     }
 
     @Override
     public List<Report> getAllReports() {
         List<Report> reports = new ArrayList<>();
-        String query = "SELECT * FROM reports ORDER BY upload_date DESC";
-        try (Connection conn = dbConnection.getConnection();
+        String query = "SELECT " + REPORT_SUMMARY_COLUMNS + " FROM reports ORDER BY upload_date DESC";
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -312,8 +643,8 @@ public class MySQLDataStore implements IDataStore {
     @Override
     public List<Report> getPendingReports() {
         List<Report> reports = new ArrayList<>();
-        String query = "SELECT * FROM reports WHERE status = 'pending' ORDER BY upload_date DESC";
-        try (Connection conn = dbConnection.getConnection();
+        String query = "SELECT " + REPORT_SUMMARY_COLUMNS + " FROM reports WHERE status = 'pending' ORDER BY upload_date DESC";
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -329,8 +660,8 @@ public class MySQLDataStore implements IDataStore {
     @Override
     public List<Report> getReportsByDivision(String divisi) {
         List<Report> reports = new ArrayList<>();
-        String query = "SELECT * FROM reports WHERE divisi = ? ORDER BY upload_date DESC";
-        try (Connection conn = dbConnection.getConnection();
+        String query = "SELECT " + REPORT_SUMMARY_COLUMNS + " FROM reports WHERE divisi = ? ORDER BY upload_date DESC";
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, divisi);
             ResultSet rs = pstmt.executeQuery();
@@ -344,17 +675,59 @@ public class MySQLDataStore implements IDataStore {
         return reports;
     }
 
+    @Override
+    public String getReportContent(int reportId) {
+        String query = "SELECT content FROM reports WHERE id = ?";
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(query)) {
+            pstmt.setInt(1, reportId);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? TextCodec.decode(rs.getString("content")) : null;
+        } catch (SQLException e) {
+            logger.severe("Error getting report content: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to retrieve report content", e);
+        }
+    }
+
+    /**
+     * Ranked full-text search over report bodies, evaluation comments and leave reasons,
+     * answered from the in-process SearchIndex; null filters are not applied
+     */
+    @Override
+    public List<SearchResult> search(String text, String divisi, String employeeId, int limit) {
+        try {
+            searchIndex.startRefresher(dbConnection.getDataSource());
+            return searchIndex.search(dbConnection.getDataSource(), text, divisi, employeeId, limit);
+        } catch (SQLException e) {
+            logger.severe("Error searching: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to search", e);
+        }
+    }
+
     @Override
     public boolean saveReport(String supervisorId, String divisi, int bulan, int tahun, String content) {
         String query = "INSERT INTO reports (supervisor_id, divisi, bulan, tahun, content, upload_date, status) VALUES (?, ?, ?, ?, ?, NOW(), 'pending')";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, supervisorId);
-            pstmt.setString(2, divisi);
-            pstmt.setInt(3, bulan);
-            pstmt.setInt(4, tahun);
-            pstmt.setString(5, content);
-            return pstmt.executeUpdate() > 0;
+        try {
+            Integer reportId = inTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, supervisorId);
+                    pstmt.setString(2, divisi);
+                    pstmt.setInt(3, bulan);
+                    pstmt.setInt(4, tahun);
+                    pstmt.setString(5, TextCodec.encode(content));
+                    pstmt.executeUpdate();
+                    DashboardCounters.adjust(conn, DashboardCounters.PENDING_REPORTS, 1);
+                    ResultSet keys = pstmt.getGeneratedKeys();
+                    return keys.next() ? keys.getInt(1) : null;
+                }
+            });
+            if (reportId != null) {
+                searchIndex.put(SearchIndex.reportKey(reportId),
+                        SearchIndex.reportMeta(reportId, supervisorId, divisi, bulan, tahun, new Date()), content);
+            }
+            publishChange(ChangeEvent.REPORTS, divisi, "created", reportId,
+                    eventData("supervisorId", supervisorId, "bulan", bulan, "tahun", tahun, "status", "pending"));
+            return true;
         } catch (SQLException e) {
             logger.severe("Error saving report: " + e.getMessage());
             return false;
@@ -364,24 +737,51 @@ public class MySQLDataStore implements IDataStore {
     @Override
     public boolean updateReportStatus(int reportId, String status, String managerNotes, String reviewedBy) {
         String query = "UPDATE reports SET status = ?, manager_notes = ?, reviewed_by = ?, reviewed_date = NOW() WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, status);
-            pstmt.setString(2, managerNotes);
-            pstmt.setString(3, reviewedBy);
-            pstmt.setInt(4, reportId);
-            return pstmt.executeUpdate() > 0;
+        try {
+            boolean updated = inTransaction(conn -> {
+                String previous = statusForUpdate(conn, "reports", reportId);
+                if (previous == null) {
+                    return false;
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                    pstmt.setString(1, status);
+                    pstmt.setString(2, TextCodec.encode(managerNotes));
+                    pstmt.setString(3, reviewedBy);
+                    pstmt.setInt(4, reportId);
+                    pstmt.executeUpdate();
+                }
+                DashboardCounters.adjust(conn, DashboardCounters.PENDING_REPORTS, DashboardCounters.pendingDelta(previous, status));
+                return true;
+            });
+            if (!updated) {
+                return false;
+            }
+            if (hasChangeListeners()) {
+                try (Connection conn = getConnection()) {
+                    publishChange(ChangeEvent.REPORTS, getReportDivision(conn, reportId), status, reportId,
+                            eventData("status", status, "reviewedBy", reviewedBy));
+                }
+            }
+            return true;
         } catch (SQLException e) {
             logger.severe("Error updating report status: " + e.getMessage());
             return false;
         }
     }
 
+    private String getReportDivision(Connection conn, int reportId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT divisi FROM reports WHERE id = ?")) {
+            pstmt.setInt(1, reportId);
+            ResultSet rs = pstmt.executeQuery();
+            return rs.next() ? rs.getString(1) : null;
+        }
+    }
+
     @Override
     public List<Attendance> getAttendanceByEmployee(String employeeId) {
         List<Attendance> attendanceList = new ArrayList<>();
         String query = "SELECT * FROM attendance WHERE employee_id = ? ORDER BY tanggal DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, employeeId);
             ResultSet rs = pstmt.executeQuery();
@@ -392,14 +792,16 @@ public class MySQLDataStore implements IDataStore {
             logger.severe("Error getting attendance by employee: " + e.getMessage());
             throw new DatabaseException.QueryException("Failed to retrieve attendance", e);
         }
-        return attendanceList;
+        AttendanceQueue queue = attendanceQueue;
+        return queue != null ? queue.overlay(employeeId, null, attendanceList) : attendanceList;
     }
 
     @Override
     public List<Attendance> getTodayAttendance(String employeeId) {
         List<Attendance> attendanceList = new ArrayList<>();
-        String query = "SELECT * FROM attendance WHERE employee_id = ? AND DATE(tanggal) = CURDATE()";
-        try (Connection conn = dbConnection.getConnection();
+        // tanggal is a DATE, so plain equality matches today and keeps unique_attendance usable
+        String query = "SELECT * FROM attendance WHERE employee_id = ? AND tanggal = CURDATE()";
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, employeeId);
             ResultSet rs = pstmt.executeQuery();
@@ -410,13 +812,23 @@ public class MySQLDataStore implements IDataStore {
             logger.severe("Error getting today's attendance: " + e.getMessage());
             throw new DatabaseException.QueryException("Failed to retrieve today's attendance", e);
         }
-        return attendanceList;
+        AttendanceQueue queue = attendanceQueue;
+        return queue != null ? queue.overlay(employeeId, LocalDate.now(), attendanceList) : attendanceList;
     }
 
     @Override
     public boolean saveAttendance(String employeeId, Date tanggal, String jamMasuk, String jamKeluar, String status) {
+        AttendanceQueue queue = attendanceQueue;
+        if (queue != null) {
+            try {
+                queue.save(employeeId, toLocalDate(tanggal), jamMasuk, jamKeluar, status, isLateArrival(jamMasuk));
+                return true;
+            } catch (IOException e) {
+                logger.warning("Could not queue attendance, writing it directly: " + e.getMessage());
+            }
+        }
         String query = "INSERT INTO attendance (employee_id, tanggal, jam_masuk, jam_keluar, status, is_late) VALUES (?, ?, ?, ?, ?, ?) ON DUPLICATE KEY UPDATE jam_masuk = VALUES(jam_masuk), jam_keluar = VALUES(jam_keluar), status = VALUES(status)";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, employeeId);
             pstmt.setDate(2, new java.sql.Date(tanggal.getTime()));
@@ -441,8 +853,22 @@ public class MySQLDataStore implements IDataStore {
 
     @Override
     public boolean updateAttendanceClockOut(String employeeId, String jamKeluar) {
-        String query = "UPDATE attendance SET jam_keluar = ? WHERE employee_id = ? AND DATE(tanggal) = CURDATE()";
-        try (Connection conn = dbConnection.getConnection();
+        AttendanceQueue queue = attendanceQueue;
+        if (queue != null) {
+            LocalDate today = LocalDate.now();
+            try {
+                // Like the UPDATE below, a clock-out needs today's clock-in to exist
+                if (!queue.hasSave(employeeId, today) && !hasAttendance(employeeId, today)) {
+                    return false;
+                }
+                queue.clockOut(employeeId, today, jamKeluar);
+                return true;
+            } catch (IOException | SQLException e) {
+                logger.warning("Could not queue clock out, writing it directly: " + e.getMessage());
+            }
+        }
+        String query = "UPDATE attendance SET jam_keluar = ? WHERE employee_id = ? AND tanggal = CURDATE()";
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setTime(1, Time.valueOf(jamKeluar + ":00"));
             pstmt.setString(2, employeeId);
@@ -453,6 +879,15 @@ public class MySQLDataStore implements IDataStore {
         }
     }
 
+    private boolean hasAttendance(String employeeId, LocalDate tanggal) throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM attendance WHERE employee_id = ? AND tanggal = ?")) {
+            pstmt.setString(1, employeeId);
+            pstmt.setDate(2, java.sql.Date.valueOf(tanggal));
+            return pstmt.executeQuery().next();
+        }
+    }
+
     private boolean isLateArrival(String jamMasuk) {
         if (jamMasuk == null) return false;
         try {
@@ -468,20 +903,25 @@ public class MySQLDataStore implements IDataStore {
     @Override
     public List<Meeting> getMeetingsByEmployee(String employeeId) {
         List<Meeting> meetings = new ArrayList<>();
+        // A UNION rather than an OR across the join, so each half can use its own index
         String query = """
-            SELECT DISTINCT m.* FROM meetings m 
-            LEFT JOIN meeting_participants mp ON m.id = mp.meeting_id 
-            WHERE m.organizer_id = ? OR mp.participant_id = ? 
-            ORDER BY m.tanggal ASC
+            SELECT m.* FROM meetings m WHERE m.organizer_id = ?
+            UNION
+            SELECT m.* FROM meetings m
+            JOIN meeting_participants mp ON m.id = mp.meeting_id
+            WHERE mp.participant_id = ?
+            ORDER BY tanggal ASC
             """;
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, employeeId);
-            pstmt.setString(2, employeeId);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                meetings.add(mapResultSetToMeeting(rs));
+        try (Connection conn = getConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, employeeId);
+                pstmt.setString(2, employeeId);
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    meetings.add(mapResultSetToMeeting(rs));
+                }
             }
+            loadMeetingParticipants(conn, meetings);
         } catch (SQLException e) {
             logger.severe("Error getting meetings by employee: " + e.getMessage());
             throw new DatabaseException.QueryException("Failed to retrieve meetings", e);
@@ -495,42 +935,57 @@ public class MySQLDataStore implements IDataStore {
         String insertMeetingQuery = "INSERT INTO meetings (title, description, tanggal, waktu_mulai, waktu_selesai, lokasi, organizer_id, status) VALUES (?, ?, ?, ?, ?, ?, ?, 'scheduled')";
         String insertParticipantQuery = "INSERT INTO meeting_participants (meeting_id, participant_id) VALUES (?, ?)";
 
-        try (Connection conn = dbConnection.getConnection()) {
-            conn.setAutoCommit(false);
-
-            int meetingId;
-            try (PreparedStatement pstmt = conn.prepareStatement(insertMeetingQuery, Statement.RETURN_GENERATED_KEYS)) {
-                pstmt.setString(1, title);
-                pstmt.setString(2, description);
-                pstmt.setDate(3, new java.sql.Date(tanggal.getTime()));
-                pstmt.setTime(4, Time.valueOf(waktuMulai + ":00"));
-                pstmt.setTime(5, Time.valueOf(waktuSelesai + ":00"));
-                pstmt.setString(6, lokasi);
-                pstmt.setString(7, organizerId);
-                pstmt.executeUpdate();
+        try {
+            int meetingId = inTransaction(conn -> {
+                int id;
+                try (PreparedStatement pstmt = conn.prepareStatement(insertMeetingQuery, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, title);
+                    pstmt.setString(2, description);
+                    pstmt.setDate(3, new java.sql.Date(tanggal.getTime()));
+                    pstmt.setTime(4, Time.valueOf(waktuMulai + ":00"));
+                    pstmt.setTime(5, Time.valueOf(waktuSelesai + ":00"));
+                    pstmt.setString(6, lokasi);
+                    pstmt.setString(7, organizerId);
+                    pstmt.executeUpdate();
+
+                    ResultSet rs = pstmt.getGeneratedKeys();
+                    if (rs.next()) {
+                        id = rs.getInt(1);
+                    } else {
+                        throw new SQLException("Failed to get meeting ID");
+                    }
+                }
 
-                ResultSet rs = pstmt.getGeneratedKeys();
-                if (rs.next()) {
-                    meetingId = rs.getInt(1);
-                } else {
-                    throw new SQLException("Failed to get meeting ID");
+                if (participantIds != null && !participantIds.isEmpty()) {
+                    try (PreparedStatement pstmt = conn.prepareStatement(insertParticipantQuery)) {
+                        for (String participantId : participantIds) {
+                            pstmt.setInt(1, id);
+                            pstmt.setString(2, participantId);
+                            pstmt.addBatch();
+                        }
+                        pstmt.executeBatch();
+                    }
                 }
-            }
 
-            if (participantIds != null && !participantIds.isEmpty()) {
-                try (PreparedStatement pstmt = conn.prepareStatement(insertParticipantQuery)) {
+                if (!toLocalDate(tanggal).isBefore(LocalDate.now())) {
+                    DashboardCounters.adjust(conn, DashboardCounters.UPCOMING_MEETINGS, 1);
+                }
+                return id;
+            });
+
+            if (hasChangeListeners()) {
+                Map<String, Object> data = eventData("title", title, "tanggal", tanggal.getTime(),
+                        "waktuMulai", waktuMulai, "organizerId", organizerId);
+                publishChange(ChangeEvent.MEETINGS, organizerId, "created", meetingId, data);
+                if (participantIds != null) {
                     for (String participantId : participantIds) {
-                        pstmt.setInt(1, meetingId);
-                        pstmt.setString(2, participantId);
-                        pstmt.addBatch();
+                        if (!participantId.equals(organizerId)) {
+                            publishChange(ChangeEvent.MEETINGS, participantId, "created", meetingId, data);
+                        }
                     }
-                    pstmt.executeBatch();
                 }
             }
-
-            conn.commit();
             return true;
-
         } catch (SQLException e) {
             logger.severe("Error saving meeting: " + e.getMessage());
             return false;
@@ -541,7 +996,7 @@ public class MySQLDataStore implements IDataStore {
     public List<LeaveRequest> getAllLeaveRequests() {
         List<LeaveRequest> leaveRequests = new ArrayList<>();
         String query = "SELECT * FROM leave_requests ORDER BY request_date DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -558,7 +1013,7 @@ public class MySQLDataStore implements IDataStore {
     public List<LeaveRequest> getLeaveRequestsByEmployee(String employeeId) {
         List<LeaveRequest> leaveRequests = new ArrayList<>();
         String query = "SELECT * FROM leave_requests WHERE employee_id = ? ORDER BY request_date DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, employeeId);
             ResultSet rs = pstmt.executeQuery();
@@ -576,7 +1031,7 @@ public class MySQLDataStore implements IDataStore {
     public List<LeaveRequest> getPendingLeaveRequests() {
         List<LeaveRequest> leaveRequests = new ArrayList<>();
         String query = "SELECT * FROM leave_requests WHERE status = 'pending' ORDER BY request_date ASC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -624,7 +1079,7 @@ public class MySQLDataStore implements IDataStore {
         }
 
         List<LeaveRequest> leaveRequests = new ArrayList<>();
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             if (approver.getRole().equals("supervisor")) {
                 pstmt.setString(1, approver.getDivisi());
@@ -649,15 +1104,34 @@ public class MySQLDataStore implements IDataStore {
         int totalDays = (int) ChronoUnit.DAYS.between(start, end) + 1;
 
         String query = "INSERT INTO leave_requests (employee_id, leave_type, start_date, end_date, total_days, reason, status, request_date) VALUES (?, ?, ?, ?, ?, ?, 'pending', NOW())";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, employeeId);
-            pstmt.setString(2, leaveType);
-            pstmt.setDate(3, new java.sql.Date(startDate.getTime()));
-            pstmt.setDate(4, new java.sql.Date(endDate.getTime()));
-            pstmt.setInt(5, totalDays);
-            pstmt.setString(6, reason);
-            return pstmt.executeUpdate() > 0;
+        try {
+            Integer id = inTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, employeeId);
+                    pstmt.setString(2, leaveType);
+                    pstmt.setDate(3, new java.sql.Date(startDate.getTime()));
+                    pstmt.setDate(4, new java.sql.Date(endDate.getTime()));
+                    pstmt.setInt(5, totalDays);
+                    pstmt.setString(6, TextCodec.encode(reason));
+                    pstmt.executeUpdate();
+                    DashboardCounters.adjust(conn, DashboardCounters.PENDING_LEAVE_REQUESTS, 1);
+                    ResultSet keys = pstmt.getGeneratedKeys();
+                    return keys.next() ? keys.getInt(1) : null;
+                }
+            });
+            Employee employee = getEmployeeById(employeeId);
+            String divisi = employee != null ? employee.getDivisi() : null;
+            if (id != null) {
+                searchIndex.put(SearchIndex.leaveRequestKey(id),
+                        SearchIndex.leaveRequestMeta(id, employeeId, divisi, leaveType, new Date()), reason);
+            }
+            if (hasChangeListeners()) {
+                Map<String, Object> data = eventData("employeeId", employeeId, "leaveType", leaveType,
+                        "totalDays", totalDays, "status", "pending");
+                publishChange(ChangeEvent.LEAVE, divisi, "created", id, data);
+                publishChange(ChangeEvent.MY_LEAVE, employeeId, "created", id, data);
+            }
+            return true;
         } catch (SQLException e) {
             logger.severe("Error saving leave request: " + e.getMessage());
             return false;
@@ -677,52 +1151,193 @@ public class MySQLDataStore implements IDataStore {
 
     @Override
     public boolean approveLeaveRequest(int leaveRequestId, String approverId, String notes) {
-        String query = "UPDATE leave_requests SET status = 'approved', approver_id = ?, approver_notes = ?, approval_date = NOW() WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, approverId);
-            pstmt.setString(2, notes);
-            pstmt.setInt(3, leaveRequestId);
+        return !approveLeaveRequests(List.of(leaveRequestId), approverId, notes).isEmpty();
+    }
 
-            int result = pstmt.executeUpdate();
-            if (result > 0) {
-                // Deduct leave days from employee
-                LeaveRequest request = getLeaveRequestById(leaveRequestId);
-                if (request != null) {
-                    Employee employee = getEmployeeById(request.getEmployeeId());
-                    if (employee != null) {
-                        employee.setSisaCuti(employee.getSisaCuti() - request.getTotalDays());
-                        updateEmployee(employee);
-                    }
+    /**
+     * Approves the pending requests among the ids in one transaction on one connection:
+     * the requests and their employees are locked, the requests marked approved and each
+     * employee's leave balance decremented in place, so concurrent approvals cannot lose
+     * a deduction. Ids that are unknown or no longer pending are skipped.
+     */
+    @Override
+    public List<Integer> approveLeaveRequests(List<Integer> leaveRequestIds, String approverId, String notes) {
+        return approveLeaveRequests(leaveRequestIds, approverId, notes, null);
+    }
+
+    /**
+     * Like approveLeaveRequests, but when divisi is not null only requests of employees
+     * (role pegawai) in that division are approved; the others are skipped. The scope is
+     * checked on the rows locked for the approval, so it cannot change in between.
+     */
+    public List<Integer> approveLeaveRequests(List<Integer> leaveRequestIds, String approverId, String notes,
+                                              String divisi) {
+        if (leaveRequestIds == null || leaveRequestIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<LeaveRequest, String> approved = new LinkedHashMap<>();
+        try {
+            inTransaction(conn -> {
+                for (int from = 0; from < leaveRequestIds.size(); from += APPROVAL_BATCH_SIZE) {
+                    approvePending(conn, leaveRequestIds.subList(from,
+                            Math.min(from + APPROVAL_BATCH_SIZE, leaveRequestIds.size())), approverId, notes, divisi,
+                            approved);
                 }
-            }
-            return result > 0;
+                DashboardCounters.adjust(conn, DashboardCounters.PENDING_LEAVE_REQUESTS, -approved.size());
+                return null;
+            });
         } catch (SQLException e) {
-            logger.severe("Error approving leave request: " + e.getMessage());
-            return false;
+            logger.severe("Error approving leave requests: " + e.getMessage());
+            return new ArrayList<>();
+        }
+
+        List<Integer> approvedIds = new ArrayList<>();
+        for (Map.Entry<LeaveRequest, String> entry : approved.entrySet()) {
+            employeeCache.invalidate(entry.getKey().getEmployeeId());
+            publishLeaveDecision(entry.getKey(), entry.getValue(), "approved");
+            approvedIds.add(entry.getKey().getId());
+        }
+        return approvedIds;
+    }
+
+    // Approves one IN-list batch, adding each approved request and its division to approved
+    private void approvePending(Connection conn, List<Integer> ids, String approverId, String notes, String divisi,
+                                Map<LeaveRequest, String> approved) throws SQLException {
+        String placeholders = String.join(", ", Collections.nCopies(ids.size(), "?"));
+        List<LeaveRequest> requests = new ArrayList<>();
+        Map<Integer, String> divisions = new HashMap<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT lr.*, e.divisi FROM leave_requests lr JOIN employees e ON lr.employee_id = e.id "
+                        + "WHERE lr.id IN (" + placeholders + ") AND lr.status = 'pending'"
+                        + (divisi != null ? " AND e.divisi = ? AND e.role = 'pegawai'" : "") + " FOR UPDATE")) {
+            for (int i = 0; i < ids.size(); i++) {
+                pstmt.setInt(i + 1, ids.get(i));
+            }
+            if (divisi != null) {
+                pstmt.setString(ids.size() + 1, divisi);
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                LeaveRequest request = mapResultSetToLeaveRequest(rs);
+                requests.add(request);
+                divisions.put(request.getId(), rs.getString("divisi"));
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE leave_requests SET status = 'approved', approver_id = ?, approver_notes = ?, approval_date = NOW() "
+                        + "WHERE id IN (" + String.join(", ", Collections.nCopies(requests.size(), "?")) + ")")) {
+            pstmt.setString(1, approverId);
+            pstmt.setString(2, TextCodec.encode(notes));
+            for (int i = 0; i < requests.size(); i++) {
+                pstmt.setInt(i + 3, requests.get(i).getId());
+            }
+            pstmt.executeUpdate();
+        }
+
+        // One relative update per employee, however many of their requests are in the batch
+        Map<String, Integer> daysByEmployee = new LinkedHashMap<>();
+        for (LeaveRequest request : requests) {
+            daysByEmployee.merge(request.getEmployeeId(), request.getTotalDays(), Integer::sum);
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE employees SET sisa_cuti = sisa_cuti - ? WHERE id = ?")) {
+            for (Map.Entry<String, Integer> entry : daysByEmployee.entrySet()) {
+                pstmt.setInt(1, entry.getValue());
+                pstmt.setString(2, entry.getKey());
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+
+        for (LeaveRequest request : requests) {
+            request.setStatus("approved");
+            request.setApproverId(approverId);
+            approved.put(request, divisions.get(request.getId()));
         }
     }
 
     @Override
     public boolean rejectLeaveRequest(int leaveRequestId, String approverId, String notes) {
+        return rejectLeaveRequest(leaveRequestId, approverId, notes, null);
+    }
+
+    /**
+     * Like rejectLeaveRequest, but when divisi is not null only a request of an employee
+     * (role pegawai) in that division is rejected
+     */
+    public boolean rejectLeaveRequest(int leaveRequestId, String approverId, String notes, String divisi) {
         String query = "UPDATE leave_requests SET status = 'rejected', approver_id = ?, approver_notes = ?, approval_date = NOW() WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, approverId);
-            pstmt.setString(2, notes);
-            pstmt.setInt(3, leaveRequestId);
-            return pstmt.executeUpdate() > 0;
+        try {
+            if (!decideLeaveRequest(query, "rejected", leaveRequestId, approverId, notes, divisi)) {
+                return false;
+            }
+            if (hasChangeListeners()) {
+                LeaveRequest request = getLeaveRequestById(leaveRequestId);
+                if (request != null) {
+                    Employee employee = getEmployeeById(request.getEmployeeId());
+                    publishLeaveDecision(request, employee != null ? employee.getDivisi() : null, "rejected");
+                }
+            }
+            return true;
         } catch (SQLException e) {
             logger.severe("Error rejecting leave request: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Applies a decision statement without balance changes (a rejection) and moves the
+     * pending leave counter with it. A non-null divisi limits it to requests of employees
+     * in that division.
+     */
+    private boolean decideLeaveRequest(String query, String status, int leaveRequestId,
+                                       String approverId, String notes, String divisi) throws SQLException {
+        return inTransaction(conn -> {
+            String previous = statusForUpdate(conn, "leave_requests", leaveRequestId);
+            if (previous == null) {
+                return false;
+            }
+            if (divisi != null && !requestedInDivision(conn, leaveRequestId, divisi)) {
+                return false;
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                pstmt.setString(1, approverId);
+                pstmt.setString(2, TextCodec.encode(notes));
+                pstmt.setInt(3, leaveRequestId);
+                pstmt.executeUpdate();
+            }
+            DashboardCounters.adjust(conn, DashboardCounters.PENDING_LEAVE_REQUESTS,
+                    DashboardCounters.pendingDelta(previous, status));
+            return true;
+        });
+    }
+
+    // Whether the leave request is an employee's (role pegawai) of the division
+    private static boolean requestedInDivision(Connection conn, int leaveRequestId, String divisi) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM leave_requests lr JOIN employees e ON lr.employee_id = e.id "
+                        + "WHERE lr.id = ? AND e.divisi = ? AND e.role = 'pegawai'")) {
+            pstmt.setInt(1, leaveRequestId);
+            pstmt.setString(2, divisi);
+            return pstmt.executeQuery().next();
+        }
+    }
+
+    private void publishLeaveDecision(LeaveRequest request, String divisi, String status) {
+        Map<String, Object> data = eventData("employeeId", request.getEmployeeId(),
+                "totalDays", request.getTotalDays(), "status", status);
+        publishChange(ChangeEvent.LEAVE, divisi, status, request.getId(), data);
+        publishChange(ChangeEvent.MY_LEAVE, request.getEmployeeId(), status, request.getId(), data);
+    }
+
     @Override
     public List<LeaveRequest> getPendingLeaveRequestsByEmployee(String employeeId) {
         List<LeaveRequest> leaveRequests = new ArrayList<>();
         String query = "SELECT * FROM leave_requests WHERE employee_id = ? AND status = 'pending' ORDER BY request_date DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, employeeId);
             ResultSet rs = pstmt.executeQuery();
@@ -738,7 +1353,7 @@ public class MySQLDataStore implements IDataStore {
 
     private LeaveRequest getLeaveRequestById(int id) {
         String query = "SELECT * FROM leave_requests WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setInt(1, id);
             ResultSet rs = pstmt.executeQuery();
@@ -755,7 +1370,7 @@ public class MySQLDataStore implements IDataStore {
     public List<SalaryHistory> getAllSalaryHistory() {
         List<SalaryHistory> salaryHistories = new ArrayList<>();
         String query = "SELECT * FROM salary_history ORDER BY tahun DESC, bulan DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -772,7 +1387,7 @@ public class MySQLDataStore implements IDataStore {
     public List<SalaryHistory> getSalaryHistoryByEmployee(String employeeId) {
         List<SalaryHistory> salaryHistories = new ArrayList<>();
         String query = "SELECT * FROM salary_history WHERE employee_id = ? ORDER BY tahun DESC, bulan DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, employeeId);
             ResultSet rs = pstmt.executeQuery();
@@ -786,11 +1401,24 @@ public class MySQLDataStore implements IDataStore {
         return salaryHistories;
     }
 
+    /**
+     * Pays every employee for the period in one transaction; see PayrollRun
+     */
+    @Override
+    public PayrollSummary runPayroll(int bulan, int tahun, boolean rerun) {
+        try {
+            return inTransaction(conn -> PayrollRun.run(conn, bulan, tahun, rerun));
+        } catch (SQLException e) {
+            logger.severe("Error running payroll: " + e.getMessage());
+            throw new DatabaseException.QueryException("Payroll run failed", e);
+        }
+    }
+
     @Override
     public List<EmployeeEvaluation> getAllEvaluations() {
         List<EmployeeEvaluation> evaluations = new ArrayList<>();
         String query = "SELECT * FROM employee_evaluations ORDER BY evaluation_date DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -807,26 +1435,29 @@ public class MySQLDataStore implements IDataStore {
     public boolean saveEmployeeEvaluation(String employeeId, String supervisorId, double punctualityScore,
                                           double attendanceScore, double overallRating, String comments) {
         String query = "INSERT INTO employee_evaluations (employee_id, supervisor_id, punctuality_score, attendance_score, overall_rating, comments, evaluation_date) VALUES (?, ?, ?, ?, ?, ?, NOW())";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, employeeId);
-            pstmt.setString(2, supervisorId);
-            pstmt.setDouble(3, punctualityScore);
-            pstmt.setDouble(4, attendanceScore);
-            pstmt.setDouble(5, overallRating);
-            pstmt.setString(6, comments);
-
-            int result = pstmt.executeUpdate();
-            if (result > 0) {
-                // Update employee supervisor rating
-                Employee employee = getEmployeeById(employeeId);
-                if (employee != null) {
-                    employee.setSupervisorRating(overallRating);
-                    employee.setLayoffRisk(employee.getKpiScore() < 60 || overallRating < 60);
-                    updateEmployee(employee);
+        try {
+            Integer evaluationId = inTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, employeeId);
+                    pstmt.setString(2, supervisorId);
+                    pstmt.setDouble(3, punctualityScore);
+                    pstmt.setDouble(4, attendanceScore);
+                    pstmt.setDouble(5, overallRating);
+                    pstmt.setString(6, TextCodec.encode(comments));
+                    pstmt.executeUpdate();
+                    // Update employee supervisor rating
+                    updateSupervisorRating(conn, employeeId, overallRating);
+                    ResultSet keys = pstmt.getGeneratedKeys();
+                    return keys.next() ? keys.getInt(1) : null;
                 }
+            });
+            employeeCache.invalidate(employeeId);
+            if (evaluationId != null) {
+                Employee employee = getEmployeeById(employeeId);
+                searchIndex.put(SearchIndex.evaluationKey(evaluationId), SearchIndex.evaluationMeta(evaluationId,
+                        employeeId, employee != null ? employee.getDivisi() : null, new Date()), comments);
             }
-            return result > 0;
+            return true;
         } catch (SQLException e) {
             logger.severe("Error saving employee evaluation: " + e.getMessage());
             return false;
@@ -837,41 +1468,72 @@ public class MySQLDataStore implements IDataStore {
     public boolean saveMonthlyEmployeeEvaluation(String employeeId, String supervisorId, int month, int year,
                                                  double punctualityScore, double attendanceScore, double productivityScore,
                                                  double overallRating, String comments) {
-        String query = "INSERT INTO monthly_evaluations (employee_id, supervisor_id, month, year, punctuality_score, attendance_score, productivity_score, overall_rating, comments, evaluation_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, NOW()) ON DUPLICATE KEY UPDATE punctuality_score = VALUES(punctuality_score), attendance_score = VALUES(attendance_score), productivity_score = VALUES(productivity_score), overall_rating = VALUES(overall_rating), comments = VALUES(comments), evaluation_date = VALUES(evaluation_date)";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setString(1, employeeId);
-            pstmt.setString(2, supervisorId);
-            pstmt.setInt(3, month);
-            pstmt.setInt(4, year);
-            pstmt.setDouble(5, punctualityScore);
-            pstmt.setDouble(6, attendanceScore);
-            pstmt.setDouble(7, productivityScore);
-            pstmt.setDouble(8, overallRating);
-            pstmt.setString(9, comments);
-
-            int result = pstmt.executeUpdate();
-            if (result > 0) {
-                // Update employee supervisor rating with latest monthly evaluation
-                Employee employee = getEmployeeById(employeeId);
-                if (employee != null) {
-                    employee.setSupervisorRating(overallRating);
-                    employee.setOverallRating(overallRating);
-                    employee.setLayoffRisk(employee.getKpiScore() < 60 || overallRating < 60);
-                    updateEmployee(employee);
+        String query = "INSERT INTO monthly_evaluations (employee_id, supervisor_id, month, year, punctuality_score, attendance_score, productivity_score, overall_rating, comments, evaluation_date) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, NOW()) ON DUPLICATE KEY UPDATE punctuality_score = VALUES(punctuality_score), attendance_score = VALUES(attendance_score), productivity_score = VALUES(productivity_score), overall_rating = VALUES(overall_rating), comments = VALUES(comments), evaluation_date = VALUES(evaluation_date), id = LAST_INSERT_ID(id)";
+        try {
+            Integer evaluationId = inTransaction(conn -> {
+                try (PreparedStatement pstmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setString(1, employeeId);
+                    pstmt.setString(2, supervisorId);
+                    pstmt.setInt(3, month);
+                    pstmt.setInt(4, year);
+                    pstmt.setDouble(5, punctualityScore);
+                    pstmt.setDouble(6, attendanceScore);
+                    pstmt.setDouble(7, productivityScore);
+                    pstmt.setDouble(8, overallRating);
+                    pstmt.setString(9, TextCodec.encode(comments));
+                    pstmt.executeUpdate();
+                    // Update employee supervisor rating with latest monthly evaluation
+                    updateSupervisorRating(conn, employeeId, overallRating);
+                    // LAST_INSERT_ID(id) makes the key the existing row's id when the upsert updated it
+                    ResultSet keys = pstmt.getGeneratedKeys();
+                    return keys.next() ? keys.getInt(1) : 0;
                 }
-            }
-            return result > 0;
+            });
+            employeeCache.invalidate(employeeId);
+            Employee employee = getEmployeeById(employeeId);
+            searchIndex.put(SearchIndex.monthlyEvaluationKey(employeeId, month, year),
+                    SearchIndex.monthlyEvaluationMeta(evaluationId, employeeId,
+                            employee != null ? employee.getDivisi() : null, month, year, new Date()), comments);
+            return true;
         } catch (SQLException e) {
             logger.severe("Error saving monthly employee evaluation: " + e.getMessage());
             return false;
         }
     }
 
+    /**
+     * Sets an employee's supervisor rating and layoff risk in place, so concurrent changes to the
+     * rest of the row are kept, and moves the LAYOFF_RISK counter by the flag's change
+     */
+    private static void updateSupervisorRating(Connection conn, String employeeId, double rating) throws SQLException {
+        boolean oldLayoffRisk;
+        try (PreparedStatement lock = conn.prepareStatement("SELECT layoff_risk FROM employees WHERE id = ? FOR UPDATE")) {
+            lock.setString(1, employeeId);
+            ResultSet rs = lock.executeQuery();
+            if (!rs.next()) {
+                return;
+            }
+            oldLayoffRisk = rs.getBoolean("layoff_risk");
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE employees SET supervisor_rating = ?, layoff_risk = (kpi_score < 60 OR ? < 60) WHERE id = ?")) {
+            pstmt.setDouble(1, rating);
+            pstmt.setDouble(2, rating);
+            pstmt.setString(3, employeeId);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT layoff_risk FROM employees WHERE id = ?")) {
+            pstmt.setString(1, employeeId);
+            ResultSet rs = pstmt.executeQuery();
+            boolean newLayoffRisk = rs.next() && rs.getBoolean("layoff_risk");
+            DashboardCounters.adjust(conn, DashboardCounters.LAYOFF_RISK, (newLayoffRisk ? 1 : 0) - (oldLayoffRisk ? 1 : 0));
+        }
+    }
+
     @Override
     public boolean hasMonthlyEvaluation(String employeeId, int month, int year) {
         String query = "SELECT COUNT(*) FROM monthly_evaluations WHERE employee_id = ? AND month = ? AND year = ?";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, employeeId);
             pstmt.setInt(2, month);
@@ -890,7 +1552,7 @@ public class MySQLDataStore implements IDataStore {
     public List<MonthlyEvaluation> getAllMonthlyEvaluations() {
         List<MonthlyEvaluation> evaluations = new ArrayList<>();
         String query = "SELECT * FROM monthly_evaluations ORDER BY year DESC, month DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(query)) {
             while (rs.next()) {
@@ -907,7 +1569,7 @@ public class MySQLDataStore implements IDataStore {
     public List<MonthlyEvaluation> getMonthlyEvaluationsBySupervisor(String supervisorId) {
         List<MonthlyEvaluation> evaluations = new ArrayList<>();
         String query = "SELECT * FROM monthly_evaluations WHERE supervisor_id = ? ORDER BY year DESC, month DESC";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = getConnection();
              PreparedStatement pstmt = conn.prepareStatement(query)) {
             pstmt.setString(1, supervisorId);
             ResultSet rs = pstmt.executeQuery();
@@ -921,68 +1583,214 @@ public class MySQLDataStore implements IDataStore {
         return evaluations;
     }
 
+    // History operations: one keyset-paged query per call, see HistoryQuery
+
     @Override
-    public Map<String, Object> getDashboardStats() {
-        Map<String, Object> stats = new HashMap<>();
+    public List<Meeting> getAllMeetings(HistoryQuery query) {
+        // An employee's meetings are those they organize or attend
+        Function<String, String> employeeFilter = employees -> "(m.organizer_id IN (" + employees + ")"
+                + " OR m.id IN (SELECT meeting_id FROM meeting_participants WHERE participant_id IN (" + employees + ")))";
+        try (Connection conn = getConnection()) {
+            List<Meeting> meetings = queryHistory(conn, "SELECT m.* FROM meetings m", "m", "m.tanggal",
+                    dateKey("m.tanggal"), employeeFilter, query, this::mapResultSetToMeeting);
+            loadMeetingParticipants(conn, meetings);
+            return meetings;
+        } catch (SQLException e) {
+            logger.severe("Error getting meeting history: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to retrieve meeting history", e);
+        }
+    }
 
-        try (Connection conn = dbConnection.getConnection()) {
-            // Total employees
-            try (Statement stmt = conn.createStatement()) {
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as total FROM employees");
-                if (rs.next()) {
-                    stats.put("totalEmployees", rs.getInt("total"));
-                }
-            }
+    @Override
+    public List<Attendance> getAllAttendance(HistoryQuery query) {
+        try (Connection conn = getConnection()) {
+            return queryHistory(conn, "SELECT a.* FROM attendance a", "a", "a.tanggal",
+                    dateKey("a.tanggal"), byEmployee("a"), query, this::mapResultSetToAttendance);
+        } catch (SQLException e) {
+            logger.severe("Error getting attendance history: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to retrieve attendance history", e);
+        }
+    }
 
-            // Employees by role
-            try (Statement stmt = conn.createStatement()) {
-                ResultSet rs = stmt.executeQuery("SELECT role, COUNT(*) as count FROM employees GROUP BY role");
-                while (rs.next()) {
-                    stats.put("total" + rs.getString("role").substring(0, 1).toUpperCase() + rs.getString("role").substring(1), rs.getInt("count"));
-                }
-            }
+    @Override
+    public List<LeaveRequest> getAllLeaveRequests(HistoryQuery query) {
+        try (Connection conn = getConnection()) {
+            return queryHistory(conn, "SELECT lr.* FROM leave_requests lr", "lr", "lr.start_date",
+                    dateKey("lr.start_date"), byEmployee("lr"), query, this::mapResultSetToLeaveRequest);
+        } catch (SQLException e) {
+            logger.severe("Error getting leave request history: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to retrieve leave request history", e);
+        }
+    }
 
-            // Layoff risk employees
-            try (Statement stmt = conn.createStatement()) {
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM employees WHERE layoff_risk = true");
-                if (rs.next()) {
-                    stats.put("layoffRiskEmployees", rs.getInt("count"));
-                }
-            }
+    @Override
+    public List<SalaryHistory> getAllSalaryHistory(HistoryQuery query) {
+        try (Connection conn = getConnection()) {
+            return queryHistory(conn, "SELECT s.* FROM salary_history s", "s", "s.payment_date",
+                    SALARY_PERIOD_KEY, byEmployee("s"), query, this::mapResultSetToSalaryHistory);
+        } catch (SQLException e) {
+            logger.severe("Error getting salary history: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to retrieve salary history", e);
+        }
+    }
 
-            // Pending reports
-            try (Statement stmt = conn.createStatement()) {
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM reports WHERE status = 'pending'");
-                if (rs.next()) {
-                    stats.put("pendingReports", rs.getInt("count"));
-                }
-            }
+    @Override
+    public List<EmployeeEvaluation> getAllEvaluations(HistoryQuery query) {
+        try (Connection conn = getConnection()) {
+            return queryHistory(conn, "SELECT ev.* FROM employee_evaluations ev", "ev", "ev.evaluation_date",
+                    timestampKey("ev.evaluation_date"), byEmployee("ev"), query, this::mapResultSetToEmployeeEvaluation);
+        } catch (SQLException e) {
+            logger.severe("Error getting evaluation history: " + e.getMessage());
+            throw new DatabaseException.QueryException("Failed to retrieve evaluation history", e);
+        }
+    }
 
-            // Pending leave requests
-            try (Statement stmt = conn.createStatement()) {
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM leave_requests WHERE status = 'pending'");
-                if (rs.next()) {
-                    stats.put("pendingLeaveRequests", rs.getInt("count"));
-                }
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private static Function<String, String> byEmployee(String alias) {
+        return employees -> alias + ".employee_id IN (" + employees + ")";
+    }
+
+    /**
+     * The columns a history listing sorts by ahead of its id, and how a cursor key binds to them
+     */
+    private static final class HistoryKey {
+        final List<String> columns;
+        final Function<Date, List<Object>> values;
+
+        HistoryKey(List<String> columns, Function<Date, List<Object>> values) {
+            this.columns = columns;
+            this.values = values;
+        }
+    }
+
+    // Salary sorts by pay period; its cursor key is the period's first day (SalaryHistory.getPeriodStart)
+    private static final HistoryKey SALARY_PERIOD_KEY = new HistoryKey(List.of("s.tahun", "s.bulan"), key -> {
+        LocalDate period = toLocalDate(key);
+        return List.of(period.getYear(), period.getMonthValue());
+    });
+
+    private static HistoryKey dateKey(String column) {
+        return new HistoryKey(List.of(column), key -> List.of(java.sql.Date.valueOf(toLocalDate(key))));
+    }
+
+    private static HistoryKey timestampKey(String column) {
+        return new HistoryKey(List.of(column), key -> List.of(new Timestamp(key.getTime())));
+    }
+
+    /**
+     * Runs a history listing. employeeFilter turns the set of matching employees (one id,
+     * or a subquery over a division) into the row condition; the date range is half-open
+     * so the date column's index stays usable. Paging is a keyset on (sortKey columns, id),
+     * compared as a row so the sort key's index, which carries the id, serves both the
+     * range and the order.
+     */
+    private <T> List<T> queryHistory(Connection conn, String select, String alias, String dateColumn,
+                                     HistoryKey sortKey, Function<String, String> employeeFilter,
+                                     HistoryQuery query, RowMapper<T> mapper) throws SQLException {
+        StringBuilder sql = new StringBuilder(select).append(" WHERE 1 = 1");
+        List<Object> params = new ArrayList<>();
+
+        String employees = null;
+        List<Object> employeeParams = new ArrayList<>();
+        if (query.getEmployeeId() != null) {
+            employees = "?";
+            employeeParams.add(query.getEmployeeId());
+        } else if (query.getDivisi() != null) {
+            employees = "SELECT id FROM employees WHERE divisi = ?";
+            employeeParams.add(query.getDivisi());
+            if (query.getRole() != null) {
+                employees += " AND role = ?";
+                employeeParams.add(query.getRole());
+            }
+        }
+        if (employees != null) {
+            String filter = employeeFilter.apply(employees);
+            sql.append(" AND ").append(filter);
+            // The filter may use the employee set more than once; bind its parameters for each use
+            long uses = filter.chars().filter(c -> c == '?').count() / employeeParams.size();
+            for (long i = 0; i < uses; i++) {
+                params.addAll(employeeParams);
             }
+        }
+        if (query.getFrom() != null) {
+            sql.append(" AND ").append(dateColumn).append(" >= ?");
+            params.add(java.sql.Date.valueOf(toLocalDate(query.getFrom())));
+        }
+        if (query.getTo() != null) {
+            sql.append(" AND ").append(dateColumn).append(" < ?");
+            params.add(java.sql.Date.valueOf(toLocalDate(query.getTo()).plusDays(1)));
+        }
+        List<String> keyColumns = new ArrayList<>(sortKey.columns);
+        keyColumns.add(alias + ".id");
+        String keyRow = "(" + String.join(", ", keyColumns) + ")";
+        String cursorRow = "(" + String.join(", ", Collections.nCopies(keyColumns.size(), "?")) + ")";
+        if (query.getBeforeId() > 0) {
+            sql.append(" AND ").append(keyRow).append(" < ").append(cursorRow);
+            params.addAll(cursor(sortKey, query.getBeforeKey(), query.getBeforeId()));
+        }
+        // Paging back reads the rows nearest to the after cursor first and flips them afterwards
+        boolean backwards = query.getAfterId() > 0;
+        if (backwards) {
+            sql.append(" AND ").append(keyRow).append(" > ").append(cursorRow);
+            params.addAll(cursor(sortKey, query.getAfterKey(), query.getAfterId()));
+        }
+        String direction = backwards ? " ASC" : " DESC";
+        sql.append(" ORDER BY ").append(String.join(direction + ", ", keyColumns)).append(direction);
+        if (query.getLimit() > 0) {
+            sql.append(" LIMIT ?");
+            params.add(query.getLimit());
+        }
 
-            // Upcoming meetings
-            try (Statement stmt = conn.createStatement()) {
-                ResultSet rs = stmt.executeQuery("SELECT COUNT(*) as count FROM meetings WHERE tanggal >= CURDATE() AND status = 'scheduled'");
-                if (rs.next()) {
-                    stats.put("upcomingMeetings", rs.getInt("count"));
-                }
+        List<T> rows = new ArrayList<>();
+        try (PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < params.size(); i++) {
+                pstmt.setObject(i + 1, params.get(i));
+            }
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                rows.add(mapper.map(rs));
             }
+        }
+        if (backwards) {
+            Collections.reverse(rows);
+        }
+        return rows;
+    }
+
+    private static List<Object> cursor(HistoryKey sortKey, Date key, int id) {
+        if (key == null) {
+            throw new IllegalArgumentException("A history page cursor needs the row's key as well as its id");
+        }
+        List<Object> values = new ArrayList<>(sortKey.values.apply(key));
+        values.add(id);
+        return values;
+    }
 
+    private static LocalDate toLocalDate(Date date) {
+        return date instanceof java.sql.Date ? ((java.sql.Date) date).toLocalDate()
+                : date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    @Override
+    public Map<String, Object> getDashboardStats() {
+        try (Connection conn = getConnection()) {
+            return DashboardCounters.read(conn);
         } catch (SQLException e) {
             logger.severe("Error getting dashboard stats: " + e.getMessage());
+            return new HashMap<>();
         }
-
-        return stats;
     }
 
     @Override
     public void close() {
+        AttendanceQueue queue = attendanceQueue;
+        if (queue != null) {
+            attendanceQueue = null;
+            queue.close();
+        }
         if (dbManager != null) {
             try {
                 dbManager.close();
@@ -1029,6 +1837,7 @@ public class MySQLDataStore implements IDataStore {
         return kpi;
     }
 
+    // Maps a REPORT_SUMMARY_COLUMNS row; the content stays null
     private Report mapResultSetToReport(ResultSet rs) throws SQLException {
         Report report = new Report();
         report.setId(rs.getInt("id"));
@@ -1036,10 +1845,9 @@ public class MySQLDataStore implements IDataStore {
         report.setDivisi(rs.getString("divisi"));
         report.setBulan(rs.getInt("bulan"));
         report.setTahun(rs.getInt("tahun"));
-        report.setContent(rs.getString("content"));
         report.setUploadDate(rs.getTimestamp("upload_date"));
         report.setStatus(rs.getString("status"));
-        report.setManagerNotes(rs.getString("manager_notes"));
+        report.setManagerNotes(TextCodec.decode(rs.getString("manager_notes")));
         report.setReviewedBy(rs.getString("reviewed_by"));
         report.setReviewedDate(rs.getTimestamp("reviewed_date"));
         return report;
@@ -1080,28 +1888,35 @@ public class MySQLDataStore implements IDataStore {
         meeting.setOrganizerId(rs.getString("organizer_id"));
         meeting.setStatus(rs.getString("status"));
         meeting.setCreatedDate(rs.getTimestamp("created_date"));
-
-        // Load participants
-        List<String> participants = getMeetingParticipants(meeting.getId());
-        meeting.setParticipantIds(participants);
-
         return meeting;
     }
 
-    private List<String> getMeetingParticipants(int meetingId) {
-        List<String> participants = new ArrayList<>();
-        String query = "SELECT participant_id FROM meeting_participants WHERE meeting_id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(query)) {
-            pstmt.setInt(1, meetingId);
-            ResultSet rs = pstmt.executeQuery();
-            while (rs.next()) {
-                participants.add(rs.getString("participant_id"));
+    /**
+     * Fills in the participants of all meetings with one IN-list query per
+     * PARTICIPANT_BATCH_SIZE meetings, on the connection that read the meetings
+     */
+    private void loadMeetingParticipants(Connection conn, List<Meeting> meetings) throws SQLException {
+        Map<Integer, Meeting> byId = new LinkedHashMap<>();
+        for (Meeting meeting : meetings) {
+            meeting.setParticipantIds(new ArrayList<>());
+            byId.put(meeting.getId(), meeting);
+        }
+        List<Integer> ids = new ArrayList<>(byId.keySet());
+        for (int from = 0; from < ids.size(); from += PARTICIPANT_BATCH_SIZE) {
+            List<Integer> batch = ids.subList(from, Math.min(ids.size(), from + PARTICIPANT_BATCH_SIZE));
+            String placeholders = String.join(", ", Collections.nCopies(batch.size(), "?"));
+            String query = "SELECT meeting_id, participant_id FROM meeting_participants WHERE meeting_id IN ("
+                    + placeholders + ") ORDER BY id";
+            try (PreparedStatement pstmt = conn.prepareStatement(query)) {
+                for (int i = 0; i < batch.size(); i++) {
+                    pstmt.setInt(i + 1, batch.get(i));
+                }
+                ResultSet rs = pstmt.executeQuery();
+                while (rs.next()) {
+                    byId.get(rs.getInt("meeting_id")).getParticipantIds().add(rs.getString("participant_id"));
+                }
             }
-        } catch (SQLException e) {
-            logger.warning("Error getting meeting participants: " + e.getMessage());
         }
-        return participants;
     }
 
     private LeaveRequest mapResultSetToLeaveRequest(ResultSet rs) throws SQLException {
@@ -1112,10 +1927,10 @@ public class MySQLDataStore implements IDataStore {
         request.setStartDate(rs.getDate("start_date"));
         request.setEndDate(rs.getDate("end_date"));
         request.setTotalDays(rs.getInt("total_days"));
-        request.setReason(rs.getString("reason"));
+        request.setReason(TextCodec.decode(rs.getString("reason")));
         request.setStatus(rs.getString("status"));
         request.setApproverId(rs.getString("approver_id"));
-        request.setApproverNotes(rs.getString("approver_notes"));
+        request.setApproverNotes(TextCodec.decode(rs.getString("approver_notes")));
         request.setRequestDate(rs.getTimestamp("request_date"));
         request.setApprovalDate(rs.getTimestamp("approval_date"));
         return request;
@@ -1147,7 +1962,7 @@ public class MySQLDataStore implements IDataStore {
         evaluation.setPunctualityScore(rs.getDouble("punctuality_score"));
         evaluation.setAttendanceScore(rs.getDouble("attendance_score"));
         evaluation.setOverallRating(rs.getDouble("overall_rating"));
-        evaluation.setComments(rs.getString("comments"));
+        evaluation.setComments(TextCodec.decode(rs.getString("comments")));
         evaluation.setEvaluationDate(rs.getTimestamp("evaluation_date"));
         return evaluation;
     }
@@ -1163,7 +1978,7 @@ public class MySQLDataStore implements IDataStore {
         evaluation.setAttendanceScore(rs.getDouble("attendance_score"));
         evaluation.setProductivityScore(rs.getDouble("productivity_score"));
         evaluation.setOverallRating(rs.getDouble("overall_rating"));
-        evaluation.setComments(rs.getString("comments"));
+        evaluation.setComments(TextCodec.decode(rs.getString("comments")));
         evaluation.setEvaluationDate(rs.getTimestamp("evaluation_date"));
         return evaluation;
     }
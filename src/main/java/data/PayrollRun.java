@@ -0,0 +1,182 @@
+package data;
+
+import models.Employee;
+import models.PayrollSummary;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.logging.Logger;
+import java.util.stream.IntStream;
+
+/**
+ * Monthly payroll run behind MySQLDataStore.runPayroll, writing one salary_history row
+ * per employee for a period.
+ *
+ * A run works inside the caller's transaction. It first claims the period's payroll_runs
+ * row, so a second run for the same period waits for the first and then sees it completed.
+ * It snapshots every employee's base salary, KPI score and supervisor rating, computes the
+ * components with Employee's salary rules in parallel over the snapshot arrays, and upserts
+ * the rows in batches keyed by (employee_id, bulan, tahun). A failed or interrupted run
+ * leaves nothing behind and can simply be started again. A completed period is skipped
+ * unless a rerun is asked for, which overwrites its rows with fresh figures.
+ */
+final class PayrollRun {
+    private static final Logger logger = Logger.getLogger(PayrollRun.class.getName());
+    // Rows per executeBatch; the driver rewrites each batch into multi-row INSERTs
+    static final int WRITE_BATCH_SIZE = 1000;
+
+    private static final String UPSERT = """
+            INSERT INTO salary_history (employee_id, bulan, tahun, base_salary, kpi_bonus, supervisor_bonus,
+                penalty, total_salary, kpi_score, supervisor_rating, payment_date, notes)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON DUPLICATE KEY UPDATE base_salary = VALUES(base_salary), kpi_bonus = VALUES(kpi_bonus),
+                supervisor_bonus = VALUES(supervisor_bonus), penalty = VALUES(penalty),
+                total_salary = VALUES(total_salary), kpi_score = VALUES(kpi_score),
+                supervisor_rating = VALUES(supervisor_rating), payment_date = VALUES(payment_date),
+                notes = VALUES(notes)
+            """;
+
+    // Employees' inputs and computed components, by snapshot position
+    private static final class Snapshot {
+        String[] ids = new String[1024];
+        double[] base = new double[1024];
+        double[] kpiScore = new double[1024];
+        double[] rating = new double[1024];
+        double[] kpiBonus;
+        double[] supervisorBonus;
+        double[] penalty;
+        double[] total;
+        int size;
+
+        void add(String id, double gajiPokok, double kpi, double supervisorRating) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                base = Arrays.copyOf(base, size * 2);
+                kpiScore = Arrays.copyOf(kpiScore, size * 2);
+                rating = Arrays.copyOf(rating, size * 2);
+            }
+            ids[size] = id;
+            base[size] = gajiPokok;
+            kpiScore[size] = kpi;
+            rating[size] = supervisorRating;
+            size++;
+        }
+    }
+
+    private PayrollRun() {}
+
+    static PayrollSummary run(Connection conn, int bulan, int tahun, boolean rerun) throws SQLException {
+        if (bulan < 1 || bulan > 12) {
+            throw new SQLException("Invalid payroll month: " + bulan);
+        }
+        PayrollSummary summary = new PayrollSummary(bulan, tahun);
+        if (!claim(conn, bulan, tahun) && !rerun) {
+            summary.setSkipped(true);
+            logger.info("Payroll " + bulan + "/" + tahun + " already completed, skipping");
+            return summary;
+        }
+
+        long start = System.currentTimeMillis();
+        Snapshot snapshot = snapshot(conn);
+        long snapshotDone = System.currentTimeMillis();
+
+        compute(snapshot);
+        double totalSalary = Arrays.stream(snapshot.total, 0, snapshot.size).parallel().sum();
+        long computeDone = System.currentTimeMillis();
+
+        write(conn, snapshot, bulan, tahun);
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "UPDATE payroll_runs SET employees = ?, total_salary = ?, completed_at = NOW() WHERE bulan = ? AND tahun = ?")) {
+            pstmt.setInt(1, snapshot.size);
+            pstmt.setDouble(2, totalSalary);
+            pstmt.setInt(3, bulan);
+            pstmt.setInt(4, tahun);
+            pstmt.executeUpdate();
+        }
+        long writeDone = System.currentTimeMillis();
+
+        summary.setEmployees(snapshot.size);
+        summary.setTotalSalary(totalSalary);
+        summary.setSnapshotMillis(snapshotDone - start);
+        summary.setComputeMillis(computeDone - snapshotDone);
+        summary.setWriteMillis(writeDone - computeDone);
+        logger.info(summary + "; snapshot " + summary.getSnapshotMillis() + " ms, compute "
+                + summary.getComputeMillis() + " ms, write " + summary.getWriteMillis() + " ms");
+        return summary;
+    }
+
+    // Locks the period's run row, creating it if needed; false if the period is already completed
+    private static boolean claim(Connection conn, int bulan, int tahun) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "INSERT INTO payroll_runs (bulan, tahun) VALUES (?, ?) ON DUPLICATE KEY UPDATE bulan = bulan")) {
+            pstmt.setInt(1, bulan);
+            pstmt.setInt(2, tahun);
+            pstmt.executeUpdate();
+        }
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT completed_at FROM payroll_runs WHERE bulan = ? AND tahun = ? FOR UPDATE")) {
+            pstmt.setInt(1, bulan);
+            pstmt.setInt(2, tahun);
+            ResultSet rs = pstmt.executeQuery();
+            return !rs.next() || rs.getTimestamp("completed_at") == null;
+        }
+    }
+
+    private static Snapshot snapshot(Connection conn) throws SQLException {
+        Snapshot snapshot = new Snapshot();
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT id, gaji_pokok, kpi_score, supervisor_rating FROM employees ORDER BY id")) {
+            ResultSet rs = pstmt.executeQuery();
+            while (rs.next()) {
+                snapshot.add(rs.getString("id"), rs.getDouble("gaji_pokok"),
+                        rs.getDouble("kpi_score"), rs.getDouble("supervisor_rating"));
+            }
+        }
+        return snapshot;
+    }
+
+    private static void compute(Snapshot snapshot) {
+        int n = snapshot.size;
+        snapshot.kpiBonus = new double[n];
+        snapshot.supervisorBonus = new double[n];
+        snapshot.penalty = new double[n];
+        snapshot.total = new double[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            double base = snapshot.base[i];
+            snapshot.kpiBonus[i] = Employee.kpiBonus(base, snapshot.kpiScore[i]);
+            snapshot.supervisorBonus[i] = Employee.supervisorBonus(base, snapshot.rating[i]);
+            snapshot.penalty[i] = Employee.performancePenalty(base, snapshot.kpiScore[i], snapshot.rating[i]);
+            snapshot.total[i] = Employee.calculateGajiBulanan(base, snapshot.kpiScore[i], snapshot.rating[i]);
+        });
+    }
+
+    private static void write(Connection conn, Snapshot snapshot, int bulan, int tahun) throws SQLException {
+        Timestamp paymentDate = new Timestamp(System.currentTimeMillis());
+        String notes = "Payroll run " + bulan + "/" + tahun;
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT)) {
+            for (int i = 0; i < snapshot.size; i++) {
+                pstmt.setString(1, snapshot.ids[i]);
+                pstmt.setInt(2, bulan);
+                pstmt.setInt(3, tahun);
+                pstmt.setDouble(4, snapshot.base[i]);
+                pstmt.setDouble(5, snapshot.kpiBonus[i]);
+                pstmt.setDouble(6, snapshot.supervisorBonus[i]);
+                pstmt.setDouble(7, snapshot.penalty[i]);
+                pstmt.setDouble(8, snapshot.total[i]);
+                pstmt.setDouble(9, snapshot.kpiScore[i]);
+                pstmt.setDouble(10, snapshot.rating[i]);
+                pstmt.setTimestamp(11, paymentDate);
+                pstmt.setString(12, notes);
+                pstmt.addBatch();
+                if ((i + 1) % WRITE_BATCH_SIZE == 0) {
+                    pstmt.executeBatch();
+                }
+            }
+            pstmt.executeBatch();
+        }
+    }
+}
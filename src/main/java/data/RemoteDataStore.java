@@ -0,0 +1,486 @@
+package data;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+import data.MySQLDataStore.MonthlyEvaluation;
+import database.DatabaseException;
+import models.*;
+import server.GaweClient;
+import server.ProtocolTypeAdapters;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.logging.Logger;
+
+/**
+ * IDataStore backed by GaweServer instead of a local MySQL pool.
+ * All calls share one multiplexed binary-protocol connection, so a desktop holds a
+ * single socket and the database connections stay pooled on the server.
+ *
+ * Writes act as the logged-in user: the server takes the employee, supervisor or
+ * approver id from the session created by authenticateUser, not from the arguments.
+ * Reads fail with DatabaseException.QueryException and writes return false, as in
+ * MySQLDataStore.
+ */
+public class RemoteDataStore implements IDataStore {
+    private static final Logger logger = Logger.getLogger(RemoteDataStore.class.getName());
+
+    private static final Type EMPLOYEES = new TypeToken<List<Employee>>() {}.getType();
+    private static final Type KPIS = new TypeToken<List<KPI>>() {}.getType();
+    private static final Type REPORTS = new TypeToken<List<Report>>() {}.getType();
+    private static final Type ATTENDANCE = new TypeToken<List<Attendance>>() {}.getType();
+    private static final Type MEETINGS = new TypeToken<List<Meeting>>() {}.getType();
+    private static final Type LEAVE_REQUESTS = new TypeToken<List<LeaveRequest>>() {}.getType();
+    private static final Type SALARY_HISTORY = new TypeToken<List<SalaryHistory>>() {}.getType();
+    private static final Type EVALUATIONS = new TypeToken<List<EmployeeEvaluation>>() {}.getType();
+    private static final Type MONTHLY_EVALUATIONS = new TypeToken<List<MonthlyEvaluation>>() {}.getType();
+    private static final Type STATS = new TypeToken<Map<String, Object>>() {}.getType();
+    private static final Type IDS = new TypeToken<List<Integer>>() {}.getType();
+    private static final Type SEARCH_RESULTS = new TypeToken<List<SearchResult>>() {}.getType();
+
+    private final Gson gson;
+    private final GaweClient client;
+
+    public RemoteDataStore(String host, int port) {
+        this.gson = ProtocolTypeAdapters.createGson();
+        this.client = new GaweClient(host, port, gson);
+        logger.info("Using GAWE server at " + host + ":" + port);
+    }
+
+    public GaweClient getClient() {
+        return client;
+    }
+
+    private JsonObject call(String action, Object payload) {
+        try {
+            return client.call(action, payload);
+        } catch (IOException e) {
+            throw new DatabaseException.ConnectionException("Cannot reach GAWE server: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean isSuccess(JsonObject response) {
+        return "success".equals(response.get("status").getAsString());
+    }
+
+    private static String message(JsonObject response) {
+        JsonElement message = response.get("message");
+        return message != null && !message.isJsonNull() ? message.getAsString() : "";
+    }
+
+    private <T> T read(String action, Object payload, Type type) {
+        JsonObject response = call(action, payload);
+        if (!isSuccess(response)) {
+            throw new DatabaseException.QueryException(message(response), null);
+        }
+        return gson.fromJson(response.get("data"), type);
+    }
+
+    private boolean write(String action, Object payload) {
+        try {
+            JsonObject response = call(action, payload);
+            if (!isSuccess(response)) {
+                logger.warning(action + " failed: " + message(response));
+                return false;
+            }
+            return true;
+        } catch (DatabaseException e) {
+            logger.severe(action + " failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static RequestPayloads.EmployeeQuery employee(String employeeId) {
+        RequestPayloads.EmployeeQuery query = new RequestPayloads.EmployeeQuery();
+        query.setEmployeeId(employeeId);
+        return query;
+    }
+
+    private static RequestPayloads.DivisionQuery division(String divisi) {
+        RequestPayloads.DivisionQuery query = new RequestPayloads.DivisionQuery();
+        query.setDivisi(divisi);
+        return query;
+    }
+
+    @Override
+    public Employee authenticateUser(String employeeId, String password) {
+        RequestPayloads.Login login = new RequestPayloads.Login();
+        login.setEmployeeId(employeeId);
+        login.setPassword(password);
+        JsonObject response = call("login", login);
+        if (!isSuccess(response)) {
+            return null;
+        }
+        JsonElement token = response.get("sessionToken");
+        client.setSessionToken(token != null && !token.isJsonNull() ? token.getAsString() : null);
+        return gson.fromJson(response.get("data"), Employee.class);
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        return read("getEmployees", null, EMPLOYEES);
+    }
+
+    @Override
+    public List<Employee> getEmployeesByDivision(String divisi) {
+        return read("getEmployeesByDivision", division(divisi), EMPLOYEES);
+    }
+
+    @Override
+    public Employee getEmployeeById(String id) {
+        return read("getEmployee", employee(id), Employee.class);
+    }
+
+    /**
+     * Resolved from the server's cached employee list in one round trip
+     */
+    @Override
+    public Map<String, Employee> getEmployeesByIds(Collection<String> ids) {
+        Set<String> wanted = new HashSet<>(ids);
+        Map<String, Employee> found = new LinkedHashMap<>();
+        for (Employee employee : getAllEmployees()) {
+            if (wanted.contains(employee.getId())) {
+                found.put(employee.getId(), employee);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public void updateEmployee(Employee employee) {
+        throw new UnsupportedOperationException("The server only accepts profile updates; use updateProfile");
+    }
+
+    @Override
+    public void updateProfile(String employeeId, String nama, String password) {
+        RequestPayloads.UpdateProfile data = new RequestPayloads.UpdateProfile();
+        data.setEmployeeId(employeeId);
+        data.setNama(nama);
+        data.setPassword(password);
+        if (!write("updateProfile", data)) {
+            throw new DatabaseException.QueryException("Failed to update profile", null);
+        }
+    }
+
+    @Override
+    public void addEmployee(Employee employee) throws SQLException {
+        if (!write("addEmployee", employee)) {
+            throw new SQLException("Failed to add employee: " + employee.getId());
+        }
+    }
+
+    @Override
+    public List<KPI> getAllKPI() {
+        return read("getAllKPI", null, KPIS);
+    }
+
+    @Override
+    public boolean saveKPI(String divisi, int bulan, int tahun, double score, String managerId) {
+        RequestPayloads.UpdateKpi data = new RequestPayloads.UpdateKpi();
+        data.setDivisi(divisi);
+        data.setBulan(bulan);
+        data.setTahun(tahun);
+        data.setScore(score);
+        return write("updateKPI", data);
+    }
+
+    @Override
+    public boolean saveKPIs(List<KPI> kpis) {
+        List<RequestPayloads.UpdateKpi> items = new ArrayList<>();
+        for (KPI kpi : kpis) {
+            RequestPayloads.UpdateKpi item = new RequestPayloads.UpdateKpi();
+            item.setDivisi(kpi.getDivisi());
+            item.setBulan(kpi.getBulan());
+            item.setTahun(kpi.getTahun());
+            item.setScore(kpi.getScore());
+            items.add(item);
+        }
+        RequestPayloads.SaveKpis data = new RequestPayloads.SaveKpis();
+        data.setKpis(items);
+        return write("saveKPIs", data);
+    }
+
+    @Override
+    public List<Report> getAllReports() {
+        return read("getAllReports", null, REPORTS);
+    }
+
+    @Override
+    public List<Report> getPendingReports() {
+        return read("getPendingReports", null, REPORTS);
+    }
+
+    @Override
+    public List<Report> getReportsByDivision(String divisi) {
+        return read("getReportsByDivision", division(divisi), REPORTS);
+    }
+
+    @Override
+    public String getReportContent(int reportId) {
+        RequestPayloads.ReportQuery query = new RequestPayloads.ReportQuery();
+        query.setReportId(reportId);
+        return read("getReportContent", query, String.class);
+    }
+
+    @Override
+    public List<SearchResult> search(String text, String divisi, String employeeId, int limit) {
+        RequestPayloads.SearchQuery query = new RequestPayloads.SearchQuery();
+        query.setText(text);
+        query.setDivisi(divisi);
+        query.setEmployeeId(employeeId);
+        query.setLimit(limit);
+        return read("search", query, SEARCH_RESULTS);
+    }
+
+    @Override
+    public boolean saveReport(String supervisorId, String divisi, int bulan, int tahun, String filePath) {
+        RequestPayloads.UploadReport data = new RequestPayloads.UploadReport();
+        data.setDivisi(divisi);
+        data.setBulan(bulan);
+        data.setTahun(tahun);
+        data.setFilePath(filePath);
+        return write("uploadReport", data);
+    }
+
+    @Override
+    public boolean updateReportStatus(int reportId, String status, String managerNotes, String reviewedBy) {
+        RequestPayloads.UpdateReportStatus data = new RequestPayloads.UpdateReportStatus();
+        data.setReportId(reportId);
+        data.setStatus(status);
+        data.setManagerNotes(managerNotes);
+        return write("updateReportStatus", data);
+    }
+
+    @Override
+    public List<Attendance> getAttendanceByEmployee(String employeeId) {
+        return read("getAttendance", employee(employeeId), ATTENDANCE);
+    }
+
+    @Override
+    public List<Attendance> getTodayAttendance(String employeeId) {
+        return read("getTodayAttendance", employee(employeeId), ATTENDANCE);
+    }
+
+    @Override
+    public boolean saveAttendance(String employeeId, Date tanggal, String jamMasuk, String jamKeluar, String status) {
+        RequestPayloads.SaveAttendance data = new RequestPayloads.SaveAttendance();
+        data.setJamMasuk(jamMasuk);
+        data.setJamKeluar(jamKeluar);
+        data.setStatus(status);
+        return write("saveAttendance", data);
+    }
+
+    @Override
+    public boolean updateAttendanceClockOut(String employeeId, String jamKeluar) {
+        RequestPayloads.ClockOut data = new RequestPayloads.ClockOut();
+        data.setJamKeluar(jamKeluar);
+        return write("clockOut", data);
+    }
+
+    @Override
+    public List<Meeting> getMeetingsByEmployee(String employeeId) {
+        return read("getMeetings", employee(employeeId), MEETINGS);
+    }
+
+    @Override
+    public boolean saveMeeting(String title, String description, Date tanggal, String waktuMulai,
+                               String waktuSelesai, String lokasi, String organizerId, List<String> participantIds) {
+        RequestPayloads.SaveMeeting data = new RequestPayloads.SaveMeeting();
+        data.setTitle(title);
+        data.setDescription(description);
+        data.setTanggal(tanggal.getTime());
+        data.setWaktuMulai(waktuMulai);
+        data.setWaktuSelesai(waktuSelesai);
+        data.setLokasi(lokasi);
+        data.setParticipantIds(participantIds);
+        return write("saveMeeting", data);
+    }
+
+    @Override
+    public List<LeaveRequest> getAllLeaveRequests() {
+        return read("getAllLeaveRequests", null, LEAVE_REQUESTS);
+    }
+
+    @Override
+    public List<LeaveRequest> getLeaveRequestsByEmployee(String employeeId) {
+        return read("getLeaveRequests", employee(employeeId), LEAVE_REQUESTS);
+    }
+
+    @Override
+    public List<LeaveRequest> getPendingLeaveRequests() {
+        return read("getPendingLeaveRequests", null, LEAVE_REQUESTS);
+    }
+
+    @Override
+    public List<LeaveRequest> getLeaveRequestsForApproval(String approverId) {
+        return read("getLeaveRequestsForApproval", employee(approverId), LEAVE_REQUESTS);
+    }
+
+    @Override
+    public boolean saveLeaveRequest(String employeeId, String leaveType, Date startDate, Date endDate, String reason) {
+        RequestPayloads.SaveLeaveRequest data = new RequestPayloads.SaveLeaveRequest();
+        data.setLeaveType(leaveType);
+        data.setStartDate(startDate.getTime());
+        data.setEndDate(endDate.getTime());
+        data.setReason(reason);
+        return write("saveLeaveRequest", data);
+    }
+
+    @Override
+    public boolean approveLeaveRequest(int leaveRequestId, String approverId, String notes) {
+        return decideLeaveRequest(leaveRequestId, notes, "approve");
+    }
+
+    @Override
+    public List<Integer> approveLeaveRequests(List<Integer> leaveRequestIds, String approverId, String notes) {
+        RequestPayloads.ApproveLeaveRequests data = new RequestPayloads.ApproveLeaveRequests();
+        data.setLeaveRequestIds(leaveRequestIds);
+        data.setNotes(notes);
+        try {
+            return read("approveLeaveRequests", data, IDS);
+        } catch (DatabaseException e) {
+            logger.severe("approveLeaveRequests failed: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    @Override
+    public boolean rejectLeaveRequest(int leaveRequestId, String approverId, String notes) {
+        return decideLeaveRequest(leaveRequestId, notes, "reject");
+    }
+
+    private boolean decideLeaveRequest(int leaveRequestId, String notes, String action) {
+        RequestPayloads.ApproveLeaveRequest data = new RequestPayloads.ApproveLeaveRequest();
+        data.setLeaveRequestId(leaveRequestId);
+        data.setNotes(notes);
+        data.setAction(action);
+        return write("approveLeaveRequest", data);
+    }
+
+    @Override
+    public List<LeaveRequest> getPendingLeaveRequestsByEmployee(String employeeId) {
+        return read("getPendingLeaveRequestsByEmployee", employee(employeeId), LEAVE_REQUESTS);
+    }
+
+    @Override
+    public List<SalaryHistory> getAllSalaryHistory() {
+        return read("getAllSalaryHistory", null, SALARY_HISTORY);
+    }
+
+    @Override
+    public List<SalaryHistory> getSalaryHistoryByEmployee(String employeeId) {
+        return read("getSalaryHistory", employee(employeeId), SALARY_HISTORY);
+    }
+
+    @Override
+    public PayrollSummary runPayroll(int bulan, int tahun, boolean rerun) {
+        RequestPayloads.RunPayroll data = new RequestPayloads.RunPayroll();
+        data.setBulan(bulan);
+        data.setTahun(tahun);
+        data.setRerun(rerun);
+        return read("runPayroll", data, PayrollSummary.class);
+    }
+
+    @Override
+    public List<EmployeeEvaluation> getAllEvaluations() {
+        return read("getAllEvaluations", null, EVALUATIONS);
+    }
+
+    @Override
+    public boolean saveEmployeeEvaluation(String employeeId, String supervisorId, double punctualityScore,
+                                          double attendanceScore, double overallRating, String comments) {
+        RequestPayloads.EvaluateEmployee data = new RequestPayloads.EvaluateEmployee();
+        data.setEmployeeId(employeeId);
+        data.setPunctualityScore(punctualityScore);
+        data.setAttendanceScore(attendanceScore);
+        data.setOverallRating(overallRating);
+        data.setComments(comments);
+        return write("evaluateEmployee", data);
+    }
+
+    @Override
+    public boolean saveMonthlyEmployeeEvaluation(String employeeId, String supervisorId, int month, int year,
+                                                 double punctualityScore, double attendanceScore,
+                                                 double productivityScore, double overallRating, String comments) {
+        RequestPayloads.MonthlyEvaluation data = new RequestPayloads.MonthlyEvaluation();
+        data.setEmployeeId(employeeId);
+        data.setMonth(month);
+        data.setYear(year);
+        data.setPunctualityScore(punctualityScore);
+        data.setAttendanceScore(attendanceScore);
+        data.setProductivityScore(productivityScore);
+        data.setOverallRating(overallRating);
+        data.setComments(comments);
+        return write("saveMonthlyEvaluation", data);
+    }
+
+    @Override
+    public boolean hasMonthlyEvaluation(String employeeId, int month, int year) {
+        RequestPayloads.MonthlyEvaluationQuery query = new RequestPayloads.MonthlyEvaluationQuery();
+        query.setEmployeeId(employeeId);
+        query.setMonth(month);
+        query.setYear(year);
+        Boolean exists = read("hasMonthlyEvaluation", query, Boolean.class);
+        return exists != null && exists;
+    }
+
+    @Override
+    public List<MonthlyEvaluation> getAllMonthlyEvaluations() {
+        return read("getAllMonthlyEvaluations", null, MONTHLY_EVALUATIONS);
+    }
+
+    @Override
+    public List<MonthlyEvaluation> getMonthlyEvaluationsBySupervisor(String supervisorId) {
+        return read("getMonthlyEvaluationsBySupervisor", employee(supervisorId), MONTHLY_EVALUATIONS);
+    }
+
+    @Override
+    public List<Meeting> getAllMeetings(HistoryQuery query) {
+        return read("getAllMeetings", query, MEETINGS);
+    }
+
+    @Override
+    public List<Attendance> getAllAttendance(HistoryQuery query) {
+        return read("getAllAttendance", query, ATTENDANCE);
+    }
+
+    @Override
+    public List<LeaveRequest> getAllLeaveRequests(HistoryQuery query) {
+        return read("getAllLeaveRequests", query, LEAVE_REQUESTS);
+    }
+
+    @Override
+    public List<SalaryHistory> getAllSalaryHistory(HistoryQuery query) {
+        return read("getAllSalaryHistory", query, SALARY_HISTORY);
+    }
+
+    @Override
+    public List<EmployeeEvaluation> getAllEvaluations(HistoryQuery query) {
+        return read("getAllEvaluations", query, EVALUATIONS);
+    }
+
+    @Override
+    public Map<String, Object> getDashboardStats() {
+        return read("getDashboardStats", null, STATS);
+    }
+
+    @Override
+    public void close() {
+        if (client.getSessionToken() != null) {
+            write("logout", null);
+        }
+        client.close();
+        logger.info("RemoteDataStore closed");
+    }
+}
@@ -0,0 +1,502 @@
+package data;
+
+import models.SearchResult;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+
+/**
+ * Process-wide inverted index over report bodies, evaluation comments and leave reasons,
+ * behind MySQLDataStore.search.
+ *
+ * The whole index is built from the database by the first search and from then on rebuilt
+ * every REFRESH_INTERVAL_MINUTES in the background, which compacts replaced documents and picks up rows written
+ * by other processes. In between, the saving data store methods put their rows in
+ * directly; puts made while a rebuild is reading are replayed onto the new index before
+ * it replaces the old one. Text is folded to lower case without diacritics, split on
+ * anything but letters and digits, stripped of common Indonesian and English stop words
+ * and reduced by a light stemmer for both languages. Hits are ranked with BM25.
+ */
+final class SearchIndex {
+    private static final Logger logger = Logger.getLogger(SearchIndex.class.getName());
+    private static final long REFRESH_INTERVAL_MINUTES =
+            Long.getLong("gawe.search.refreshMinutes", 30);
+    private static final int SNIPPET_LENGTH = 160;
+    // BM25 term frequency saturation and length normalization
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            // Indonesian
+            "yang", "dan", "di", "ke", "dari", "untuk", "dengan", "ini", "itu", "pada", "dalam",
+            "tidak", "akan", "adalah", "atau", "juga", "sudah", "telah", "saya", "kami", "kita",
+            "ada", "oleh", "karena", "sebagai", "bisa", "dapat", "agar", "bahwa", "para", "se",
+            // English
+            "the", "and", "of", "to", "in", "is", "for", "on", "with", "that", "this", "it",
+            "be", "as", "at", "by", "was", "are", "an", "or", "not", "from", "has", "have", "we");
+    private static final String[] PARTICLES = {"lah", "kah", "tah", "pun"};
+    private static final String[] POSSESSIVES = {"nya", "ku", "mu"};
+    private static final String[] DERIVATIONAL_SUFFIXES = {"kan", "an"};
+    private static final String[] PREFIXES = {"meng", "meny", "peng", "peny", "mem", "men", "pem", "pen",
+            "ber", "ter", "per", "me", "pe", "be", "di", "ke"};
+    private static final int MIN_STEM_LENGTH = 3;
+
+    private static final class Document {
+        final SearchResult meta;
+        final int length;
+        boolean live = true;
+
+        Document(SearchResult meta, int length) {
+            this.meta = meta;
+            this.length = length;
+        }
+    }
+
+    // Growable parallel arrays of document numbers and term frequencies
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] freqs = new int[4];
+        int size;
+
+        void add(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+    }
+
+    private static final class Put {
+        final String key;
+        final SearchResult meta;
+        final String text;
+
+        Put(String key, SearchResult meta, String text) {
+            this.key = key;
+            this.meta = meta;
+            this.text = text;
+        }
+    }
+
+    private static final class Index {
+        final List<Document> documents = new ArrayList<>();
+        // Document lengths by document number, kept apart for the scoring loop
+        int[] lengths = new int[1024];
+        final Map<String, Integer> byKey = new HashMap<>();
+        final Map<String, Postings> postings = new HashMap<>();
+        long liveLength;
+        int liveCount;
+
+        void put(String key, SearchResult meta, String text) {
+            meta.setSnippet(snippet(text));
+            Integer previous = byKey.get(key);
+            if (previous != null) {
+                Document old = documents.get(previous);
+                old.live = false;
+                liveLength -= old.length;
+                liveCount--;
+            }
+            Map<String, Integer> freqs = new HashMap<>();
+            List<String> terms = terms(text);
+            for (String term : terms) {
+                freqs.merge(term, 1, Integer::sum);
+            }
+            int doc = documents.size();
+            documents.add(new Document(meta, terms.size()));
+            if (doc == lengths.length) {
+                lengths = Arrays.copyOf(lengths, doc * 2);
+            }
+            lengths[doc] = terms.size();
+            byKey.put(key, doc);
+            for (Map.Entry<String, Integer> entry : freqs.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), t -> new Postings()).add(doc, entry.getValue());
+            }
+            liveLength += terms.size();
+            liveCount++;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock buildLock = new ReentrantLock();
+    private Index index; // null until the first build; guarded by lock
+    private List<Put> replay; // puts during a rebuild, non-null while one runs; guarded by lock
+    private ScheduledExecutorService refresher;
+
+    static String reportKey(int id) {
+        return SearchResult.REPORT + ":" + id;
+    }
+
+    static String evaluationKey(int id) {
+        return SearchResult.EVALUATION + ":" + id;
+    }
+
+    // Monthly evaluations are upserted per employee and period, so the period is their key
+    static String monthlyEvaluationKey(String employeeId, int month, int year) {
+        return SearchResult.MONTHLY_EVALUATION + ":" + employeeId + "/" + year + "/" + month;
+    }
+
+    static String leaveRequestKey(int id) {
+        return SearchResult.LEAVE_REQUEST + ":" + id;
+    }
+
+    /**
+     * Adds or replaces a document. Ignored before the first build, which reads it from the database.
+     */
+    void put(String key, SearchResult meta, String text) {
+        lock.writeLock().lock();
+        try {
+            if (replay != null) {
+                replay.add(new Put(key, meta, text));
+            }
+            if (index != null) {
+                index.put(key, meta, text);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Best matches for the text, optionally limited to a division and/or one employee's documents
+     */
+    List<SearchResult> search(DataSource dataSource, String text, String divisi, String employeeId, int limit)
+            throws SQLException {
+        ensureLoaded(dataSource);
+        List<String> queryTerms = new ArrayList<>(termCounts(text).keySet());
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        lock.readLock().lock();
+        try {
+            float[] scores = new float[index.documents.size()];
+            float averageLength = index.liveCount > 0 ? (float) index.liveLength / index.liveCount : 1f;
+            int[] lengths = index.lengths;
+            for (String term : queryTerms) {
+                Postings postings = index.postings.get(term);
+                if (postings == null) {
+                    continue;
+                }
+                // Dead documents still count towards df until the next rebuild; the skew is small
+                float idf = (float) Math.log(1 + (index.liveCount - postings.size + 0.5) / (postings.size + 0.5));
+                for (int i = 0; i < postings.size; i++) {
+                    int doc = postings.docs[i];
+                    float tf = postings.freqs[i];
+                    scores[doc] += idf * tf * (K1 + 1) / (tf + K1 * (1 - B + B * lengths[doc] / averageLength));
+                }
+            }
+
+            PriorityQueue<Integer> best = new PriorityQueue<>(limit + 1, (a, b) -> Float.compare(scores[a], scores[b]));
+            for (int doc = 0; doc < scores.length; doc++) {
+                if (scores[doc] <= 0) {
+                    continue;
+                }
+                Document document = index.documents.get(doc);
+                if (!document.live || !matches(document.meta, divisi, employeeId)) {
+                    continue;
+                }
+                if (best.size() < limit) {
+                    best.add(doc);
+                } else if (scores[doc] > scores[best.peek()]) {
+                    best.poll();
+                    best.add(doc);
+                }
+            }
+
+            List<SearchResult> results = new ArrayList<>(best.size());
+            while (!best.isEmpty()) {
+                int doc = best.poll();
+                SearchResult result = copy(index.documents.get(doc).meta);
+                result.setScore(scores[doc]);
+                results.add(result);
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Schedules the periodic rebuilds; the first build is left to the first search
+     */
+    synchronized void startRefresher(DataSource dataSource) {
+        if (refresher != null) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gawe-search-index");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(() -> {
+            try {
+                rebuild(dataSource);
+            } catch (Exception e) {
+                logger.warning("Error rebuilding search index: " + e.getMessage());
+            }
+        }, REFRESH_INTERVAL_MINUTES, REFRESH_INTERVAL_MINUTES, TimeUnit.MINUTES);
+    }
+
+    private void ensureLoaded(DataSource dataSource) throws SQLException {
+        lock.readLock().lock();
+        try {
+            if (index != null) {
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        buildLock.lock();
+        try {
+            lock.readLock().lock();
+            try {
+                if (index != null) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            rebuild(dataSource);
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private void rebuild(DataSource dataSource) throws SQLException {
+        buildLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                replay = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            long start = System.currentTimeMillis();
+            Index built = new Index();
+            try (Connection conn = dataSource.getConnection()) {
+                load(conn, built);
+            } catch (SQLException | RuntimeException e) {
+                lock.writeLock().lock();
+                try {
+                    replay = null;
+                } finally {
+                    lock.writeLock().unlock();
+                }
+                throw e;
+            }
+
+            lock.writeLock().lock();
+            try {
+                for (Put put : replay) {
+                    built.put(put.key, put.meta, put.text);
+                }
+                replay = null;
+                index = built;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            logger.info("Search index built: " + built.liveCount + " documents, " + built.postings.size()
+                    + " terms in " + (System.currentTimeMillis() - start) + " ms");
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    private static void load(Connection conn, Index built) throws SQLException {
+        try (Statement stmt = streaming(conn);
+             ResultSet rs = stmt.executeQuery(
+                     "SELECT id, supervisor_id, divisi, bulan, tahun, content, upload_date FROM reports")) {
+            while (rs.next()) {
+                String text = TextCodec.decode(rs.getString("content"));
+                built.put(reportKey(rs.getInt("id")), reportMeta(rs.getInt("id"), rs.getString("supervisor_id"),
+                        rs.getString("divisi"), rs.getInt("bulan"), rs.getInt("tahun"), rs.getTimestamp("upload_date")), text);
+            }
+        }
+        try (Statement stmt = streaming(conn);
+             ResultSet rs = stmt.executeQuery("SELECT ev.id, ev.employee_id, e.divisi, ev.comments, ev.evaluation_date "
+                     + "FROM employee_evaluations ev LEFT JOIN employees e ON e.id = ev.employee_id")) {
+            while (rs.next()) {
+                String text = TextCodec.decode(rs.getString("comments"));
+                built.put(evaluationKey(rs.getInt("id")), evaluationMeta(rs.getInt("id"), rs.getString("employee_id"),
+                        rs.getString("divisi"), rs.getTimestamp("evaluation_date")), text);
+            }
+        }
+        try (Statement stmt = streaming(conn);
+             ResultSet rs = stmt.executeQuery("SELECT me.id, me.employee_id, e.divisi, me.month, me.year, me.comments, "
+                     + "me.evaluation_date FROM monthly_evaluations me LEFT JOIN employees e ON e.id = me.employee_id")) {
+            while (rs.next()) {
+                String text = TextCodec.decode(rs.getString("comments"));
+                String employeeId = rs.getString("employee_id");
+                int month = rs.getInt("month");
+                int year = rs.getInt("year");
+                built.put(monthlyEvaluationKey(employeeId, month, year), monthlyEvaluationMeta(rs.getInt("id"),
+                        employeeId, rs.getString("divisi"), month, year, rs.getTimestamp("evaluation_date")), text);
+            }
+        }
+        try (Statement stmt = streaming(conn);
+             ResultSet rs = stmt.executeQuery("SELECT lr.id, lr.employee_id, e.divisi, lr.leave_type, lr.reason, "
+                     + "lr.request_date FROM leave_requests lr LEFT JOIN employees e ON e.id = lr.employee_id")) {
+            while (rs.next()) {
+                String text = TextCodec.decode(rs.getString("reason"));
+                built.put(leaveRequestKey(rs.getInt("id")), leaveRequestMeta(rs.getInt("id"),
+                        rs.getString("employee_id"), rs.getString("divisi"), rs.getString("leave_type"),
+                        rs.getTimestamp("request_date")), text);
+            }
+        }
+    }
+
+    // Rows are read one at a time instead of the whole table being buffered by the driver
+    private static Statement streaming(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(Integer.MIN_VALUE);
+        return stmt;
+    }
+
+    static SearchResult reportMeta(int id, String supervisorId, String divisi, int bulan, int tahun, Date date) {
+        return new SearchResult(SearchResult.REPORT, id, supervisorId, divisi,
+                divisi + " report " + bulan + "/" + tahun, null, date);
+    }
+
+    static SearchResult evaluationMeta(int id, String employeeId, String divisi, Date date) {
+        return new SearchResult(SearchResult.EVALUATION, id, employeeId, divisi,
+                "Evaluation of " + employeeId, null, date);
+    }
+
+    static SearchResult monthlyEvaluationMeta(int id, String employeeId, String divisi, int month, int year, Date date) {
+        return new SearchResult(SearchResult.MONTHLY_EVALUATION, id, employeeId, divisi,
+                "Monthly evaluation of " + employeeId + " " + month + "/" + year, null, date);
+    }
+
+    static SearchResult leaveRequestMeta(int id, String employeeId, String divisi, String leaveType, Date date) {
+        return new SearchResult(SearchResult.LEAVE_REQUEST, id, employeeId, divisi,
+                "Leave request (" + leaveType + ") of " + employeeId, null, date);
+    }
+
+    private static String snippet(String text) {
+        if (text == null) {
+            return "";
+        }
+        // Twice the snippet length leaves room for collapsed whitespace
+        String head = text.strip();
+        String collapsed = WHITESPACE.matcher(head.substring(0, Math.min(head.length(), 2 * SNIPPET_LENGTH)))
+                .replaceAll(" ");
+        return collapsed.length() <= SNIPPET_LENGTH && head.length() <= 2 * SNIPPET_LENGTH
+                ? collapsed : collapsed.substring(0, Math.min(collapsed.length(), SNIPPET_LENGTH)) + "…";
+    }
+
+    private static boolean matches(SearchResult meta, String divisi, String employeeId) {
+        return (divisi == null || divisi.equals(meta.getDivisi()))
+                && (employeeId == null || employeeId.equals(meta.getEmployeeId()));
+    }
+
+    private static SearchResult copy(SearchResult meta) {
+        return new SearchResult(meta.getType(), meta.getId(), meta.getEmployeeId(), meta.getDivisi(),
+                meta.getTitle(), meta.getSnippet(), meta.getDate());
+    }
+
+    private static Map<String, Integer> termCounts(String text) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        for (String term : terms(text)) {
+            counts.merge(term, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String folded = isAscii(text) ? text
+                : MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = folded.substring(start, i).toLowerCase(Locale.ROOT);
+                if (token.length() >= 2 && !STOP_WORDS.contains(token)) {
+                    terms.add(stem(token));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    // Only text with non-ASCII characters can carry diacritics to fold
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) > 0x7F) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Light stemmer for mixed Indonesian and English text: strips Indonesian particles,
+     * possessives, the -kan/-an suffixes and one prefix, and English plural and verb
+     * endings. Stems need not be words; queries go through the same reduction.
+     */
+    static String stem(String token) {
+        if (token.length() <= MIN_STEM_LENGTH + 1 || Character.isDigit(token.charAt(0))) {
+            return token;
+        }
+        String stem = stripSuffix(token, PARTICLES);
+        stem = stripSuffix(stem, POSSESSIVES);
+        if (stem.endsWith("ies") && stem.length() > MIN_STEM_LENGTH + 2) {
+            stem = stem.substring(0, stem.length() - 3) + "y";
+        } else if (stem.endsWith("ing") || stem.endsWith("ed")) {
+            stem = stripSuffix(stem, new String[]{"ing", "ed"});
+        } else if (stem.endsWith("s") && !stem.endsWith("ss")) {
+            stem = stripSuffix(stem, new String[]{"s"});
+        }
+        stem = stripSuffix(stem, DERIVATIONAL_SUFFIXES);
+        for (String prefix : PREFIXES) {
+            if (stem.startsWith(prefix) && stem.length() - prefix.length() >= MIN_STEM_LENGTH) {
+                return stem.substring(prefix.length());
+            }
+        }
+        return stem;
+    }
+
+    private static String stripSuffix(String token, String[] suffixes) {
+        for (String suffix : suffixes) {
+            if (token.endsWith(suffix) && token.length() - suffix.length() >= MIN_STEM_LENGTH) {
+                return token.substring(0, token.length() - suffix.length());
+            }
+        }
+        return token;
+    }
+}
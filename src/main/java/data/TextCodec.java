@@ -0,0 +1,96 @@
+package data;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Storage encoding of MySQLDataStore's free-text columns (report bodies, notes, reasons
+ * and evaluation comments).
+ *
+ * Long values are deflated and stored as base64 behind a codec marker, so the columns
+ * stay TEXT and no migration is needed. A stored value starting with MARKER carries a
+ * codec id after it; any other value is plain text, which covers every row written
+ * before this encoding existed. Plain text that itself starts with MARKER is stored
+ * with the RAW codec so it cannot be mistaken for compressed data.
+ */
+final class TextCodec {
+    static final char MARKER = '\u0001';
+    static final char RAW = 'R';
+    static final char DEFLATE = 'D';
+    // Below this length the base64 overhead eats most of what deflate saves
+    static final int MIN_COMPRESS_LENGTH = 256;
+
+    private TextCodec() {}
+
+    static String encode(String text) {
+        if (text == null) {
+            return null;
+        }
+        if (text.length() >= MIN_COMPRESS_LENGTH) {
+            String compressed = MARKER + "" + DEFLATE + Base64.getEncoder().encodeToString(
+                    deflate(text.getBytes(StandardCharsets.UTF_8)));
+            if (compressed.length() < text.length()) {
+                return compressed;
+            }
+        }
+        return !text.isEmpty() && text.charAt(0) == MARKER ? MARKER + "" + RAW + text : text;
+    }
+
+    static String decode(String stored) throws SQLException {
+        if (stored == null || stored.length() < 2 || stored.charAt(0) != MARKER) {
+            return stored;
+        }
+        switch (stored.charAt(1)) {
+            case RAW:
+                return stored.substring(2);
+            case DEFLATE:
+                try {
+                    return new String(inflate(Base64.getDecoder().decode(stored.substring(2))), StandardCharsets.UTF_8);
+                } catch (IllegalArgumentException | DataFormatException e) {
+                    throw new SQLException("Corrupt compressed text value", e);
+                }
+            default:
+                throw new SQLException("Unknown text codec: " + stored.charAt(1));
+        }
+    }
+
+    private static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 16);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated compressed text");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
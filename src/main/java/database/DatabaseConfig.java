@@ -22,8 +22,7 @@ public class DatabaseConfig {
     }
     
     // Connection pool settings
-    public static final int MAX_POOL_SIZE = 20;
-    public static final int MIN_IDLE = 5;
+    public static final int DESKTOP_POOL_SIZE = 4;  // one user's UI work plus background refreshes
     public static final int CONNECTION_TIMEOUT = 30000;
     public static final int IDLE_TIMEOUT = 600000;
     public static final int MAX_LIFETIME = 1800000;
@@ -32,6 +31,25 @@ public class DatabaseConfig {
         // Private constructor to prevent instantiation
     }
     
+    /**
+     * Pool size for a server running the given number of concurrent request workers.
+     * Workers beyond cores * 2 + 1 would only queue inside MySQL, so they wait for a
+     * connection instead. -Dgawe.db.poolSize overrides the computed size.
+     */
+    public static int serverPoolSize(int workers) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int size = Math.max(DESKTOP_POOL_SIZE, Math.min(workers, cores * 2 + 1));
+        return Integer.getInteger("gawe.db.poolSize", size);
+    }
+
+    public static int desktopPoolSize() {
+        return Integer.getInteger("gawe.db.poolSize", DESKTOP_POOL_SIZE);
+    }
+
+    public static int minIdleFor(int poolSize) {
+        return Math.max(1, poolSize / 4);
+    }
+
     public static String getJdbcUrl() {
         return String.format("jdbc:mysql://%s:%s/%s?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC",
                 DB_HOST, DB_PORT, DB_NAME);
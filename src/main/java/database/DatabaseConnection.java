@@ -2,27 +2,60 @@ package database;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Logger;
 
 /**
- * Singleton class to manage database connections using HikariCP
+ * Singleton class to manage database connections using HikariCP.
+ * This is the only pool in the process: MySQLDatabaseManager and MySQLDataStore both
+ * borrow from it, so the prepared statement cache applies to every query path.
  */
 public class DatabaseConnection {
     private static final Logger logger = Logger.getLogger(DatabaseConnection.class.getName());
-    private static DatabaseConnection instance;
+    // Lock-based lazy init keeps getInstance() free of monitors that would pin virtual threads
+    private static volatile DatabaseConnection instance;
+    private static final ReentrantLock lock = new ReentrantLock();
+    private static volatile int poolSize = DatabaseConfig.desktopPoolSize();
+    private final PoolMetrics metrics = new PoolMetrics();
     private HikariDataSource dataSource;
 
     private DatabaseConnection() {
         initializePool();
     }
 
-    public static synchronized DatabaseConnection getInstance() {
-        if (instance == null) {
-            instance = new DatabaseConnection();
+    public static DatabaseConnection getInstance() {
+        DatabaseConnection current = instance;
+        if (current != null) {
+            return current;
+        }
+        lock.lock();
+        try {
+            if (instance == null) {
+                instance = new DatabaseConnection();
+            }
+            return instance;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sets the pool size for this process; must be called before the first getInstance()
+     */
+    public static void configurePoolSize(int size) {
+        lock.lock();
+        try {
+            if (instance != null) {
+                logger.warning("Connection pool already initialized, ignoring pool size " + size);
+                return;
+            }
+            poolSize = size;
+        } finally {
+            lock.unlock();
         }
-        return instance;
     }
 
     private void initializePool() {
@@ -34,8 +67,9 @@ public class DatabaseConnection {
             config.setDriverClassName("com.mysql.cj.jdbc.Driver");
             
             // Connection pool settings
-            config.setMaximumPoolSize(DatabaseConfig.MAX_POOL_SIZE);
-            config.setMinimumIdle(DatabaseConfig.MIN_IDLE);
+            config.setPoolName("gawe-pool");
+            config.setMaximumPoolSize(poolSize);
+            config.setMinimumIdle(DatabaseConfig.minIdleFor(poolSize));
             config.setConnectionTimeout(DatabaseConfig.CONNECTION_TIMEOUT);
             config.setIdleTimeout(DatabaseConfig.IDLE_TIMEOUT);
             config.setMaxLifetime(DatabaseConfig.MAX_LIFETIME);
@@ -51,9 +85,13 @@ public class DatabaseConnection {
             config.addDataSourceProperty("cacheServerConfiguration", "true");
             config.addDataSourceProperty("elideSetAutoCommits", "true");
             config.addDataSourceProperty("maintainTimeStats", "false");
-            
+
+            // Metrics: counters through PoolMetrics, live pool state through the HikariPoolMXBean
+            config.setMetricsTrackerFactory(metrics);
+            config.setRegisterMbeans(true);
+
             dataSource = new HikariDataSource(config);
-            logger.info("Database connection pool initialized successfully");
+            logger.info("Database connection pool initialized successfully (max " + poolSize + " connections)");
         } catch (Exception e) {
             logger.severe("Failed to initialize database connection pool: " + e.getMessage());
             throw new DatabaseException.ConnectionException("Failed to initialize connection pool", e);
@@ -68,8 +106,17 @@ public class DatabaseConnection {
         }
     }
 
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public PoolMetrics getMetrics() {
+        return metrics;
+    }
+
     public void close() {
         if (dataSource != null && !dataSource.isClosed()) {
+            logger.info(metrics.toString());
             dataSource.close();
             logger.info("Database connection pool closed");
         }
@@ -1,54 +1,30 @@
 package database;
 
 import models.*;
-import com.zaxxer.hikari.HikariConfig;
-import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
 import java.sql.*;
 import java.util.*;
 import java.util.logging.Logger;
 import java.util.Date;
 
 /**
- * MySQL Database manager for GAWE application with connection pooling
+ * MySQL Database manager for GAWE application using the shared connection pool
  */
 public class MySQLDatabaseManager {
     private static final Logger logger = Logger.getLogger(MySQLDatabaseManager.class.getName());
     
     // Database configuration
-    private static final String DB_HOST = "localhost";
-    private static final String DB_PORT = "3306";
-    private static final String DB_NAME = "gawe_db";
-    private static final String DB_USER = "root";
-    private static final String DB_PASSWORD = ""; // Default MySQL root password
+    private static final String DB_HOST = DatabaseConfig.DB_HOST;
+    private static final String DB_PORT = DatabaseConfig.DB_PORT;
+    private static final String DB_NAME = DatabaseConfig.DB_NAME;
+    private static final String DB_USER = DatabaseConfig.DB_USER;
+    private static final String DB_PASSWORD = DatabaseConfig.DB_PASSWORD;
     
-    public HikariDataSource dataSource;
+    // Borrowed from the process-wide pool in DatabaseConnection
+    private final DataSource dataSource;
 
     public MySQLDatabaseManager() {
-        initializeConnectionPool();
-    }
-
-    private void initializeConnectionPool() {
-        try {
-            HikariConfig config = new HikariConfig();
-            config.setJdbcUrl("jdbc:mysql://" + DB_HOST + ":" + DB_PORT + "/" + DB_NAME + 
-                            "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC");
-            config.setUsername(DB_USER);
-            config.setPassword(DB_PASSWORD);
-            config.setDriverClassName("com.mysql.cj.jdbc.Driver");
-            
-            // Connection pool settings
-            config.setMaximumPoolSize(20);
-            config.setMinimumIdle(5);
-            config.setConnectionTimeout(30000);
-            config.setIdleTimeout(600000);
-            config.setMaxLifetime(1800000);
-            
-            dataSource = new HikariDataSource(config);
-            logger.info("MySQL connection pool initialized successfully");
-        } catch (Exception e) {
-            logger.severe("Failed to initialize MySQL connection pool: " + e.getMessage());
-            throw new RuntimeException("Database connection failed", e);
-        }
+        this.dataSource = DatabaseConnection.getInstance().getDataSource();
     }
 
     public Connection getConnection() throws SQLException {
@@ -63,7 +39,12 @@ public class MySQLDatabaseManager {
             
             createTables();
             System.out.println("Tables created successfully");
-            
+
+            try (Connection conn = dataSource.getConnection()) {
+                SchemaMigrations.migrate(conn);
+                System.out.println("Schema at version " + SchemaMigrations.currentVersion(conn));
+            }
+
             // Check if data already exists
             try (Connection conn = dataSource.getConnection();
                  Statement stmt = conn.createStatement();
@@ -280,6 +261,34 @@ public class MySQLDatabaseManager {
                 FOREIGN KEY (employee_id) REFERENCES employees(id) ON DELETE CASCADE,
                 UNIQUE KEY unique_salary (employee_id, bulan, tahun)
             )
+            """,
+
+            // Dashboard counters table, a single row kept in step by the data store
+            """
+            CREATE TABLE IF NOT EXISTS dashboard_counters (
+                id TINYINT PRIMARY KEY,
+                total_employees INT NOT NULL DEFAULT 0,
+                total_manajer INT NOT NULL DEFAULT 0,
+                total_supervisor INT NOT NULL DEFAULT 0,
+                total_pegawai INT NOT NULL DEFAULT 0,
+                layoff_risk_employees INT NOT NULL DEFAULT 0,
+                pending_reports INT NOT NULL DEFAULT 0,
+                pending_leave_requests INT NOT NULL DEFAULT 0,
+                upcoming_meetings INT NOT NULL DEFAULT 0,
+                reconciled_at TIMESTAMP NULL
+            )
+            """,
+
+            // Payroll runs table, one row per paid period
+            """
+            CREATE TABLE IF NOT EXISTS payroll_runs (
+                bulan INT NOT NULL,
+                tahun INT NOT NULL,
+                employees INT NOT NULL DEFAULT 0,
+                total_salary DECIMAL(18,2) NOT NULL DEFAULT 0,
+                completed_at TIMESTAMP NULL,
+                PRIMARY KEY (tahun, bulan)
+            )
             """
         };
 
@@ -901,9 +910,7 @@ public class MySQLDatabaseManager {
     }
 
     public void close() {
-        if (dataSource != null) {
-            dataSource.close();
-            logger.info("Database connection pool closed");
-        }
+        // The shared pool outlives this manager; DatabaseConnection closes it on shutdown
+        logger.info("Database manager closed");
     }
 }
\ No newline at end of file
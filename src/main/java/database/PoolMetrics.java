@@ -0,0 +1,86 @@
+package database;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * HikariCP metrics tracker for the shared connection pool.
+ * Hikari reports every borrow, release, timeout and new physical connection here;
+ * the counters are cumulative and read through stats() together with the live pool state.
+ */
+public class PoolMetrics implements MetricsTrackerFactory, IMetricsTracker {
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder acquireNanos = new LongAdder();
+    private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder usageMillis = new LongAdder();
+    private final LongAccumulator maxUsageMillis = new LongAccumulator(Math::max, 0);
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return this;
+    }
+
+    @Override
+    public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+        acquired.increment();
+        acquireNanos.add(elapsedAcquiredNanos);
+        maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+    }
+
+    @Override
+    public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+        usageMillis.add(elapsedBorrowedMillis);
+        maxUsageMillis.accumulate(elapsedBorrowedMillis);
+    }
+
+    @Override
+    public void recordConnectionTimeout() {
+        timeouts.increment();
+    }
+
+    @Override
+    public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+        created.increment();
+    }
+
+    public long getTimeouts() {
+        return timeouts.sum();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        PoolStats pool = poolStats;
+        if (pool != null) {
+            stats.put("active", pool.getActiveConnections());
+            stats.put("idle", pool.getIdleConnections());
+            stats.put("total", pool.getTotalConnections());
+            stats.put("waiting", pool.getPendingThreads());
+            stats.put("max", pool.getMaxConnections());
+            stats.put("minIdle", pool.getMinConnections());
+        }
+        long count = acquired.sum();
+        stats.put("acquired", count);
+        stats.put("avgAcquireMicros", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquireNanos.sum() / count));
+        stats.put("maxAcquireMicros", TimeUnit.NANOSECONDS.toMicros(maxAcquireNanos.get()));
+        stats.put("avgUsageMillis", count == 0 ? 0 : usageMillis.sum() / count);
+        stats.put("maxUsageMillis", maxUsageMillis.get());
+        stats.put("timeouts", timeouts.sum());
+        stats.put("connectionsCreated", created.sum());
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return "Connection pool " + stats();
+    }
+}
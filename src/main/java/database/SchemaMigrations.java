@@ -0,0 +1,144 @@
+package database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.logging.Logger;
+
+/**
+ * Versioned schema changes applied on top of the tables from createTables.
+ *
+ * Each migration runs once per database; the highest applied version is kept in
+ * schema_migrations. MySQL commits DDL implicitly, so a migration cannot be rolled back
+ * as a whole: instead every step is idempotent (an index is only created when missing),
+ * and a migration interrupted half way is simply run again on the next start.
+ * New migrations are appended with the next version number; applied ones never change.
+ */
+public final class SchemaMigrations {
+    private static final Logger logger = Logger.getLogger(SchemaMigrations.class.getName());
+
+    static final class Index {
+        final String table;
+        final String name;
+        final String columns;
+
+        Index(String table, String name, String columns) {
+            this.table = table;
+            this.name = name;
+            this.columns = columns;
+        }
+    }
+
+    static final class Migration {
+        final int version;
+        final String description;
+        final List<Index> indexes;
+
+        Migration(int version, String description, List<Index> indexes) {
+            this.version = version;
+            this.description = description;
+            this.indexes = indexes;
+        }
+    }
+
+    static final List<Migration> MIGRATIONS = List.of(
+            new Migration(1, "Secondary indexes for status, division and date predicates", List.of(
+                    // getEmployeesByDivision; the history division subquery, the KPI layoff update
+                    // and the supervisor approval join on (divisi, role)
+                    new Index("employees", "idx_employees_divisi_nama", "divisi, nama"),
+                    new Index("employees", "idx_employees_divisi_role", "divisi, role, layoff_risk"),
+                    new Index("employees", "idx_employees_role", "role"),
+                    new Index("employees", "idx_employees_layoff_risk", "layoff_risk"),
+                    // getPendingReports, getReportsByDivision
+                    new Index("reports", "idx_reports_status_upload", "status, upload_date"),
+                    new Index("reports", "idx_reports_divisi_upload", "divisi, upload_date"),
+                    // Company-wide attendance history by date; per-employee queries use unique_attendance
+                    new Index("attendance", "idx_attendance_tanggal", "tanggal"),
+                    // Upcoming meetings and the meeting history date range
+                    new Index("meetings", "idx_meetings_status_tanggal", "status, tanggal"),
+                    new Index("meetings", "idx_meetings_tanggal", "tanggal"),
+                    // Meetings attended by an employee, answered from the index alone
+                    new Index("meeting_participants", "idx_participants_participant_meeting", "participant_id, meeting_id"),
+                    // Pending approvals; an employee's requests, pending or all
+                    new Index("leave_requests", "idx_leave_status_request", "status, request_date"),
+                    new Index("leave_requests", "idx_leave_employee_request", "employee_id, request_date"),
+                    new Index("leave_requests", "idx_leave_employee_status_request", "employee_id, status, request_date"),
+                    new Index("leave_requests", "idx_leave_start_date", "start_date"),
+                    // An employee's salary newest period first; salary history date range
+                    new Index("salary_history", "idx_salary_employee_period", "employee_id, tahun, bulan"),
+                    new Index("salary_history", "idx_salary_payment_date", "payment_date"),
+                    // Evaluation listings newest first and the evaluation history date range
+                    new Index("employee_evaluations", "idx_evaluations_date", "evaluation_date"),
+                    // A supervisor's monthly evaluations newest first
+                    new Index("monthly_evaluations", "idx_monthly_supervisor_period", "supervisor_id, year, month")
+            )),
+            new Migration(2, "Pay period index for the salary history keyset", List.of(
+                    // Company-wide and division salary history newest period first, paged on (tahun, bulan, id)
+                    new Index("salary_history", "idx_salary_period", "tahun, bulan")
+            ))
+    );
+
+    private SchemaMigrations() {}
+
+    /**
+     * Applies every migration newer than the database's current version
+     */
+    public static void migrate(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("""
+                CREATE TABLE IF NOT EXISTS schema_migrations (
+                    version INT PRIMARY KEY,
+                    description VARCHAR(200) NOT NULL,
+                    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+                )
+                """);
+        }
+
+        int current = currentVersion(conn);
+        for (Migration migration : MIGRATIONS) {
+            if (migration.version <= current) {
+                continue;
+            }
+            logger.info("Applying schema migration " + migration.version + ": " + migration.description);
+            for (Index index : migration.indexes) {
+                createIndex(conn, index);
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(
+                    "INSERT INTO schema_migrations (version, description) VALUES (?, ?)")) {
+                pstmt.setInt(1, migration.version);
+                pstmt.setString(2, migration.description);
+                pstmt.executeUpdate();
+            }
+        }
+    }
+
+    public static int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_migrations")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    private static void createIndex(Connection conn, Index index) throws SQLException {
+        if (indexExists(conn, index)) {
+            return;
+        }
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE INDEX " + index.name + " ON " + index.table + " (" + index.columns + ")");
+        }
+        logger.info("Created index " + index.name + " on " + index.table + " (" + index.columns + ")");
+    }
+
+    private static boolean indexExists(Connection conn, Index index) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(
+                "SELECT 1 FROM information_schema.statistics "
+                        + "WHERE table_schema = DATABASE() AND table_name = ? AND index_name = ? LIMIT 1")) {
+            pstmt.setString(1, index.table);
+            pstmt.setString(2, index.name);
+            return pstmt.executeQuery().next();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package models;
+
+import java.util.Map;
+
+/**
+ * Compact change notification published after a data store mutation commits.
+ * Topics have the form "kind:scope", e.g. "leave:HR" or "meetings:EMP001".
+ */
+public class ChangeEvent {
+    public static final String LEAVE = "leave";        // scope: division
+    public static final String REPORTS = "reports";    // scope: division
+    public static final String KPI = "kpi";            // scope: division
+    public static final String MEETINGS = "meetings";  // scope: employee id
+    public static final String MY_LEAVE = "myleave";   // scope: employee id
+
+    private String topic;
+    private String type;      // e.g. created, approved, rejected, updated
+    private String entityId;
+    private Map<String, Object> data;
+    private long timestamp;
+
+    // Constructors
+    public ChangeEvent() {}
+
+    public ChangeEvent(String topic, String type, String entityId, Map<String, Object> data) {
+        this.topic = topic;
+        this.type = type;
+        this.entityId = entityId;
+        this.data = data;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    public static String topic(String kind, String scope) {
+        return kind + ":" + scope;
+    }
+
+    // Getters and Setters
+    public String getTopic() { return topic; }
+    public void setTopic(String topic) { this.topic = topic; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public String getEntityId() { return entityId; }
+    public void setEntityId(String entityId) { this.entityId = entityId; }
+
+    public Map<String, Object> getData() { return data; }
+    public void setData(Map<String, Object> data) { this.data = data; }
+
+    public long getTimestamp() { return timestamp; }
+    public void setTimestamp(long timestamp) { this.timestamp = timestamp; }
+
+    @Override
+    public String toString() {
+        return String.format("ChangeEvent{topic='%s', type='%s', entityId='%s'}", topic, type, entityId);
+    }
+}
@@ -42,6 +42,24 @@ public class Employee {
         this.layoffRisk = false;
     }
 
+    // Copy constructor, used to hand out cached employees without sharing the instance
+    public Employee(Employee other) {
+        this.id = other.id;
+        this.nama = other.nama;
+        this.password = other.password;
+        this.role = other.role;
+        this.divisi = other.divisi;
+        this.jabatan = other.jabatan;
+        this.tglMasuk = other.tglMasuk != null ? new Date(other.tglMasuk.getTime()) : null;
+        this.sisaCuti = other.sisaCuti;
+        this.gajiPokok = other.gajiPokok;
+        this.kpiScore = other.kpiScore;
+        this.supervisorRating = other.supervisorRating;
+        this.attendanceScore = other.attendanceScore;
+        this.overallRating = other.overallRating;
+        this.layoffRisk = other.layoffRisk;
+    }
+
     // Calculate base salary based on role and division
     public double calculateGajiPokok(String role, String divisi) {
         double baseGaji = 4000000; // Base salary 4 million
@@ -83,34 +101,48 @@ public class Employee {
 
     // Calculate monthly salary with bonuses and adjustments
     public double calculateGajiBulanan() {
-        double totalGaji = gajiPokok;
+        return calculateGajiBulanan(gajiPokok, kpiScore, supervisorRating);
+    }
+
+    // Monthly salary from its components; shared with the payroll run
+    public static double calculateGajiBulanan(double gajiPokok, double kpiScore, double supervisorRating) {
+        double totalGaji = gajiPokok + kpiBonus(gajiPokok, kpiScore) + supervisorBonus(gajiPokok, supervisorRating)
+                - performancePenalty(gajiPokok, kpiScore, supervisorRating);
+        return Math.max(totalGaji, gajiPokok * 0.5); // Minimum 50% of base salary
+    }
 
-        // KPI bonus (up to 20% of base salary)
+    // KPI bonus (up to 20% of base salary)
+    public static double kpiBonus(double gajiPokok, double kpiScore) {
         if (kpiScore >= 90) {
-            totalGaji += gajiPokok * 0.20;
+            return gajiPokok * 0.20;
         } else if (kpiScore >= 80) {
-            totalGaji += gajiPokok * 0.15;
+            return gajiPokok * 0.15;
         } else if (kpiScore >= 70) {
-            totalGaji += gajiPokok * 0.10;
+            return gajiPokok * 0.10;
         } else if (kpiScore >= 60) {
-            totalGaji += gajiPokok * 0.05;
+            return gajiPokok * 0.05;
         }
+        return 0;
+    }
 
-        // Supervisor rating bonus (up to 15% of base salary)
+    // Supervisor rating bonus (up to 15% of base salary)
+    public static double supervisorBonus(double gajiPokok, double supervisorRating) {
         if (supervisorRating >= 90) {
-            totalGaji += gajiPokok * 0.15;
+            return gajiPokok * 0.15;
         } else if (supervisorRating >= 80) {
-            totalGaji += gajiPokok * 0.10;
+            return gajiPokok * 0.10;
         } else if (supervisorRating >= 70) {
-            totalGaji += gajiPokok * 0.05;
+            return gajiPokok * 0.05;
         }
+        return 0;
+    }
 
-        // Penalty for low performance
+    // Penalty for low performance
+    public static double performancePenalty(double gajiPokok, double kpiScore, double supervisorRating) {
         if (kpiScore < 60 || supervisorRating < 60) {
-            totalGaji -= gajiPokok * 0.10; // 10% penalty
+            return gajiPokok * 0.10; // 10% penalty
         }
-
-        return Math.max(totalGaji, gajiPokok * 0.5); // Minimum 50% of base salary
+        return 0;
     }
 
     // Calculate additional leave days based on performance
@@ -0,0 +1,119 @@
+package models;
+
+import java.util.Calendar;
+import java.util.Date;
+
+/**
+ * Filter and page of a history listing (meetings, attendance, leave requests, salary,
+ * evaluations). Covers the whole company, the employees of one division (optionally of
+ * one role) or a single employee, and optionally a date range. Rows come newest first
+ * by their date (salary by pay period), ties broken by id. A page cursor is the date and
+ * id of a row: to read the next page pass those of the last row received as beforeKey and
+ * beforeId, and to read the page before the current one those of its first row as
+ * afterKey and afterId.
+ */
+public class HistoryQuery {
+    public static final int DEFAULT_LIMIT = 500;
+
+    private String employeeId;        // null for every employee
+    private String divisi;            // null for every division
+    private String role;              // null for every role
+    private Date from;                // inclusive, null for no lower bound
+    private Date to;                  // inclusive day, null for no upper bound
+    private Date beforeKey;           // with beforeId; null for the first page
+    private int beforeId;             // 0 for the first page
+    private Date afterKey;            // with afterId; null unless paging back towards newer rows
+    private int afterId;              // 0 unless paging back towards newer rows
+    private int limit = DEFAULT_LIMIT; // 0 or less for no limit
+
+    // Constructors
+    public HistoryQuery() {}
+
+    public HistoryQuery(String divisi, String role) {
+        this.divisi = divisi;
+        this.role = role;
+    }
+
+    /**
+     * Limits the range to the last given number of days, today included
+     */
+    public HistoryQuery lastDays(int days) {
+        Calendar start = Calendar.getInstance();
+        start.add(Calendar.DAY_OF_MONTH, 1 - days);
+        this.from = start.getTime();
+        this.to = null;
+        return this;
+    }
+
+    public static HistoryQuery forEmployee(String employeeId) {
+        HistoryQuery query = new HistoryQuery();
+        query.employeeId = employeeId;
+        return query;
+    }
+
+    /**
+     * The same filter, continuing after the last row of the current page
+     */
+    public HistoryQuery nextPage(Date lastKey, int lastId) {
+        HistoryQuery next = copyFilter();
+        next.beforeKey = lastKey;
+        next.beforeId = lastId;
+        return next;
+    }
+
+    /**
+     * The same filter, reading the newer rows just before the first row of the current page
+     */
+    public HistoryQuery previousPage(Date firstKey, int firstId) {
+        HistoryQuery previous = copyFilter();
+        previous.afterKey = firstKey;
+        previous.afterId = firstId;
+        return previous;
+    }
+
+    private HistoryQuery copyFilter() {
+        HistoryQuery copy = new HistoryQuery(divisi, role);
+        copy.employeeId = employeeId;
+        copy.from = from;
+        copy.to = to;
+        copy.limit = limit;
+        return copy;
+    }
+
+    // Getters and Setters
+    public String getEmployeeId() { return employeeId; }
+    public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+
+    public String getDivisi() { return divisi; }
+    public void setDivisi(String divisi) { this.divisi = divisi; }
+
+    public String getRole() { return role; }
+    public void setRole(String role) { this.role = role; }
+
+    public Date getFrom() { return from; }
+    public void setFrom(Date from) { this.from = from; }
+
+    public Date getTo() { return to; }
+    public void setTo(Date to) { this.to = to; }
+
+    public Date getBeforeKey() { return beforeKey; }
+    public void setBeforeKey(Date beforeKey) { this.beforeKey = beforeKey; }
+
+    public int getBeforeId() { return beforeId; }
+    public void setBeforeId(int beforeId) { this.beforeId = beforeId; }
+
+    public Date getAfterKey() { return afterKey; }
+    public void setAfterKey(Date afterKey) { this.afterKey = afterKey; }
+
+    public int getAfterId() { return afterId; }
+    public void setAfterId(int afterId) { this.afterId = afterId; }
+
+    public int getLimit() { return limit; }
+    public void setLimit(int limit) { this.limit = limit; }
+
+    @Override
+    public String toString() {
+        return String.format("HistoryQuery{employeeId='%s', divisi='%s', role='%s', from=%s, to=%s, before=%s/%d, after=%s/%d, limit=%d}",
+                employeeId, divisi, role, from, to, beforeKey, beforeId, afterKey, afterId, limit);
+    }
+}
@@ -0,0 +1,67 @@
+package models;
+
+/**
+ * Outcome of a monthly payroll run
+ */
+public class PayrollSummary {
+    private int bulan;
+    private int tahun;
+    private boolean skipped; // Period already paid and no rerun asked for
+    private int employees;
+    private double totalSalary;
+    private long snapshotMillis;
+    private long computeMillis;
+    private long writeMillis;
+
+    // Constructors
+    public PayrollSummary() {}
+
+    public PayrollSummary(int bulan, int tahun) {
+        this.bulan = bulan;
+        this.tahun = tahun;
+    }
+
+    // Employees paid per second over the whole run
+    public double getEmployeesPerSecond() {
+        long totalMillis = getTotalMillis();
+        return totalMillis > 0 ? employees * 1000.0 / totalMillis : employees;
+    }
+
+    public long getTotalMillis() {
+        return snapshotMillis + computeMillis + writeMillis;
+    }
+
+    // Getters and Setters
+    public int getBulan() { return bulan; }
+    public void setBulan(int bulan) { this.bulan = bulan; }
+
+    public int getTahun() { return tahun; }
+    public void setTahun(int tahun) { this.tahun = tahun; }
+
+    public boolean isSkipped() { return skipped; }
+    public void setSkipped(boolean skipped) { this.skipped = skipped; }
+
+    public int getEmployees() { return employees; }
+    public void setEmployees(int employees) { this.employees = employees; }
+
+    public double getTotalSalary() { return totalSalary; }
+    public void setTotalSalary(double totalSalary) { this.totalSalary = totalSalary; }
+
+    public long getSnapshotMillis() { return snapshotMillis; }
+    public void setSnapshotMillis(long snapshotMillis) { this.snapshotMillis = snapshotMillis; }
+
+    public long getComputeMillis() { return computeMillis; }
+    public void setComputeMillis(long computeMillis) { this.computeMillis = computeMillis; }
+
+    public long getWriteMillis() { return writeMillis; }
+    public void setWriteMillis(long writeMillis) { this.writeMillis = writeMillis; }
+
+    @Override
+    public String toString() {
+        if (skipped) {
+            return "Payroll " + bulan + "/" + tahun + " already completed";
+        }
+        return String.format("Payroll %d/%d: %d employees, Rp %,.0f in %d ms (%.0f employees/s)",
+                bulan, tahun, employees, totalSalary, getTotalMillis(), getEmployeesPerSecond());
+    }
+}
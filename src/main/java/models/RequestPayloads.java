@@ -0,0 +1,363 @@
+package models;
+
+import java.util.List;
+
+/**
+ * Typed payloads for the ServerRequest actions, replacing the untyped data map.
+ * Field names match the keys clients already send inside "data".
+ */
+public final class RequestPayloads {
+
+    private RequestPayloads() {
+        // Holder for payload classes
+    }
+
+    /** Payload of the "login" action */
+    public static class Login {
+        private String employeeId;
+        private String password;
+
+        public Login() {}
+
+        public String getEmployeeId() { return employeeId; }
+        public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+    }
+
+    /** Payload of the "updateKPI" action */
+    public static class UpdateKpi {
+        private String divisi;
+        private int bulan;
+        private int tahun;
+        private double score;
+
+        public UpdateKpi() {}
+
+        public String getDivisi() { return divisi; }
+        public void setDivisi(String divisi) { this.divisi = divisi; }
+        public int getBulan() { return bulan; }
+        public void setBulan(int bulan) { this.bulan = bulan; }
+        public int getTahun() { return tahun; }
+        public void setTahun(int tahun) { this.tahun = tahun; }
+        public double getScore() { return score; }
+        public void setScore(double score) { this.score = score; }
+    }
+
+    /** Payload of the "saveKPIs" action; the manager is the session's user */
+    public static class SaveKpis {
+        private List<UpdateKpi> kpis;
+
+        public SaveKpis() {}
+
+        public List<UpdateKpi> getKpis() { return kpis; }
+        public void setKpis(List<UpdateKpi> kpis) { this.kpis = kpis; }
+    }
+
+    /** Payload of the "uploadReport" action */
+    public static class UploadReport {
+        private String divisi;
+        private int bulan;
+        private int tahun;
+        private String filePath;
+
+        public UploadReport() {}
+
+        public String getDivisi() { return divisi; }
+        public void setDivisi(String divisi) { this.divisi = divisi; }
+        public int getBulan() { return bulan; }
+        public void setBulan(int bulan) { this.bulan = bulan; }
+        public int getTahun() { return tahun; }
+        public void setTahun(int tahun) { this.tahun = tahun; }
+        public String getFilePath() { return filePath; }
+        public void setFilePath(String filePath) { this.filePath = filePath; }
+    }
+
+    /** Payload of the "evaluateEmployee" action */
+    public static class EvaluateEmployee {
+        private String employeeId;
+        private double punctualityScore;
+        private double attendanceScore;
+        private double overallRating;
+        private String comments;
+
+        public EvaluateEmployee() {}
+
+        public String getEmployeeId() { return employeeId; }
+        public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+        public double getPunctualityScore() { return punctualityScore; }
+        public void setPunctualityScore(double punctualityScore) { this.punctualityScore = punctualityScore; }
+        public double getAttendanceScore() { return attendanceScore; }
+        public void setAttendanceScore(double attendanceScore) { this.attendanceScore = attendanceScore; }
+        public double getOverallRating() { return overallRating; }
+        public void setOverallRating(double overallRating) { this.overallRating = overallRating; }
+        public String getComments() { return comments; }
+        public void setComments(String comments) { this.comments = comments; }
+    }
+
+    /** Payload of the "saveMonthlyEvaluation" action */
+    public static class MonthlyEvaluation {
+        private String employeeId;
+        private int month;
+        private int year;
+        private double punctualityScore;
+        private double attendanceScore;
+        private double productivityScore;
+        private double overallRating;
+        private String comments;
+
+        public MonthlyEvaluation() {}
+
+        public String getEmployeeId() { return employeeId; }
+        public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+        public int getMonth() { return month; }
+        public void setMonth(int month) { this.month = month; }
+        public int getYear() { return year; }
+        public void setYear(int year) { this.year = year; }
+        public double getPunctualityScore() { return punctualityScore; }
+        public void setPunctualityScore(double punctualityScore) { this.punctualityScore = punctualityScore; }
+        public double getAttendanceScore() { return attendanceScore; }
+        public void setAttendanceScore(double attendanceScore) { this.attendanceScore = attendanceScore; }
+        public double getProductivityScore() { return productivityScore; }
+        public void setProductivityScore(double productivityScore) { this.productivityScore = productivityScore; }
+        public double getOverallRating() { return overallRating; }
+        public void setOverallRating(double overallRating) { this.overallRating = overallRating; }
+        public String getComments() { return comments; }
+        public void setComments(String comments) { this.comments = comments; }
+    }
+
+    /** Payload of the "getAttendance" action */
+    public static class EmployeeQuery {
+        private String employeeId;
+
+        public EmployeeQuery() {}
+
+        public String getEmployeeId() { return employeeId; }
+        public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+    }
+
+    /** Payload of the "saveAttendance" action */
+    public static class SaveAttendance {
+        private String status;
+        private String jamMasuk;
+        private String jamKeluar;
+
+        public SaveAttendance() {}
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public String getJamMasuk() { return jamMasuk; }
+        public void setJamMasuk(String jamMasuk) { this.jamMasuk = jamMasuk; }
+        public String getJamKeluar() { return jamKeluar; }
+        public void setJamKeluar(String jamKeluar) { this.jamKeluar = jamKeluar; }
+    }
+
+    /** Payload of the "saveMeeting" action */
+    public static class SaveMeeting {
+        private String title;
+        private String description;
+        private long tanggal;
+        private String waktuMulai;
+        private String waktuSelesai;
+        private String lokasi;
+        private List<String> participantIds;
+
+        public SaveMeeting() {}
+
+        public String getTitle() { return title; }
+        public void setTitle(String title) { this.title = title; }
+        public String getDescription() { return description; }
+        public void setDescription(String description) { this.description = description; }
+        public long getTanggal() { return tanggal; }
+        public void setTanggal(long tanggal) { this.tanggal = tanggal; }
+        public String getWaktuMulai() { return waktuMulai; }
+        public void setWaktuMulai(String waktuMulai) { this.waktuMulai = waktuMulai; }
+        public String getWaktuSelesai() { return waktuSelesai; }
+        public void setWaktuSelesai(String waktuSelesai) { this.waktuSelesai = waktuSelesai; }
+        public String getLokasi() { return lokasi; }
+        public void setLokasi(String lokasi) { this.lokasi = lokasi; }
+        public List<String> getParticipantIds() { return participantIds; }
+        public void setParticipantIds(List<String> participantIds) { this.participantIds = participantIds; }
+    }
+
+    /** Payload of the "saveLeaveRequest" action */
+    public static class SaveLeaveRequest {
+        private String leaveType;
+        private long startDate;
+        private long endDate;
+        private String reason;
+
+        public SaveLeaveRequest() {}
+
+        public String getLeaveType() { return leaveType; }
+        public void setLeaveType(String leaveType) { this.leaveType = leaveType; }
+        public long getStartDate() { return startDate; }
+        public void setStartDate(long startDate) { this.startDate = startDate; }
+        public long getEndDate() { return endDate; }
+        public void setEndDate(long endDate) { this.endDate = endDate; }
+        public String getReason() { return reason; }
+        public void setReason(String reason) { this.reason = reason; }
+    }
+
+    /** Payload of the "approveLeaveRequest" action */
+    public static class ApproveLeaveRequest {
+        private int leaveRequestId;
+        private String notes;
+        private String action;
+
+        public ApproveLeaveRequest() {}
+
+        public int getLeaveRequestId() { return leaveRequestId; }
+        public void setLeaveRequestId(int leaveRequestId) { this.leaveRequestId = leaveRequestId; }
+        public String getNotes() { return notes; }
+        public void setNotes(String notes) { this.notes = notes; }
+        public String getAction() { return action; }
+        public void setAction(String action) { this.action = action; }
+    }
+
+    /** Payload of the "approveLeaveRequests" action */
+    public static class ApproveLeaveRequests {
+        private List<Integer> leaveRequestIds;
+        private String notes;
+
+        public ApproveLeaveRequests() {}
+
+        public List<Integer> getLeaveRequestIds() { return leaveRequestIds; }
+        public void setLeaveRequestIds(List<Integer> leaveRequestIds) { this.leaveRequestIds = leaveRequestIds; }
+        public String getNotes() { return notes; }
+        public void setNotes(String notes) { this.notes = notes; }
+    }
+
+    /** Payload of the "batch" action */
+    public static class Batch {
+        private List<ServerRequest> requests;
+
+        public Batch() {}
+
+        public List<ServerRequest> getRequests() { return requests; }
+        public void setRequests(List<ServerRequest> requests) { this.requests = requests; }
+    }
+
+    /** Payload of the "subscribe" and "unsubscribe" actions */
+    public static class Subscribe {
+        private List<String> topics;
+
+        public Subscribe() {}
+
+        public List<String> getTopics() { return topics; }
+        public void setTopics(List<String> topics) { this.topics = topics; }
+    }
+
+    /** Payload of the "getEmployeesByDivision" and "getReportsByDivision" actions */
+    public static class DivisionQuery {
+        private String divisi;
+
+        public DivisionQuery() {}
+
+        public String getDivisi() { return divisi; }
+        public void setDivisi(String divisi) { this.divisi = divisi; }
+    }
+
+    /** Payload of the "updateReportStatus" action */
+    public static class UpdateReportStatus {
+        private int reportId;
+        private String status;
+        private String managerNotes;
+
+        public UpdateReportStatus() {}
+
+        public int getReportId() { return reportId; }
+        public void setReportId(int reportId) { this.reportId = reportId; }
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+        public String getManagerNotes() { return managerNotes; }
+        public void setManagerNotes(String managerNotes) { this.managerNotes = managerNotes; }
+    }
+
+    /** Payload of the "getReportContent" action */
+    public static class ReportQuery {
+        private int reportId;
+
+        public ReportQuery() {}
+
+        public int getReportId() { return reportId; }
+        public void setReportId(int reportId) { this.reportId = reportId; }
+    }
+
+    /** Payload of the "search" action; the server narrows the filters to what the caller may see */
+    public static class SearchQuery {
+        private String text;
+        private String divisi;
+        private String employeeId;
+        private int limit;
+
+        public SearchQuery() {}
+
+        public String getText() { return text; }
+        public void setText(String text) { this.text = text; }
+        public String getDivisi() { return divisi; }
+        public void setDivisi(String divisi) { this.divisi = divisi; }
+        public String getEmployeeId() { return employeeId; }
+        public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+        public int getLimit() { return limit; }
+        public void setLimit(int limit) { this.limit = limit; }
+    }
+
+    /** Payload of the "updateProfile" action; a blank password keeps the current one */
+    public static class UpdateProfile {
+        private String employeeId;
+        private String nama;
+        private String password;
+
+        public UpdateProfile() {}
+
+        public String getEmployeeId() { return employeeId; }
+        public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+        public String getNama() { return nama; }
+        public void setNama(String nama) { this.nama = nama; }
+        public String getPassword() { return password; }
+        public void setPassword(String password) { this.password = password; }
+    }
+
+    /** Payload of the "runPayroll" action */
+    public static class RunPayroll {
+        private int bulan;
+        private int tahun;
+        private boolean rerun;
+
+        public RunPayroll() {}
+
+        public int getBulan() { return bulan; }
+        public void setBulan(int bulan) { this.bulan = bulan; }
+        public int getTahun() { return tahun; }
+        public void setTahun(int tahun) { this.tahun = tahun; }
+        public boolean isRerun() { return rerun; }
+        public void setRerun(boolean rerun) { this.rerun = rerun; }
+    }
+
+    /** Payload of the "clockOut" action */
+    public static class ClockOut {
+        private String jamKeluar;
+
+        public ClockOut() {}
+
+        public String getJamKeluar() { return jamKeluar; }
+        public void setJamKeluar(String jamKeluar) { this.jamKeluar = jamKeluar; }
+    }
+
+    /** Payload of the "hasMonthlyEvaluation" action */
+    public static class MonthlyEvaluationQuery {
+        private String employeeId;
+        private int month;
+        private int year;
+
+        public MonthlyEvaluationQuery() {}
+
+        public String getEmployeeId() { return employeeId; }
+        public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+        public int getMonth() { return month; }
+        public void setMonth(int month) { this.month = month; }
+        public int getYear() { return year; }
+        public void setYear(int year) { this.year = year; }
+    }
+}
@@ -46,6 +46,13 @@ public class SalaryHistory {
         return months[bulan];
     }
 
+    /**
+     * First day of the pay period; the sort key of salary history pages
+     */
+    public Date getPeriodStart() {
+        return java.sql.Date.valueOf(java.time.LocalDate.of(tahun, bulan, 1));
+    }
+
     // Getters and Setters
     public int getId() { return id; }
     public void setId(int id) { this.id = id; }
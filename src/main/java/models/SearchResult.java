@@ -0,0 +1,65 @@
+package models;
+
+import java.util.Date;
+
+/**
+ * One hit of a full-text search over reports, evaluations and leave requests
+ */
+public class SearchResult {
+    public static final String REPORT = "report";
+    public static final String EVALUATION = "evaluation";
+    public static final String MONTHLY_EVALUATION = "monthlyEvaluation";
+    public static final String LEAVE_REQUEST = "leaveRequest";
+
+    private String type; // report, evaluation, monthlyEvaluation, leaveRequest
+    private int id;
+    private String employeeId; // Supervisor for reports, the employee concerned otherwise
+    private String divisi;
+    private String title;
+    private String snippet;
+    private Date date;
+    private double score;
+
+    // Constructors
+    public SearchResult() {}
+
+    public SearchResult(String type, int id, String employeeId, String divisi, String title, String snippet, Date date) {
+        this.type = type;
+        this.id = id;
+        this.employeeId = employeeId;
+        this.divisi = divisi;
+        this.title = title;
+        this.snippet = snippet;
+        this.date = date;
+    }
+
+    // Getters and Setters
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+
+    public String getEmployeeId() { return employeeId; }
+    public void setEmployeeId(String employeeId) { this.employeeId = employeeId; }
+
+    public String getDivisi() { return divisi; }
+    public void setDivisi(String divisi) { this.divisi = divisi; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getSnippet() { return snippet; }
+    public void setSnippet(String snippet) { this.snippet = snippet; }
+
+    public Date getDate() { return date; }
+    public void setDate(Date date) { this.date = date; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+
+    @Override
+    public String toString() {
+        return type + " #" + id + ": " + title;
+    }
+}
@@ -9,6 +9,9 @@ public class ServerRequest {
     private String action;
     private Map<String, Object> data;
     private String userId;
+    private String requestId;  // Optional correlation id, echoed in the response
+    private String sessionToken;  // Token issued at login, required by every other action
+    private transient Object payload;  // Typed data, set by the server protocol adapters
 
     // Constructors
     public ServerRequest() {}
@@ -29,8 +32,17 @@ public class ServerRequest {
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
 
+    public String getRequestId() { return requestId; }
+    public void setRequestId(String requestId) { this.requestId = requestId; }
+
+    public String getSessionToken() { return sessionToken; }
+    public void setSessionToken(String sessionToken) { this.sessionToken = sessionToken; }
+
+    public Object getPayload() { return payload; }
+    public void setPayload(Object payload) { this.payload = payload; }
+
     @Override
     public String toString() {
-        return String.format("ServerRequest{action='%s', userId='%s'}", action, userId);
+        return String.format("ServerRequest{action='%s', userId='%s', requestId='%s'}", action, userId, requestId);
     }
 }
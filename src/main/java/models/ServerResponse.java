@@ -7,6 +7,8 @@ public class ServerResponse {
     private String status;
     private String message;
     private Object data;
+    private String requestId;  // Correlation id copied from the request, if any
+    private String sessionToken;  // Set on a successful login only
 
     // Constructors
     public ServerResponse() {}
@@ -32,6 +34,12 @@ public class ServerResponse {
     public Object getData() { return data; }
     public void setData(Object data) { this.data = data; }
 
+    public String getRequestId() { return requestId; }
+    public void setRequestId(String requestId) { this.requestId = requestId; }
+
+    public String getSessionToken() { return sessionToken; }
+    public void setSessionToken(String sessionToken) { this.sessionToken = sessionToken; }
+
     @Override
     public String toString() {
         return String.format("ServerResponse{status='%s', message='%s'}", status, message);
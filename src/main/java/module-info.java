@@ -3,6 +3,9 @@ module gawe {
     requires javafx.fxml;
     requires java.desktop;
     requires com.google.gson;
+    requires java.management;
+    requires jdk.management;
+    requires jdk.jfr;
 
     // MySQL JDBC driver
     requires java.sql.rowset;
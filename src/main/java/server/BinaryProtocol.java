@@ -0,0 +1,208 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import models.ServerRequest;
+import models.ServerResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Length-prefixed binary wire protocol, offered next to the newline-delimited JSON one.
+ *
+ * A client opts in by sending the 5 byte preamble "GAWB" + version as the very first
+ * bytes of the connection; the server echoes it back. Every frame after that is
+ *
+ * <pre>
+ *   int   payload length
+ *   int   request id      (echoed in the response)
+ *   short action code     (index into ACTIONS + 1, 0 = action named in the payload)
+ *   byte[] payload        (UTF-8 JSON of ServerRequest / ServerResponse)
+ * </pre>
+ *
+ * Payloads are decoded straight from and encoded straight into pooled ByteBuffers,
+ * so a large report body is never copied into an intermediate String on the server.
+ */
+public final class BinaryProtocol {
+    public static final byte[] PREAMBLE = {'G', 'A', 'W', 'B', 1};
+    public static final int HEADER_SIZE = 10;
+    public static final int MAX_PAYLOAD_SIZE = 16 * 1024 * 1024;
+
+    /** Action names addressed by code; append only, codes are part of the wire format */
+    static final String[] ACTIONS = {
+        "login", "getEmployees", "updateKPI", "uploadReport", "evaluateEmployee",
+        "getAttendance", "saveAttendance", "getDashboardStats", "getMeetings", "saveMeeting",
+        "getLeaveRequests", "saveLeaveRequest", "approveLeaveRequest", "getSalaryHistory",
+        "saveMonthlyEvaluation", "batch", "logout", "getCacheStats",
+        "subscribe", "unsubscribe",
+        "getEmployee", "getEmployeesByDivision", "updateEmployee", "addEmployee", "getAllKPI",
+        "getAllReports", "getPendingReports", "getReportsByDivision", "updateReportStatus",
+        "getTodayAttendance", "clockOut", "getAllLeaveRequests", "getPendingLeaveRequests",
+        "getLeaveRequestsForApproval", "getPendingLeaveRequestsByEmployee", "getAllSalaryHistory",
+        "getAllEvaluations", "hasMonthlyEvaluation", "getAllMonthlyEvaluations",
+        "getMonthlyEvaluationsBySupervisor", "getPoolStats", "getAllMeetings", "getAllAttendance",
+        "approveLeaveRequests", "saveKPIs", "getReportContent", "search",
+        "runPayroll", "updateProfile"
+    };
+
+    static final BufferPool BUFFERS = new BufferPool(64 * 1024, 256);
+
+    private BinaryProtocol() {
+        // Utility class
+    }
+
+    public static short actionCode(String action) {
+        for (int i = 0; i < ACTIONS.length; i++) {
+            if (ACTIONS[i].equals(action)) {
+                return (short) (i + 1);
+            }
+        }
+        return 0;
+    }
+
+    static String actionName(short code) {
+        return code > 0 && code <= ACTIONS.length ? ACTIONS[code - 1] : null;
+    }
+
+    /**
+     * Decodes a request payload; the action code in the header overrides any action in the JSON
+     */
+    static ServerRequest decodeRequest(short actionCode, ByteBuffer payload, Gson gson) {
+        Reader reader = new InputStreamReader(new ByteBufferInputStream(payload), StandardCharsets.UTF_8);
+        String action = actionName(actionCode);
+        ServerRequest request;
+        TypeAdapter<ServerRequest> adapter = gson.getAdapter(ServerRequest.class);
+        if (adapter instanceof ProtocolTypeAdapters.ServerRequestAdapter) {
+            // Lets the payload bind to its typed class even though the action is only in the header
+            try {
+                request = ((ProtocolTypeAdapters.ServerRequestAdapter) adapter).read(new JsonReader(reader), action);
+            } catch (IOException e) {
+                throw new JsonParseException("Failed to decode request frame", e);
+            }
+        } else {
+            request = gson.fromJson(reader, ServerRequest.class);
+        }
+        if (request == null) {
+            request = new ServerRequest();
+        }
+        if (action != null) {
+            request.setAction(action);
+        }
+        return request;
+    }
+
+    /**
+     * Encodes a complete response frame into a pooled buffer, flipped and ready to write.
+     * The caller releases the buffer back to BUFFERS once it has been sent.
+     */
+    static ByteBuffer encodeResponse(int requestId, short actionCode, ServerResponse response, Gson gson) {
+        ByteBufferOutputStream out = new ByteBufferOutputStream(BUFFERS.acquire(BUFFERS.getBufferSize()));
+        out.buffer.position(HEADER_SIZE);
+        try (Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8)) {
+            gson.toJson(response, ServerResponse.class, writer);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode response frame", e);
+        }
+        ByteBuffer frame = out.buffer;
+        frame.putInt(0, frame.position() - HEADER_SIZE);
+        frame.putInt(4, requestId);
+        frame.putShort(8, actionCode);
+        frame.flip();
+        return frame;
+    }
+
+    /**
+     * Wraps an already serialized JSON response in a frame, in a pooled buffer
+     */
+    static ByteBuffer encodeResponse(int requestId, short actionCode, byte[] json) {
+        ByteBuffer frame = BUFFERS.acquire(HEADER_SIZE + json.length);
+        frame.putInt(json.length);
+        frame.putInt(requestId);
+        frame.putShort(actionCode);
+        frame.put(json);
+        frame.flip();
+        return frame;
+    }
+
+    static boolean isPreambleStart(byte first) {
+        return first == PREAMBLE[0];
+    }
+
+    /**
+     * InputStream view over the remaining bytes of a ByteBuffer
+     */
+    static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * OutputStream that writes into a pooled ByteBuffer, swapping in a larger one when full
+     */
+    static final class ByteBufferOutputStream extends OutputStream {
+        ByteBuffer buffer;
+
+        ByteBufferOutputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        private void ensureCapacity(int extra) {
+            if (buffer.remaining() >= extra) {
+                return;
+            }
+            int needed = buffer.position() + extra;
+            if (needed - HEADER_SIZE > MAX_PAYLOAD_SIZE) {
+                throw new IllegalStateException("Response frame exceeds " + MAX_PAYLOAD_SIZE + " bytes");
+            }
+            ByteBuffer larger = BUFFERS.acquire(Math.max(needed, buffer.capacity() * 2));
+            buffer.flip();
+            larger.put(buffer);
+            BUFFERS.release(buffer);
+            buffer = larger;
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(1);
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            ensureCapacity(len);
+            buffer.put(b, off, len);
+        }
+    }
+}
@@ -2,44 +2,152 @@ package server;
 
 import data.DataStoreFactory;
 import data.MySQLDataStore;
+import database.DatabaseConnection;
+import models.ChangeEvent;
 import models.Employee;
+import models.HistoryQuery;
+import models.KPI;
+import models.PayrollSummary;
+import models.RequestPayloads;
 import models.ServerRequest;
 import models.ServerResponse;
 import com.google.gson.Gson;
 import java.io.*;
 import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.logging.Logger;
 
 /**
- * Handles individual client connections with MySQL integration
+ * Handles individual client connections with MySQL integration.
+ * Requests that carry a correlation id are pipelined: up to MAX_IN_FLIGHT of them
+ * run concurrently on the request pool and their responses are written as they complete.
+ * Requests without an id keep the original strictly ordered behaviour.
  */
 public class ClientHandler implements Runnable {
     private static final Logger logger = Logger.getLogger(ClientHandler.class.getName());
+    static final int MAX_IN_FLIGHT = 8;
+    private static final int MAX_BATCH_SIZE = 32;
+    private static final int BATCH_LANES = 3;
+    private static final int MAX_PENDING_PUSHES = 64;
+    private static final int DEFAULT_SEARCH_RESULTS = 20;
+    private static final int MAX_SEARCH_RESULTS = 100;
+
+    /** Actions that only read, so a batch made of them can be spread over parallel lanes */
+    private static final Set<String> READ_ACTIONS = Set.of(
+            "getEmployees", "getAttendance", "getDashboardStats", "getMeetings",
+            "getLeaveRequests", "getSalaryHistory", "getEmployee", "getEmployeesByDivision",
+            "getAllKPI", "getAllReports", "getPendingReports", "getReportsByDivision", "getReportContent", "search",
+            "getTodayAttendance", "getAllLeaveRequests", "getPendingLeaveRequests",
+            "getLeaveRequestsForApproval", "getPendingLeaveRequestsByEmployee", "getAllSalaryHistory",
+            "getAllEvaluations", "hasMonthlyEvaluation", "getAllMonthlyEvaluations",
+            "getMonthlyEvaluationsBySupervisor", "getAllMeetings", "getAllAttendance");
+
+    /** Actions only managers may call */
+    private static final Set<String> MANAGER_ACTIONS = Set.of(
+            "updateKPI", "saveKPIs", "getAllKPI", "getAllReports", "getPendingReports", "getReportContent",
+            "updateReportStatus", "getDashboardStats", "getAllLeaveRequests", "getPendingLeaveRequests",
+            "getAllSalaryHistory", "getAllEvaluations", "getAllMonthlyEvaluations", "getAllMeetings",
+            "getAllAttendance", "runPayroll", "getCacheStats", "getPoolStats");
+
+    /** Actions open to supervisors and managers */
+    private static final Set<String> SUPERVISOR_ACTIONS = Set.of(
+            "getEmployees", "getEmployeesByDivision", "addEmployee", "uploadReport", "getReportsByDivision",
+            "evaluateEmployee", "saveMonthlyEvaluation", "hasMonthlyEvaluation", "getMonthlyEvaluationsBySupervisor",
+            "getLeaveRequestsForApproval", "approveLeaveRequest", "approveLeaveRequests", "saveMeeting");
+
+    /** Reads about one employee: employees may only ask about themselves, supervisors about their division */
+    private static final Set<String> EMPLOYEE_SCOPED_ACTIONS = Set.of(
+            "getEmployee", "getAttendance", "getTodayAttendance", "getMeetings", "getLeaveRequests",
+            "getPendingLeaveRequestsByEmployee", "getSalaryHistory", "getLeaveRequestsForApproval",
+            "getMonthlyEvaluationsBySupervisor");
+
+    /** Reads about one division, which supervisors may only make about their own */
+    private static final Set<String> DIVISION_SCOPED_ACTIONS = Set.of("getEmployeesByDivision", "getReportsByDivision");
+
+    /** Read-mostly actions whose serialized responses are kept in the ResponseCache */
+    private static final Set<String> CACHED_ACTIONS = Set.of(
+            "getEmployees", "getDashboardStats", "getMeetings");
+
+    private static final ExecutorService batchPool = Executors.newFixedThreadPool(2 * BATCH_LANES, r -> {
+        Thread thread = new Thread(r, "gawe-batch-lane");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     private Socket clientSocket;
     private Gson gson;
     private BufferedReader in;
     private PrintWriter out;
     private final MySQLDataStore dataStore;
+    private final ExecutorService requestPool;
+    private final SessionStore sessionStore = SessionStore.getInstance();
+    private final ResponseCache responseCache = ResponseCache.getInstance();
+    private final SubscriptionHub subscriptionHub = SubscriptionHub.getInstance();
+    private final AtomicInteger pendingPushes = new AtomicInteger();
+    private SubscriptionHub.Channel pushChannel;
+    private final Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+    private final ReentrantLock writeLock = new ReentrantLock();
 
     public ClientHandler(Socket socket, Gson gson) {
+        this(socket, gson, null);
+    }
+
+    public ClientHandler(Socket socket, Gson gson, ExecutorService requestPool) {
         this.clientSocket = socket;
         this.gson = gson;
+        this.requestPool = requestPool;
         this.dataStore = DataStoreFactory.getMySQLDataStore();
     }
 
+    /**
+     * Creates a handler without its own socket, used by the NIO transport
+     * which only needs the request dispatch logic.
+     */
+    ClientHandler(Gson gson) {
+        this(null, gson, null);
+    }
+
     @Override
     public void run() {
         try {
-            in = new BufferedReader(new InputStreamReader(clientSocket.getInputStream()));
+            BufferedInputStream input = new BufferedInputStream(clientSocket.getInputStream());
+            input.mark(1);
+            int first = input.read();
+            if (first >= 0 && BinaryProtocol.isPreambleStart((byte) first)) {
+                runBinary(input, clientSocket.getOutputStream());
+                return;
+            }
+            input.reset();
+
+            in = new BufferedReader(new InputStreamReader(input));
             out = new PrintWriter(clientSocket.getOutputStream(), true);
+            pushChannel = event -> push(() -> writeLine(gson.toJson(event)));
 
             String inputLine;
             while ((inputLine = in.readLine()) != null) {
-                processRequest(inputLine);
+                serveLine(inputLine);
             }
         } catch (IOException e) {
             logger.warning("Client disconnected: " + e.getMessage());
         } finally {
+            if (pushChannel != null) {
+                subscriptionHub.unsubscribeAll(pushChannel);
+            }
+            // Let pipelined requests finish writing before the socket goes away
+            inFlight.acquireUninterruptibly(MAX_IN_FLIGHT);
             try {
                 clientSocket.close();
             } catch (IOException e) {
@@ -48,18 +156,457 @@ public class ClientHandler implements Runnable {
         }
     }
 
-    private void processRequest(String request) {
+    private void serveLine(String line) {
+        ServerRequest serverRequest;
+        try {
+            serverRequest = gson.fromJson(line, ServerRequest.class);
+        } catch (Exception e) {
+            writeLine(gson.toJson(new ServerResponse("error", "Invalid request: " + e.getMessage())));
+            return;
+        }
+        Runnable task = () -> writeLine(respondJson(serverRequest, pushChannel));
+        if (serverRequest != null && serverRequest.getRequestId() != null) {
+            runPipelined(task);
+        } else {
+            runOrdered(task);
+        }
+    }
+
+    private void writeLine(String json) {
+        writeLock.lock();
+        try {
+            out.println(json);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs a request after every in-flight request has completed, blocking further reads meanwhile
+     */
+    private void runOrdered(Runnable task) {
+        inFlight.acquireUninterruptibly(MAX_IN_FLIGHT);
+        try {
+            task.run();
+        } finally {
+            inFlight.release(MAX_IN_FLIGHT);
+        }
+    }
+
+    /**
+     * Runs a request concurrently once a slot in the in-flight window is free.
+     * The reader blocks while the window is full, which pushes back on the client.
+     */
+    private void runPipelined(Runnable task) {
+        if (requestPool == null) {
+            runOrdered(task);
+            return;
+        }
+        inFlight.acquireUninterruptibly();
+        try {
+            requestPool.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            runOrdered(task);
+        }
+    }
+
+    /**
+     * Serves a client that negotiated the length-prefixed binary protocol.
+     * The first preamble byte has already been consumed.
+     */
+    private void runBinary(InputStream input, OutputStream output) throws IOException {
+        DataInputStream din = new DataInputStream(input);
+        byte[] preamble = new byte[BinaryProtocol.PREAMBLE.length];
+        preamble[0] = BinaryProtocol.PREAMBLE[0];
+        din.readFully(preamble, 1, preamble.length - 1);
+        if (!java.util.Arrays.equals(preamble, BinaryProtocol.PREAMBLE)) {
+            throw new IOException("Unsupported protocol preamble");
+        }
+        output.write(BinaryProtocol.PREAMBLE);
+        output.flush();
+        pushChannel = event -> push(() -> {
+            ByteBuffer frame = encodePush(event, true);
+            try {
+                writeFrame(output, frame);
+            } finally {
+                BinaryProtocol.BUFFERS.release(frame);
+            }
+        });
+
+        while (true) {
+            int length;
+            try {
+                length = din.readInt();
+            } catch (EOFException e) {
+                return;
+            }
+            int requestId = din.readInt();
+            short actionCode = din.readShort();
+            if (length < 0 || length > BinaryProtocol.MAX_PAYLOAD_SIZE) {
+                throw new IOException("Invalid frame length: " + length);
+            }
+
+            ByteBuffer payload = BinaryProtocol.BUFFERS.acquire(length);
+            try {
+                din.readFully(payload.array(), payload.arrayOffset(), length);
+                payload.limit(length);
+            } catch (IOException e) {
+                BinaryProtocol.BUFFERS.release(payload);
+                throw e;
+            }
+
+            Runnable task = () -> {
+                ByteBuffer frame = null;
+                try {
+                    frame = processBinaryFrame(requestId, actionCode, payload, pushChannel);
+                    writeFrame(output, frame);
+                } finally {
+                    BinaryProtocol.BUFFERS.release(payload);
+                    BinaryProtocol.BUFFERS.release(frame);
+                }
+            };
+            // Request id 0 marks a frame that wants the ordered, one-at-a-time behaviour
+            if (requestId != 0) {
+                runPipelined(task);
+            } else {
+                runOrdered(task);
+            }
+        }
+    }
+
+    private void writeFrame(OutputStream output, ByteBuffer frame) {
+        writeLock.lock();
+        try {
+            output.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+            output.flush();
+        } catch (IOException e) {
+            logger.warning("Error writing response frame: " + e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Dispatches one binary frame and returns the encoded response frame in a pooled buffer
+     */
+    ByteBuffer processBinaryFrame(int requestId, short actionCode, ByteBuffer payload, SubscriptionHub.Channel channel) {
+        ServerResponse response;
+        try {
+            ServerRequest serverRequest = BinaryProtocol.decodeRequest(actionCode, payload, gson);
+            byte[] cached = respondCached(serverRequest);
+            if (cached != null) {
+                return BinaryProtocol.encodeResponse(requestId, actionCode, cached);
+            }
+            response = respond(serverRequest, channel);
+        } catch (Exception e) {
+            response = new ServerResponse("error", "Invalid request: " + e.getMessage());
+        }
+        return BinaryProtocol.encodeResponse(requestId, actionCode, response, gson);
+    }
+
+    /**
+     * Error frame for a binary request whose response could not be produced or encoded
+     */
+    ByteBuffer errorFrame(int requestId, short actionCode, RuntimeException failure) {
+        return BinaryProtocol.encodeResponse(requestId, actionCode,
+                new ServerResponse("error", "Server error: " + failure.getMessage()), gson);
+    }
+
+    /**
+     * Error response line for a JSON request whose response could not be produced, carrying
+     * the request's correlation id when the line can still be read
+     */
+    String errorLine(String request, RuntimeException failure) {
+        ServerResponse response = new ServerResponse("error", "Server error: " + failure.getMessage());
+        try {
+            ServerRequest serverRequest = gson.fromJson(request, ServerRequest.class);
+            if (serverRequest != null) {
+                response.setRequestId(serverRequest.getRequestId());
+            }
+        } catch (RuntimeException e) {
+            // Unreadable request: the error goes out without a correlation id
+        }
+        return gson.toJson(response);
+    }
+
+    /**
+     * Encodes a pushed event for a connection of either protocol, ready to write
+     */
+    ByteBuffer encodePush(ServerResponse event, boolean binary) {
+        if (binary) {
+            return BinaryProtocol.encodeResponse(0, BinaryProtocol.actionCode("subscribe"), event, gson);
+        }
+        return ByteBuffer.wrap((gson.toJson(event) + "\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes one JSON request line, dispatches it and returns the JSON response line
+     */
+    String processRequest(String request, SubscriptionHub.Channel channel) {
         try {
             ServerRequest serverRequest = gson.fromJson(request, ServerRequest.class);
-            ServerResponse response = handleRequest(serverRequest);
-            out.println(gson.toJson(response));
+            return respondJson(serverRequest, channel);
         } catch (Exception e) {
             ServerResponse errorResponse = new ServerResponse("error", "Invalid request: " + e.getMessage());
-            out.println(gson.toJson(errorResponse));
+            return gson.toJson(errorResponse);
+        }
+    }
+
+    /**
+     * Dispatches a decoded request and returns its JSON response, from the cache when possible
+     */
+    private String respondJson(ServerRequest request, SubscriptionHub.Channel channel) {
+        byte[] cached = respondCached(request);
+        return cached != null ? new String(cached, StandardCharsets.UTF_8) : gson.toJson(respond(request, channel));
+    }
+
+    /**
+     * Answers a cacheable read with serialized JSON, computing and caching it on a miss.
+     * Returns null for requests that are not cacheable or fail authorization, which the
+     * caller then dispatches through respond().
+     */
+    private byte[] respondCached(ServerRequest request) {
+        if (request == null || !CACHED_ACTIONS.contains(request.getAction()) || authorize(request) != null) {
+            return null;
+        }
+        String key = cacheKey(request);
+        if (key == null) {
+            return null;
+        }
+        byte[] json = responseCache.get(key);
+        if (json == null) {
+            long stamp = responseCache.stamp();
+            ServerResponse response = handleRequest(request);
+            json = gson.toJson(response).getBytes(StandardCharsets.UTF_8);
+            if ("success".equals(response.getStatus())) {
+                responseCache.put(key, json, stamp);
+            }
+        }
+        return ResponseCache.withRequestId(json, request.getRequestId());
+    }
+
+    private String cacheKey(ServerRequest request) {
+        switch (request.getAction()) {
+            case "getMeetings":
+                return ResponseCache.key("getMeetings", employeeParam(request));
+            default:
+                return ResponseCache.key(request.getAction(), null);
+        }
+    }
+
+    /**
+     * Drops the cached responses a successful write has made stale
+     */
+    private void invalidateCached(ServerRequest request) {
+        switch (request.getAction()) {
+            case "updateKPI":
+            case "saveKPIs":
+            case "evaluateEmployee":
+            case "saveMonthlyEvaluation":
+            case "approveLeaveRequest":
+            case "approveLeaveRequests":
+            case "updateProfile":
+            case "addEmployee":
+                responseCache.invalidateAction("getEmployees");
+                responseCache.invalidateAction("getDashboardStats");
+                break;
+            case "uploadReport":
+            case "saveLeaveRequest":
+            case "updateReportStatus":
+                responseCache.invalidateAction("getDashboardStats");
+                break;
+            case "saveMeeting":
+                responseCache.invalidateAction("getDashboardStats");
+                responseCache.invalidate("getMeetings", request.getUserId());
+                List<String> participantIds = payload(request, RequestPayloads.SaveMeeting.class).getParticipantIds();
+                if (participantIds != null) {
+                    participantIds.forEach(id -> responseCache.invalidate("getMeetings", id));
+                }
+                break;
+            default:
+                break;
         }
     }
 
+    /**
+     * Checks the session, dispatches a decoded request and copies its correlation id onto the response.
+     * Subscriptions are handled here because they belong to the connection the request came on.
+     */
+    private ServerResponse respond(ServerRequest request, SubscriptionHub.Channel channel) {
+        if (request == null) {
+            return new ServerResponse("error", "Invalid request: empty request");
+        }
+        ServerResponse response = "login".equals(request.getAction()) ? null : authorize(request);
+        if (response == null && ("subscribe".equals(request.getAction()) || "unsubscribe".equals(request.getAction()))) {
+            response = handleSubscription(request, channel);
+        }
+        if (response == null) {
+            response = handleRequest(request);
+        }
+        response.setRequestId(request.getRequestId());
+        return response;
+    }
+
+    /**
+     * Subscribes or unsubscribes the connection to change event topics ("kind:scope").
+     * Events arrive on the same connection as responses with status "event" and the
+     * topic as message; binary clients receive them as frames with request id 0.
+     */
+    private ServerResponse handleSubscription(ServerRequest request, SubscriptionHub.Channel channel) {
+        try {
+            if (channel == null) {
+                return new ServerResponse("error", "Subscriptions are not supported on this connection");
+            }
+            List<String> topics = payload(request, RequestPayloads.Subscribe.class).getTopics();
+            if (topics == null || topics.isEmpty()) {
+                return new ServerResponse("error", "No topics given");
+            }
+            boolean subscribe = "subscribe".equals(request.getAction());
+            SessionStore.Session owner = sessionStore.validate(request.getSessionToken());
+            for (String topic : topics) {
+                if (!subscribe) {
+                    subscriptionHub.unsubscribe(channel, topic);
+                } else if (maySubscribe(owner, topic)) {
+                    subscriptionHub.subscribe(channel, topic);
+                } else {
+                    return new ServerResponse("error", "Not allowed to subscribe to " + topic);
+                }
+            }
+            return new ServerResponse("success", subscribe ? "Subscribed" : "Unsubscribed",
+                    subscriptionHub.topicsOf(channel));
+        } catch (Exception e) {
+            return new ServerResponse("error", "Subscription failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Personal topics are limited to their owner; division topics to the owner's division,
+     * except for managers, who may also use the "*" wildcard. Employees only see KPI changes.
+     */
+    private boolean maySubscribe(SessionStore.Session session, String topic) {
+        int colon = topic.indexOf(':');
+        if (session == null || colon <= 0) {
+            return false;
+        }
+        String kind = topic.substring(0, colon);
+        String scope = topic.substring(colon + 1);
+        boolean manager = "manajer".equals(session.getRole());
+        switch (kind) {
+            case ChangeEvent.MEETINGS:
+            case ChangeEvent.MY_LEAVE:
+                return scope.equals(session.getEmployeeId());
+            case ChangeEvent.LEAVE:
+            case ChangeEvent.REPORTS:
+                if ("pegawai".equals(session.getRole())) {
+                    return false;
+                }
+                return manager || scope.equals(session.getDivisi());
+            case ChangeEvent.KPI:
+                return manager || scope.equals(session.getDivisi());
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Hands a pushed event to the request pool so the hub's delivery thread never blocks on
+     * this socket. Returns false once the client is gone or has too many undelivered events.
+     */
+    private boolean push(Runnable write) {
+        if (clientSocket.isClosed()) {
+            return false;
+        }
+        if (pendingPushes.incrementAndGet() > MAX_PENDING_PUSHES) {
+            pendingPushes.decrementAndGet();
+            return false;
+        }
+        Runnable task = () -> {
+            try {
+                write.run();
+            } finally {
+                pendingPushes.decrementAndGet();
+            }
+        };
+        try {
+            if (requestPool != null) {
+                requestPool.execute(task);
+            } else {
+                task.run();
+            }
+        } catch (RejectedExecutionException e) {
+            pendingPushes.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Validates the request's session token, binds its userId to the session owner and checks
+     * that the owner's role may call the action. Returns an error response when the request
+     * may not proceed, null otherwise.
+     */
+    private ServerResponse authorize(ServerRequest request) {
+        SessionStore.Session session = sessionStore.validate(request.getSessionToken());
+        if (session == null) {
+            return new ServerResponse("error", "Not authenticated: session missing or expired");
+        }
+        if (request.getUserId() != null && !request.getUserId().equals(session.getEmployeeId())) {
+            return new ServerResponse("error", "Session does not belong to user: " + request.getUserId());
+        }
+        request.setUserId(session.getEmployeeId());
+        return checkRole(request, session);
+    }
+
+    private ServerResponse checkRole(ServerRequest request, SessionStore.Session session) {
+        String action = request.getAction();
+        boolean manager = "manajer".equals(session.getRole());
+        boolean supervisor = "supervisor".equals(session.getRole());
+        if ((MANAGER_ACTIONS.contains(action) && !manager)
+                || (SUPERVISOR_ACTIONS.contains(action) && !manager && !supervisor)) {
+            return new ServerResponse("error", "Not allowed for role " + session.getRole() + ": " + action);
+        }
+        if (manager) {
+            return null;
+        }
+        try {
+            if (EMPLOYEE_SCOPED_ACTIONS.contains(action)) {
+                String employeeId = employeeParam(request);
+                if (!session.getEmployeeId().equals(employeeId)
+                        && !(supervisor && inDivision(employeeId, session.getDivisi()))) {
+                    return new ServerResponse("error", "Not allowed to read data of employee " + employeeId);
+                }
+            }
+            if (DIVISION_SCOPED_ACTIONS.contains(action)
+                    && !session.getDivisi().equals(payload(request, RequestPayloads.DivisionQuery.class).getDivisi())) {
+                return new ServerResponse("error", "Not allowed to read data of another division");
+            }
+        } catch (Exception e) {
+            return new ServerResponse("error", "Invalid request: " + e.getMessage());
+        }
+        return null;
+    }
+
+    private boolean inDivision(String employeeId, String divisi) {
+        Employee employee = employeeId != null ? dataStore.getEmployeeById(employeeId) : null;
+        return employee != null && divisi != null && divisi.equals(employee.getDivisi());
+    }
+
     private ServerResponse handleRequest(ServerRequest request) {
+        ServerResponse response = dispatch(request);
+        if ("success".equals(response.getStatus())) {
+            invalidateCached(request);
+        }
+        return response;
+    }
+
+    private ServerResponse dispatch(ServerRequest request) {
         try {
             switch (request.getAction()) {
                 case "login":
@@ -68,6 +615,8 @@ public class ClientHandler implements Runnable {
                     return handleGetEmployees(request);
                 case "updateKPI":
                     return handleUpdateKPI(request);
+                case "saveKPIs":
+                    return handleSaveKPIs(request);
                 case "uploadReport":
                     return handleUploadReport(request);
                 case "evaluateEmployee":
@@ -88,10 +637,87 @@ public class ClientHandler implements Runnable {
                     return handleSaveLeaveRequest(request);
                 case "approveLeaveRequest":
                     return handleApproveLeaveRequest(request);
+                case "approveLeaveRequests":
+                    return handleApproveLeaveRequests(request);
                 case "getSalaryHistory":
                     return handleGetSalaryHistory(request);
+                case "runPayroll":
+                    return handleRunPayroll(request);
                 case "saveMonthlyEvaluation":
                     return handleSaveMonthlyEvaluation(request);
+                case "batch":
+                    return handleBatch(request);
+                case "logout":
+                    return handleLogout(request);
+                case "getCacheStats":
+                    return new ServerResponse("success", "Cache stats retrieved", responseCache.stats());
+                case "getPoolStats":
+                    return new ServerResponse("success", "Connection pool stats retrieved",
+                            DatabaseConnection.getInstance().getMetrics().stats());
+                case "getEmployee":
+                    return query("Employee", () -> dataStore.getEmployeeById(employeeParam(request)));
+                case "getEmployeesByDivision":
+                    return query("Employees", () -> dataStore.getEmployeesByDivision(
+                            payload(request, RequestPayloads.DivisionQuery.class).getDivisi()));
+                case "updateEmployee":
+                    return new ServerResponse("error", "Only profile updates are accepted; use updateProfile");
+                case "updateProfile":
+                    return handleUpdateProfile(request);
+                case "addEmployee":
+                    return handleAddEmployee(request);
+                case "getAllKPI":
+                    return query("KPI", dataStore::getAllKPI);
+                case "getAllReports":
+                    return query("Reports", dataStore::getAllReports);
+                case "getPendingReports":
+                    return query("Pending reports", dataStore::getPendingReports);
+                case "getReportsByDivision":
+                    return query("Reports", () -> dataStore.getReportsByDivision(
+                            payload(request, RequestPayloads.DivisionQuery.class).getDivisi()));
+                case "getReportContent":
+                    return query("Report content", () -> dataStore.getReportContent(
+                            payload(request, RequestPayloads.ReportQuery.class).getReportId()));
+                case "search":
+                    return handleSearch(request);
+                case "updateReportStatus":
+                    return handleUpdateReportStatus(request);
+                case "getTodayAttendance":
+                    return query("Attendance", () -> dataStore.getTodayAttendance(employeeParam(request)));
+                case "clockOut":
+                    return handleClockOut(request);
+                case "getAllLeaveRequests":
+                    return historyParam(request) != null
+                            ? query("Leave requests", () -> dataStore.getAllLeaveRequests(historyParam(request)))
+                            : query("Leave requests", dataStore::getAllLeaveRequests);
+                case "getPendingLeaveRequests":
+                    return query("Pending leave requests", dataStore::getPendingLeaveRequests);
+                case "getLeaveRequestsForApproval":
+                    return query("Leave requests", () -> dataStore.getLeaveRequestsForApproval(employeeParam(request)));
+                case "getPendingLeaveRequestsByEmployee":
+                    return query("Pending leave requests",
+                            () -> dataStore.getPendingLeaveRequestsByEmployee(employeeParam(request)));
+                case "getAllSalaryHistory":
+                    return historyParam(request) != null
+                            ? query("Salary history", () -> dataStore.getAllSalaryHistory(historyParam(request)))
+                            : query("Salary history", dataStore::getAllSalaryHistory);
+                case "getAllMeetings":
+                    return query("Meetings", () -> dataStore.getAllMeetings(historyOrDefault(request)));
+                case "getAllAttendance":
+                    return query("Attendance", () -> dataStore.getAllAttendance(historyOrDefault(request)));
+                case "getAllEvaluations":
+                    return historyParam(request) != null
+                            ? query("Evaluations", () -> dataStore.getAllEvaluations(historyParam(request)))
+                            : query("Evaluations", dataStore::getAllEvaluations);
+                case "hasMonthlyEvaluation":
+                    return query("Monthly evaluation check", () -> {
+                        RequestPayloads.MonthlyEvaluationQuery data = payload(request, RequestPayloads.MonthlyEvaluationQuery.class);
+                        return dataStore.hasMonthlyEvaluation(data.getEmployeeId(), data.getMonth(), data.getYear());
+                    });
+                case "getAllMonthlyEvaluations":
+                    return query("Monthly evaluations", dataStore::getAllMonthlyEvaluations);
+                case "getMonthlyEvaluationsBySupervisor":
+                    return query("Monthly evaluations",
+                            () -> dataStore.getMonthlyEvaluationsBySupervisor(employeeParam(request)));
                 default:
                     return new ServerResponse("error", "Unknown action: " + request.getAction());
             }
@@ -101,14 +727,89 @@ public class ClientHandler implements Runnable {
         }
     }
 
+    /**
+     * Runs a list of sub-requests and answers with one combined response whose data is
+     * the list of sub-responses in request order. A batch of pure reads is split over
+     * up to BATCH_LANES lanes that each run on a single borrowed JDBC connection; a batch
+     * containing any write runs sequentially, in order, on one connection.
+     */
+    private ServerResponse handleBatch(ServerRequest request) {
+        try {
+            List<ServerRequest> subRequests = payload(request, RequestPayloads.Batch.class).getRequests();
+            if (subRequests == null) {
+                return new ServerResponse("error", "Batch has no requests");
+            }
+            if (subRequests.size() > MAX_BATCH_SIZE) {
+                return new ServerResponse("error", "Batch exceeds " + MAX_BATCH_SIZE + " requests");
+            }
+
+            boolean readOnly = true;
+            for (ServerRequest sub : subRequests) {
+                // Sub-requests run under the batch's session
+                sub.setUserId(request.getUserId());
+                sub.setSessionToken(request.getSessionToken());
+                readOnly &= READ_ACTIONS.contains(sub.getAction());
+            }
+
+            ServerResponse[] results = new ServerResponse[subRequests.size()];
+            int lanes = readOnly ? Math.min(BATCH_LANES, subRequests.size()) : 1;
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int lane = 1; lane < lanes; lane++) {
+                int first = lane;
+                futures.add(CompletableFuture.runAsync(() -> runBatchLane(subRequests, results, first, lanes), batchPool));
+            }
+            runBatchLane(subRequests, results, 0, lanes);
+            futures.forEach(CompletableFuture::join);
+
+            return new ServerResponse("success", "Batch processed", Arrays.asList(results));
+        } catch (Exception e) {
+            return new ServerResponse("error", "Batch failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Runs every lanes-th sub-request starting at first, all on one shared connection
+     */
+    private void runBatchLane(List<ServerRequest> subRequests, ServerResponse[] results, int first, int lanes) {
+        dataStore.withSharedConnection(() -> {
+            for (int i = first; i < subRequests.size(); i += lanes) {
+                ServerRequest sub = subRequests.get(i);
+                ServerResponse response = "batch".equals(sub.getAction())
+                        ? new ServerResponse("error", "Nested batch requests are not supported")
+                        : authorize(sub);
+                if (response == null) {
+                    response = handleRequest(sub);
+                }
+                response.setRequestId(sub.getRequestId());
+                results[i] = response;
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Returns the typed payload of a request. Requests decoded without the protocol
+     * adapters still carry an untyped data map, which is bound to the payload class here.
+     */
+    private <T> T payload(ServerRequest request, Class<T> type) {
+        if (type.isInstance(request.getPayload())) {
+            return type.cast(request.getPayload());
+        }
+        if (request.getData() == null) {
+            throw new IllegalArgumentException("Missing request data");
+        }
+        return gson.fromJson(gson.toJsonTree(request.getData()), type);
+    }
+
     private ServerResponse handleLogin(ServerRequest request) {
         try {
-            String employeeId = (String) request.getData().get("employeeId");
-            String password = (String) request.getData().get("password");
+            RequestPayloads.Login data = payload(request, RequestPayloads.Login.class);
             
-            Employee employee = dataStore.authenticateUser(employeeId, password);
+            Employee employee = dataStore.authenticateUser(data.getEmployeeId(), data.getPassword());
             if (employee != null) {
-                return new ServerResponse("success", "Login successful", employee);
+                ServerResponse response = new ServerResponse("success", "Login successful", employee);
+                response.setSessionToken(sessionStore.create(employee).getToken());
+                return response;
             } else {
                 return new ServerResponse("error", "Invalid credentials");
             }
@@ -117,6 +818,51 @@ public class ClientHandler implements Runnable {
         }
     }
 
+    /**
+     * Runs a plain data store read and wraps its result, for the actions that mirror IDataStore getters
+     */
+    private ServerResponse query(String description, Supplier<?> read) {
+        try {
+            return new ServerResponse("success", description + " retrieved", read.get());
+        } catch (Exception e) {
+            return new ServerResponse("error", "Failed to get " + description.toLowerCase() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Employee a read is about: the employeeId in the payload, or the session user when absent
+     */
+    private String employeeParam(ServerRequest request) {
+        Object data = request.getPayload();
+        if (data == null && request.getData() != null) {
+            data = payload(request, RequestPayloads.EmployeeQuery.class);
+        }
+        String employeeId = data instanceof RequestPayloads.EmployeeQuery
+                ? ((RequestPayloads.EmployeeQuery) data).getEmployeeId() : null;
+        return employeeId != null ? employeeId : request.getUserId();
+    }
+
+    /**
+     * The history filter sent with a request, or null when the client sent none
+     */
+    private HistoryQuery historyParam(ServerRequest request) {
+        Object data = request.getPayload();
+        if (data == null && request.getData() != null) {
+            data = payload(request, HistoryQuery.class);
+        }
+        return data instanceof HistoryQuery ? (HistoryQuery) data : null;
+    }
+
+    private HistoryQuery historyOrDefault(ServerRequest request) {
+        HistoryQuery query = historyParam(request);
+        return query != null ? query : new HistoryQuery();
+    }
+
+    private ServerResponse handleLogout(ServerRequest request) {
+        sessionStore.invalidate(request.getSessionToken());
+        return new ServerResponse("success", "Logged out");
+    }
+
     private ServerResponse handleGetEmployees(ServerRequest request) {
         try {
             return new ServerResponse("success", "Employees retrieved", dataStore.getAllEmployees());
@@ -127,13 +873,11 @@ public class ClientHandler implements Runnable {
 
     private ServerResponse handleUpdateKPI(ServerRequest request) {
         try {
-            String divisi = (String) request.getData().get("divisi");
-            int bulan = ((Double) request.getData().get("bulan")).intValue();
-            int tahun = ((Double) request.getData().get("tahun")).intValue();
-            double score = (Double) request.getData().get("score");
+            RequestPayloads.UpdateKpi data = payload(request, RequestPayloads.UpdateKpi.class);
             String managerId = request.getUserId();
             
-            boolean success = dataStore.saveKPI(divisi, bulan, tahun, score, managerId);
+            boolean success = dataStore.saveKPI(data.getDivisi(), data.getBulan(), data.getTahun(),
+                                                data.getScore(), managerId);
             if (success) {
                 return new ServerResponse("success", "KPI updated successfully");
             } else {
@@ -144,15 +888,61 @@ public class ClientHandler implements Runnable {
         }
     }
 
+    private ServerResponse handleSaveKPIs(ServerRequest request) {
+        try {
+            RequestPayloads.SaveKpis data = payload(request, RequestPayloads.SaveKpis.class);
+            if (data.getKpis() == null) {
+                return new ServerResponse("error", "No KPIs given");
+            }
+            List<KPI> kpis = new ArrayList<>();
+            for (RequestPayloads.UpdateKpi item : data.getKpis()) {
+                kpis.add(new KPI(item.getDivisi(), item.getBulan(), item.getTahun(), item.getScore(), request.getUserId()));
+            }
+            if (dataStore.saveKPIs(kpis)) {
+                return new ServerResponse("success", kpis.size() + " KPI(s) saved");
+            } else {
+                return new ServerResponse("error", "Failed to save KPIs");
+            }
+        } catch (Exception e) {
+            return new ServerResponse("error", "KPI save failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Managers search everything, supervisors their division and employees their own
+     * leave requests and evaluations
+     */
+    private ServerResponse handleSearch(ServerRequest request) {
+        try {
+            RequestPayloads.SearchQuery data = payload(request, RequestPayloads.SearchQuery.class);
+            if (data.getText() == null || data.getText().isBlank()) {
+                return new ServerResponse("error", "No search text given");
+            }
+            SessionStore.Session session = sessionStore.validate(request.getSessionToken());
+            String divisi = data.getDivisi();
+            String employeeId = data.getEmployeeId();
+            if (session == null) {
+                return new ServerResponse("error", "Not authenticated: session missing or expired");
+            } else if ("supervisor".equals(session.getRole())) {
+                divisi = session.getDivisi();
+            } else if (!"manajer".equals(session.getRole())) {
+                employeeId = session.getEmployeeId();
+            }
+            int limit = data.getLimit() > 0 ? Math.min(data.getLimit(), MAX_SEARCH_RESULTS) : DEFAULT_SEARCH_RESULTS;
+            return new ServerResponse("success", "Search results",
+                    dataStore.search(data.getText(), divisi, employeeId, limit));
+        } catch (Exception e) {
+            return new ServerResponse("error", "Search failed: " + e.getMessage());
+        }
+    }
+
     private ServerResponse handleUploadReport(ServerRequest request) {
         try {
             String supervisorId = request.getUserId();
-            String divisi = (String) request.getData().get("divisi");
-            int bulan = ((Double) request.getData().get("bulan")).intValue();
-            int tahun = ((Double) request.getData().get("tahun")).intValue();
-            String filePath = (String) request.getData().get("filePath");
+            RequestPayloads.UploadReport data = payload(request, RequestPayloads.UploadReport.class);
             
-            boolean success = dataStore.saveReport(supervisorId, divisi, bulan, tahun, filePath);
+            boolean success = dataStore.saveReport(supervisorId, data.getDivisi(), data.getBulan(),
+                                                   data.getTahun(), data.getFilePath());
             if (success) {
                 return new ServerResponse("success", "Report uploaded successfully");
             } else {
@@ -165,16 +955,15 @@ public class ClientHandler implements Runnable {
 
     private ServerResponse handleEvaluateEmployee(ServerRequest request) {
         try {
-            String employeeId = (String) request.getData().get("employeeId");
+            RequestPayloads.EvaluateEmployee data = payload(request, RequestPayloads.EvaluateEmployee.class);
             String supervisorId = request.getUserId();
-            double punctualityScore = (Double) request.getData().get("punctualityScore");
-            double attendanceScore = (Double) request.getData().get("attendanceScore");
-            double overallRating = (Double) request.getData().get("overallRating");
-            String comments = (String) request.getData().get("comments");
+            if (!mayEvaluate(request, data.getEmployeeId())) {
+                return new ServerResponse("error", "Not allowed to evaluate employee " + data.getEmployeeId());
+            }
             
-            boolean success = dataStore.saveEmployeeEvaluation(employeeId, supervisorId,
-                                                             punctualityScore, attendanceScore, 
-                                                             overallRating, comments);
+            boolean success = dataStore.saveEmployeeEvaluation(data.getEmployeeId(), supervisorId,
+                                                             data.getPunctualityScore(), data.getAttendanceScore(), 
+                                                             data.getOverallRating(), data.getComments());
             if (success) {
                 return new ServerResponse("success", "Employee evaluation saved successfully");
             } else {
@@ -187,20 +976,16 @@ public class ClientHandler implements Runnable {
 
     private ServerResponse handleSaveMonthlyEvaluation(ServerRequest request) {
         try {
-            String employeeId = (String) request.getData().get("employeeId");
+            RequestPayloads.MonthlyEvaluation data = payload(request, RequestPayloads.MonthlyEvaluation.class);
             String supervisorId = request.getUserId();
-            int month = ((Double) request.getData().get("month")).intValue();
-            int year = ((Double) request.getData().get("year")).intValue();
-            double punctualityScore = (Double) request.getData().get("punctualityScore");
-            double attendanceScore = (Double) request.getData().get("attendanceScore");
-            double productivityScore = (Double) request.getData().get("productivityScore");
-            double overallRating = (Double) request.getData().get("overallRating");
-            String comments = (String) request.getData().get("comments");
+            if (!mayEvaluate(request, data.getEmployeeId())) {
+                return new ServerResponse("error", "Not allowed to evaluate employee " + data.getEmployeeId());
+            }
             
-            boolean success = dataStore.saveMonthlyEmployeeEvaluation(employeeId, supervisorId,
-                                                                    month, year, punctualityScore, 
-                                                                    attendanceScore, productivityScore, 
-                                                                    overallRating, comments);
+            boolean success = dataStore.saveMonthlyEmployeeEvaluation(data.getEmployeeId(), supervisorId,
+                                                                    data.getMonth(), data.getYear(), data.getPunctualityScore(), 
+                                                                    data.getAttendanceScore(), data.getProductivityScore(), 
+                                                                    data.getOverallRating(), data.getComments());
             if (success) {
                 return new ServerResponse("success", "Monthly evaluation saved successfully");
             } else {
@@ -213,7 +998,7 @@ public class ClientHandler implements Runnable {
 
     private ServerResponse handleGetAttendance(ServerRequest request) {
         try {
-            String employeeId = (String) request.getData().get("employeeId");
+            String employeeId = employeeParam(request);
             return new ServerResponse("success", "Attendance retrieved", 
                                     dataStore.getAttendanceByEmployee(employeeId));
         } catch (Exception e) {
@@ -224,12 +1009,10 @@ public class ClientHandler implements Runnable {
     private ServerResponse handleSaveAttendance(ServerRequest request) {
         try {
             String employeeId = request.getUserId();
-            String status = (String) request.getData().get("status");
-            String jamMasuk = (String) request.getData().get("jamMasuk");
-            String jamKeluar = (String) request.getData().get("jamKeluar");
+            RequestPayloads.SaveAttendance data = payload(request, RequestPayloads.SaveAttendance.class);
             
             boolean success = dataStore.saveAttendance(employeeId, new java.util.Date(),
-                                                     jamMasuk, jamKeluar, status);
+                                                     data.getJamMasuk(), data.getJamKeluar(), data.getStatus());
             if (success) {
                 return new ServerResponse("success", "Attendance saved successfully");
             } else {
@@ -251,7 +1034,7 @@ public class ClientHandler implements Runnable {
 
     private ServerResponse handleGetMeetings(ServerRequest request) {
         try {
-            String employeeId = request.getUserId();
+            String employeeId = employeeParam(request);
             return new ServerResponse("success", "Meetings retrieved", 
                                     dataStore.getMeetingsByEmployee(employeeId));
         } catch (Exception e) {
@@ -261,18 +1044,12 @@ public class ClientHandler implements Runnable {
 
     private ServerResponse handleSaveMeeting(ServerRequest request) {
         try {
-            String title = (String) request.getData().get("title");
-            String description = (String) request.getData().get("description");
-            java.util.Date tanggal = new java.util.Date((Long) request.getData().get("tanggal"));
-            String waktuMulai = (String) request.getData().get("waktuMulai");
-            String waktuSelesai = (String) request.getData().get("waktuSelesai");
-            String lokasi = (String) request.getData().get("lokasi");
+            RequestPayloads.SaveMeeting data = payload(request, RequestPayloads.SaveMeeting.class);
+            java.util.Date tanggal = new java.util.Date(data.getTanggal());
             String organizerId = request.getUserId();
-            @SuppressWarnings("unchecked")
-            java.util.List<String> participantIds = (java.util.List<String>) request.getData().get("participantIds");
             
-            boolean success = dataStore.saveMeeting(title, description, tanggal, waktuMulai,
-                                                  waktuSelesai, lokasi, organizerId, participantIds);
+            boolean success = dataStore.saveMeeting(data.getTitle(), data.getDescription(), tanggal, data.getWaktuMulai(),
+                                                  data.getWaktuSelesai(), data.getLokasi(), organizerId, data.getParticipantIds());
             if (success) {
                 return new ServerResponse("success", "Meeting saved successfully");
             } else {
@@ -285,7 +1062,7 @@ public class ClientHandler implements Runnable {
 
     private ServerResponse handleGetLeaveRequests(ServerRequest request) {
         try {
-            String employeeId = request.getUserId();
+            String employeeId = employeeParam(request);
             return new ServerResponse("success", "Leave requests retrieved", 
                                     dataStore.getLeaveRequestsByEmployee(employeeId));
         } catch (Exception e) {
@@ -296,12 +1073,11 @@ public class ClientHandler implements Runnable {
     private ServerResponse handleSaveLeaveRequest(ServerRequest request) {
         try {
             String employeeId = request.getUserId();
-            String leaveType = (String) request.getData().get("leaveType");
-            java.util.Date startDate = new java.util.Date((Long) request.getData().get("startDate"));
-            java.util.Date endDate = new java.util.Date((Long) request.getData().get("endDate"));
-            String reason = (String) request.getData().get("reason");
+            RequestPayloads.SaveLeaveRequest data = payload(request, RequestPayloads.SaveLeaveRequest.class);
+            java.util.Date startDate = new java.util.Date(data.getStartDate());
+            java.util.Date endDate = new java.util.Date(data.getEndDate());
             
-            boolean success = dataStore.saveLeaveRequest(employeeId, leaveType, startDate, endDate, reason);
+            boolean success = dataStore.saveLeaveRequest(employeeId, data.getLeaveType(), startDate, endDate, data.getReason());
             if (success) {
                 return new ServerResponse("success", "Leave request submitted successfully");
             } else {
@@ -314,16 +1090,18 @@ public class ClientHandler implements Runnable {
 
     private ServerResponse handleApproveLeaveRequest(ServerRequest request) {
         try {
-            int leaveRequestId = ((Double) request.getData().get("leaveRequestId")).intValue();
+            RequestPayloads.ApproveLeaveRequest data = payload(request, RequestPayloads.ApproveLeaveRequest.class);
+            int leaveRequestId = data.getLeaveRequestId();
             String approverId = request.getUserId();
-            String notes = (String) request.getData().get("notes");
-            String action = (String) request.getData().get("action");
+            String notes = data.getNotes();
+            String action = data.getAction();
             
+            String divisi = decisionScope(request);
             boolean success;
             if ("approve".equals(action)) {
-                success = dataStore.approveLeaveRequest(leaveRequestId, approverId, notes);
+                success = !dataStore.approveLeaveRequests(List.of(leaveRequestId), approverId, notes, divisi).isEmpty();
             } else {
-                success = dataStore.rejectLeaveRequest(leaveRequestId, approverId, notes);
+                success = dataStore.rejectLeaveRequest(leaveRequestId, approverId, notes, divisi);
             }
             
             if (success) {
@@ -336,13 +1114,131 @@ public class ClientHandler implements Runnable {
         }
     }
 
+    private ServerResponse handleApproveLeaveRequests(ServerRequest request) {
+        try {
+            RequestPayloads.ApproveLeaveRequests data = payload(request, RequestPayloads.ApproveLeaveRequests.class);
+            List<Integer> approved = dataStore.approveLeaveRequests(data.getLeaveRequestIds(),
+                    request.getUserId(), data.getNotes(), decisionScope(request));
+            return new ServerResponse("success", approved.size() + " leave request(s) approved", approved);
+        } catch (Exception e) {
+            return new ServerResponse("error", "Leave request approval failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Division whose employees a supervisor's leave decisions are limited to; null for
+     * managers, who decide for every division
+     */
+    private String decisionScope(ServerRequest request) {
+        SessionStore.Session session = sessionStore.validate(request.getSessionToken());
+        if (session == null) {
+            throw new IllegalStateException("Not authenticated: session missing or expired");
+        }
+        return "manajer".equals(session.getRole()) ? null : session.getDivisi();
+    }
+
+    /**
+     * Managers evaluate anyone; supervisors only employees (role pegawai) of their division
+     */
+    private boolean mayEvaluate(ServerRequest request, String employeeId) {
+        String divisi = decisionScope(request);
+        if (divisi == null) {
+            return true;
+        }
+        Employee employee = employeeId != null ? dataStore.getEmployeeById(employeeId) : null;
+        return employee != null && "pegawai".equals(employee.getRole()) && divisi.equals(employee.getDivisi());
+    }
+
+    private ServerResponse handleRunPayroll(ServerRequest request) {
+        try {
+            SessionStore.Session session = sessionStore.validate(request.getSessionToken());
+            if (session == null || !"manajer".equals(session.getRole())) {
+                return new ServerResponse("error", "Only managers may run payroll");
+            }
+            RequestPayloads.RunPayroll data = payload(request, RequestPayloads.RunPayroll.class);
+            PayrollSummary summary = dataStore.runPayroll(data.getBulan(), data.getTahun(), data.isRerun());
+            return new ServerResponse("success", summary.toString(), summary);
+        } catch (Exception e) {
+            return new ServerResponse("error", "Payroll run failed: " + e.getMessage());
+        }
+    }
+
     private ServerResponse handleGetSalaryHistory(ServerRequest request) {
         try {
-            String employeeId = request.getUserId();
+            String employeeId = employeeParam(request);
             return new ServerResponse("success", "Salary history retrieved", 
                                     dataStore.getSalaryHistoryByEmployee(employeeId));
         } catch (Exception e) {
             return new ServerResponse("error", "Failed to get salary history: " + e.getMessage());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Employees edit only their own profile: name and, when a new one is given, password
+     */
+    private ServerResponse handleUpdateProfile(ServerRequest request) {
+        try {
+            RequestPayloads.UpdateProfile data = payload(request, RequestPayloads.UpdateProfile.class);
+            if (data.getEmployeeId() != null && !data.getEmployeeId().equals(request.getUserId())) {
+                return new ServerResponse("error", "Employees may only update their own profile");
+            }
+            dataStore.updateProfile(request.getUserId(), data.getNama(), data.getPassword());
+            return new ServerResponse("success", "Profile updated successfully");
+        } catch (Exception e) {
+            return new ServerResponse("error", "Profile update failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Supervisors add employees to their own division only
+     */
+    private ServerResponse handleAddEmployee(ServerRequest request) {
+        try {
+            Employee employee = payload(request, Employee.class);
+            SessionStore.Session session = sessionStore.validate(request.getSessionToken());
+            if (session == null) {
+                return new ServerResponse("error", "Not authenticated: session missing or expired");
+            } else if (!"manajer".equals(session.getRole())) {
+                employee.setRole("pegawai");
+                employee.setDivisi(session.getDivisi());
+            }
+            dataStore.addEmployee(employee);
+            return new ServerResponse("success", "Employee added successfully");
+        } catch (Exception e) {
+            return new ServerResponse("error", "Failed to add employee: " + e.getMessage());
+        }
+    }
+
+    private ServerResponse handleUpdateReportStatus(ServerRequest request) {
+        try {
+            RequestPayloads.UpdateReportStatus data = payload(request, RequestPayloads.UpdateReportStatus.class);
+            String reviewerId = request.getUserId();
+
+            boolean success = dataStore.updateReportStatus(data.getReportId(), data.getStatus(),
+                                                           data.getManagerNotes(), reviewerId);
+            if (success) {
+                return new ServerResponse("success", "Report status updated successfully");
+            } else {
+                return new ServerResponse("error", "Failed to update report status");
+            }
+        } catch (Exception e) {
+            return new ServerResponse("error", "Report status update failed: " + e.getMessage());
+        }
+    }
+
+    private ServerResponse handleClockOut(ServerRequest request) {
+        try {
+            String employeeId = request.getUserId();
+            RequestPayloads.ClockOut data = payload(request, RequestPayloads.ClockOut.class);
+
+            boolean success = dataStore.updateAttendanceClockOut(employeeId, data.getJamKeluar());
+            if (success) {
+                return new ServerResponse("success", "Clock out saved successfully");
+            } else {
+                return new ServerResponse("error", "Failed to save clock out");
+            }
+        } catch (Exception e) {
+            return new ServerResponse("error", "Clock out failed: " + e.getMessage());
+        }
+    }
+}
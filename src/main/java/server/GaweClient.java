@@ -0,0 +1,210 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import models.ServerRequest;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+/**
+ * Client for the binary protocol over a single socket shared by every caller.
+ * Each call gets its own request id, so calls from several threads are pipelined
+ * on the connection and completed as their responses arrive, in any order.
+ * Pushed events (request id 0, status "event") are handed to the event listener.
+ * A broken connection fails the calls in flight and is reopened by the next call.
+ */
+public class GaweClient implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(GaweClient.class.getName());
+    private static final long CALL_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(30);
+
+    private final String host;
+    private final int port;
+    private final Gson gson;
+    private final Map<Integer, CompletableFuture<JsonObject>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger nextRequestId = new AtomicInteger();
+    private final ReentrantLock connectLock = new ReentrantLock();
+    private final ReentrantLock writeLock = new ReentrantLock();
+
+    private volatile Socket socket;
+    private DataOutputStream out;
+    private volatile String sessionToken;
+    private volatile Consumer<JsonObject> eventListener;
+
+    public GaweClient(String host, int port, Gson gson) {
+        this.host = host;
+        this.port = port;
+        this.gson = gson;
+    }
+
+    public void setSessionToken(String sessionToken) {
+        this.sessionToken = sessionToken;
+    }
+
+    public String getSessionToken() {
+        return sessionToken;
+    }
+
+    public void setEventListener(Consumer<JsonObject> eventListener) {
+        this.eventListener = eventListener;
+    }
+
+    /**
+     * Sends one request and waits for its response envelope (status, message, data)
+     */
+    public JsonObject call(String action, Object payload) throws IOException {
+        CompletableFuture<JsonObject> future = send(action, payload);
+        try {
+            return future.get(CALL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            future.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted waiting for " + action, e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof IOException ? (IOException) e.getCause()
+                    : new IOException(action + " failed", e.getCause());
+        } catch (TimeoutException e) {
+            // Cancelling drops the correlation entry; a late response is then ignored
+            future.cancel(false);
+            throw new IOException("Timed out waiting for " + action);
+        }
+    }
+
+    /**
+     * Sends one request without waiting; the future completes with the response envelope.
+     * Cancelling the future forgets the request.
+     */
+    public CompletableFuture<JsonObject> send(String action, Object payload) throws IOException {
+        ServerRequest request = new ServerRequest(action, null, null);
+        request.setPayload(payload);
+        request.setSessionToken(sessionToken);
+        byte[] body = gson.toJson(request, ServerRequest.class).getBytes(StandardCharsets.UTF_8);
+
+        int requestId;
+        do {
+            requestId = nextRequestId.incrementAndGet();
+        } while (requestId == 0);
+        CompletableFuture<JsonObject> future = new CompletableFuture<>();
+        int correlationId = requestId;
+        pending.put(correlationId, future);
+        future.whenComplete((response, error) -> pending.remove(correlationId, future));
+
+        writeLock.lock();
+        try {
+            DataOutputStream output = connect();
+            output.writeInt(body.length);
+            output.writeInt(requestId);
+            output.writeShort(BinaryProtocol.actionCode(action));
+            output.write(body);
+            output.flush();
+        } catch (IOException e) {
+            pending.remove(requestId);
+            disconnect(e);
+            throw e;
+        } finally {
+            writeLock.unlock();
+        }
+        return future;
+    }
+
+    private DataOutputStream connect() throws IOException {
+        connectLock.lock();
+        try {
+            if (socket != null && !socket.isClosed()) {
+                return out;
+            }
+            Socket newSocket = new Socket(host, port);
+            newSocket.setTcpNoDelay(true);
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(newSocket.getOutputStream()));
+            DataInputStream input = new DataInputStream(new BufferedInputStream(newSocket.getInputStream()));
+            output.write(BinaryProtocol.PREAMBLE);
+            output.flush();
+            byte[] echo = new byte[BinaryProtocol.PREAMBLE.length];
+            input.readFully(echo);
+            if (!Arrays.equals(echo, BinaryProtocol.PREAMBLE)) {
+                newSocket.close();
+                throw new IOException("Server does not speak the binary protocol");
+            }
+            socket = newSocket;
+            out = output;
+            Thread reader = new Thread(() -> readLoop(newSocket, input), "gawe-client-reader");
+            reader.setDaemon(true);
+            reader.start();
+            logger.info("Connected to GAWE server at " + host + ":" + port);
+            return out;
+        } finally {
+            connectLock.unlock();
+        }
+    }
+
+    private void readLoop(Socket source, DataInputStream input) {
+        try {
+            while (true) {
+                int length = input.readInt();
+                int requestId = input.readInt();
+                input.readShort();
+                if (length < 0 || length > BinaryProtocol.MAX_PAYLOAD_SIZE) {
+                    throw new IOException("Invalid frame length: " + length);
+                }
+                byte[] body = new byte[length];
+                input.readFully(body);
+                JsonObject response = JsonParser.parseString(new String(body, StandardCharsets.UTF_8)).getAsJsonObject();
+
+                CompletableFuture<JsonObject> future = requestId != 0 ? pending.remove(requestId) : null;
+                if (future != null) {
+                    future.complete(response);
+                } else if (requestId == 0 && eventListener != null) {
+                    eventListener.accept(response);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            if (socket == source) {
+                disconnect(e instanceof IOException ? (IOException) e : new IOException(e));
+            }
+        }
+    }
+
+    private void disconnect(IOException cause) {
+        connectLock.lock();
+        try {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    logger.warning("Error closing server connection: " + e.getMessage());
+                }
+                socket = null;
+                out = null;
+            }
+        } finally {
+            connectLock.unlock();
+        }
+        for (Integer requestId : pending.keySet()) {
+            CompletableFuture<JsonObject> future = pending.remove(requestId);
+            if (future != null) {
+                future.completeExceptionally(cause);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        disconnect(new IOException("Client closed"));
+    }
+}
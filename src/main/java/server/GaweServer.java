@@ -1,11 +1,15 @@
 package server;
 
+import database.DatabaseConfig;
+import database.DatabaseConnection;
 import data.MySQLDataStore;
 import data.DataStoreFactory;
 import com.google.gson.Gson;
 import java.io.IOException;
+import java.lang.reflect.Method;
 import java.net.ServerSocket;
 import java.net.Socket;
+import java.nio.file.Paths;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.logging.Logger;
@@ -16,28 +20,84 @@ import java.util.logging.Logger;
  */
 public class GaweServer {
     private static final Logger logger = Logger.getLogger(GaweServer.class.getName());
-    private static final int PORT = 8080;
+    public static final int PORT = 8080;
     private static final int THREAD_POOL_SIZE = 10;
-    
+    private static final int REQUEST_POOL_SIZE = 20;
+    private static final int NIO_IO_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
+    /**
+     * Transport used to serve client connections.
+     * BLOCKING pins one pool thread per socket, NIO multiplexes sockets on a few selector threads,
+     * VIRTUAL keeps the blocking handler but runs each connection on its own virtual thread (JDK 21+).
+     */
+    public enum Mode {
+        BLOCKING, NIO, VIRTUAL
+    }
+
     private ServerSocket serverSocket;
+    private NioServer nioServer;
+    private VirtualThreadMonitor virtualThreadMonitor;
     private ExecutorService threadPool;
+    private ExecutorService requestPool;
     private Gson gson;
     private boolean isRunning = false;
     private final MySQLDataStore dataStore;
+    private final Mode mode;
 
     public GaweServer() {
-        this.threadPool = Executors.newFixedThreadPool(THREAD_POOL_SIZE);
-        this.gson = new Gson();
+        this(Mode.BLOCKING);
+    }
+
+    public GaweServer(Mode mode) {
+        ExecutorService virtualExecutor = mode == Mode.VIRTUAL ? newVirtualThreadExecutor() : null;
+        if (mode == Mode.VIRTUAL && virtualExecutor == null) {
+            logger.warning("Virtual threads require JDK 21+, falling back to BLOCKING mode");
+            mode = Mode.BLOCKING;
+        }
+        this.mode = mode;
+        this.threadPool = virtualExecutor != null ? virtualExecutor : Executors.newFixedThreadPool(THREAD_POOL_SIZE);
+        // Pipelined requests need their own pool: connection threads block on it and must not starve it
+        this.requestPool = virtualExecutor != null ? newVirtualThreadExecutor() : Executors.newFixedThreadPool(REQUEST_POOL_SIZE);
+        this.gson = ProtocolTypeAdapters.createGson();
+        // Virtual threads have no worker bound, so the pool is sized by cores alone
+        int workers = virtualExecutor != null ? Integer.MAX_VALUE : THREAD_POOL_SIZE + REQUEST_POOL_SIZE;
+        DatabaseConnection.configurePoolSize(DatabaseConfig.serverPoolSize(workers));
         this.dataStore = DataStoreFactory.getMySQLDataStore();
+        this.dataStore.addChangeListener(SubscriptionHub.getInstance()::publish);
+        // Every client clocks in within the same few minutes; absorb that through the write-behind queue
+        this.dataStore.enableAttendanceQueue(Paths.get(System.getProperty("gawe.attendance.queueDir",
+                Paths.get(System.getProperty("user.home"), ".gawe", "attendance-queue").toString())));
+    }
+
+    /**
+     * Looks up Executors.newVirtualThreadPerTaskExecutor reflectively so the server
+     * still compiles and runs on JDK 17; returns null when virtual threads are unavailable.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
     }
 
     public void start() {
+        if (mode == Mode.NIO) {
+            startNio();
+            return;
+        }
         try {
             
             serverSocket = new ServerSocket(PORT);
             isRunning = true;
+
+            if (mode == Mode.VIRTUAL) {
+                virtualThreadMonitor = new VirtualThreadMonitor();
+                virtualThreadMonitor.start();
+            }
             
-            logger.info("GAWE Server started on port " + PORT + " with MySQL database");
+            logger.info("GAWE Server started on port " + PORT + " with MySQL database (" + mode + " mode)");
             logger.info("Waiting for client connections...");
             
             while (isRunning) {
@@ -46,7 +106,7 @@ public class GaweServer {
                     logger.info("New client connected: " + clientSocket.getInetAddress());
                     
                     // Handle client in thread pool
-                    threadPool.submit(new ClientHandler(clientSocket, gson));
+                    threadPool.submit(new ClientHandler(clientSocket, gson, requestPool));
                     
                 } catch (IOException e) {
                     if (isRunning) {
@@ -61,9 +121,26 @@ public class GaweServer {
         }
     }
 
+    private void startNio() {
+        try {
+            nioServer = new NioServer(PORT, NIO_IO_THREADS, threadPool, gson);
+            isRunning = true;
+            logger.info("GAWE Server started on port " + PORT + " with MySQL database (NIO transport)");
+            nioServer.start();
+        } catch (IOException e) {
+            logger.severe("Failed to start server: " + e.getMessage());
+        } finally {
+            stop();
+        }
+    }
+
     public void stop() {
         isRunning = false;
-        
+
+        if (nioServer != null) {
+            nioServer.stop();
+        }
+
         try {
             if (serverSocket != null && !serverSocket.isClosed()) {
                 serverSocket.close();
@@ -75,6 +152,14 @@ public class GaweServer {
         if (threadPool != null && !threadPool.isShutdown()) {
             threadPool.shutdown();
         }
+
+        if (requestPool != null && !requestPool.isShutdown()) {
+            requestPool.shutdown();
+        }
+
+        if (virtualThreadMonitor != null) {
+            virtualThreadMonitor.close();
+        }
         
         // Close MySQL connections
         if (dataStore != null) {
@@ -84,8 +169,26 @@ public class GaweServer {
         logger.info("GAWE Server stopped");
     }
 
+    /**
+     * Resolves the transport from a "--mode=nio|virtual" argument or the gawe.server.mode system property
+     */
+    static Mode parseMode(String[] args) {
+        String value = System.getProperty("gawe.server.mode", "blocking");
+        for (String arg : args) {
+            if (arg.startsWith("--mode=")) {
+                value = arg.substring("--mode=".length());
+            }
+        }
+        try {
+            return Mode.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            logger.warning("Unknown server mode '" + value + "', falling back to BLOCKING");
+            return Mode.BLOCKING;
+        }
+    }
+
     public static void main(String[] args) {
-        GaweServer server = new GaweServer();
+        GaweServer server = new GaweServer(parseMode(args));
         
         // Add shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
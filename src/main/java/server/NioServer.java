@@ -0,0 +1,533 @@
+package server;
+
+import com.google.gson.Gson;
+import models.ServerResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.logging.Logger;
+
+/**
+ * Non-blocking transport for GAWE server built on java.nio Selector.
+ * A few I/O threads multiplex every client connection; only complete
+ * request frames (newline-delimited JSON or BinaryProtocol frames, chosen
+ * by the first bytes of the connection) are handed to the worker pool,
+ * which runs the same dispatch logic as the blocking ClientHandler.
+ */
+public class NioServer {
+    private static final Logger logger = Logger.getLogger(NioServer.class.getName());
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+    private static final int MAX_QUEUED_FRAMES = 4 * ClientHandler.MAX_IN_FLIGHT;
+    private static final int MAX_QUEUED_WRITES = 128;
+
+    private static final int PROTOCOL_UNKNOWN = 0;
+    private static final int PROTOCOL_TEXT = 1;
+    private static final int PROTOCOL_BINARY = 2;
+
+    private final int port;
+    private final ExecutorService workerPool;
+    private final ClientHandler dispatcher;
+    private final IoLoop[] ioLoops;
+    private final AtomicInteger openConnections = new AtomicInteger();
+
+    private ServerSocketChannel serverChannel;
+    private Selector acceptSelector;
+    private volatile boolean isRunning = false;
+    private int nextLoop = 0;
+
+    public NioServer(int port, int ioThreads, ExecutorService workerPool, Gson gson) {
+        this.port = port;
+        this.workerPool = workerPool;
+        this.dispatcher = new ClientHandler(gson);
+        this.ioLoops = new IoLoop[Math.max(1, ioThreads)];
+    }
+
+    /**
+     * Binds the server channel and runs the accept loop on the calling thread
+     * until {@link #stop()} is called.
+     */
+    public void start() throws IOException {
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.configureBlocking(false);
+        serverChannel.bind(new InetSocketAddress(port), 1024);
+        acceptSelector = Selector.open();
+        serverChannel.register(acceptSelector, SelectionKey.OP_ACCEPT);
+
+        for (int i = 0; i < ioLoops.length; i++) {
+            ioLoops[i] = new IoLoop();
+            Thread thread = new Thread(ioLoops[i], "gawe-nio-io-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        isRunning = true;
+        logger.info("GAWE NIO transport listening on port " + port + " with " + ioLoops.length + " I/O threads");
+
+        while (isRunning) {
+            try {
+                acceptSelector.select();
+                Iterator<SelectionKey> keys = acceptSelector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    if (key.isValid() && key.isAcceptable()) {
+                        accept();
+                    }
+                }
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (IOException e) {
+                if (isRunning) {
+                    logger.warning("Error accepting client connection: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void accept() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.socket().setTcpNoDelay(true);
+            IoLoop loop = ioLoops[nextLoop];
+            nextLoop = (nextLoop + 1) % ioLoops.length;
+            Connection conn = new Connection(channel, loop);
+            conn.pushChannel = event -> push(conn, event);
+            loop.register(conn);
+            openConnections.incrementAndGet();
+        }
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    public void stop() {
+        isRunning = false;
+        try {
+            if (acceptSelector != null) {
+                acceptSelector.close();
+            }
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException e) {
+            logger.warning("Error closing server channel: " + e.getMessage());
+        }
+        for (IoLoop loop : ioLoops) {
+            if (loop != null) {
+                loop.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Starts queued frames of a connection while its in-flight window has room.
+     * Pipelined frames (those with a correlation id) run concurrently and answer as
+     * they complete; an ordered frame waits for everything before it and holds back
+     * everything after it, so clients without correlation ids see strict ordering.
+     */
+    private void schedule(Connection conn) {
+        boolean resume = false;
+        synchronized (conn) {
+            while (!conn.frames.isEmpty() && conn.inFlight < ClientHandler.MAX_IN_FLIGHT && !conn.orderedRunning) {
+                Frame next = conn.frames.peek();
+                if (next.ordered && conn.inFlight > 0) {
+                    break;
+                }
+                conn.frames.poll();
+                conn.inFlight++;
+                conn.orderedRunning = next.ordered;
+                workerPool.submit(() -> complete(conn, next));
+            }
+            if (conn.readSuspended && conn.frames.size() < MAX_QUEUED_FRAMES / 2) {
+                conn.readSuspended = false;
+                resume = true;
+            }
+        }
+        if (resume) {
+            conn.loop.requestResume(conn);
+        }
+    }
+
+    /**
+     * Runs a frame and queues its response. A frame that throws is answered with an error
+     * response for its request instead, and always gives its in-flight slot back.
+     */
+    private void complete(Connection conn, Frame frame) {
+        try {
+            ByteBuffer response;
+            try {
+                response = frame.task.get();
+            } catch (RuntimeException e) {
+                logger.warning("Request failed while answering, sending an error response: " + e);
+                response = frame.failure.apply(e);
+            }
+            conn.writes.add(response);
+            conn.loop.requestWrite(conn);
+        } finally {
+            synchronized (conn) {
+                conn.inFlight--;
+                if (frame.ordered) {
+                    conn.orderedRunning = false;
+                }
+            }
+            schedule(conn);
+        }
+    }
+
+    /**
+     * Queues a pushed change event on the connection; never blocks the publishing thread
+     */
+    private boolean push(Connection conn, ServerResponse event) {
+        if (!conn.channel.isOpen() || conn.protocol == PROTOCOL_UNKNOWN || conn.writes.size() >= MAX_QUEUED_WRITES) {
+            return false;
+        }
+        conn.writes.add(dispatcher.encodePush(event, conn.protocol == PROTOCOL_BINARY));
+        conn.loop.requestWrite(conn);
+        return true;
+    }
+
+    private void onTextFrame(Connection conn, String frame) {
+        // Only a cheap substring check runs on the I/O thread; JSON decoding happens on the worker
+        boolean ordered = !frame.contains("\"requestId\"");
+        onFrame(conn, new Frame(ordered, () -> {
+            String response = dispatcher.processRequest(frame, conn.pushChannel);
+            return ByteBuffer.wrap((response + "\n").getBytes(StandardCharsets.UTF_8));
+        }, e -> ByteBuffer.wrap((dispatcher.errorLine(frame, e) + "\n").getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private void onBinaryFrame(Connection conn, int requestId, short actionCode, ByteBuffer payload) {
+        onFrame(conn, new Frame(requestId == 0, () -> {
+            try {
+                return dispatcher.processBinaryFrame(requestId, actionCode, payload, conn.pushChannel);
+            } finally {
+                BinaryProtocol.BUFFERS.release(payload);
+            }
+        }, e -> dispatcher.errorFrame(requestId, actionCode, e)));
+    }
+
+    /**
+     * Called on the I/O thread; stops reading from a client that queues more than it lets us answer
+     */
+    private void onFrame(Connection conn, Frame frame) {
+        synchronized (conn) {
+            conn.frames.add(frame);
+            if (conn.frames.size() >= MAX_QUEUED_FRAMES && !conn.readSuspended) {
+                conn.readSuspended = true;
+                conn.key.interestOps(conn.key.interestOps() & ~SelectionKey.OP_READ);
+            }
+        }
+        schedule(conn);
+    }
+
+    private static final class Frame {
+        final boolean ordered;
+        final Supplier<ByteBuffer> task;
+        // Error response for the frame's request when task throws
+        final Function<RuntimeException, ByteBuffer> failure;
+
+        Frame(boolean ordered, Supplier<ByteBuffer> task, Function<RuntimeException, ByteBuffer> failure) {
+            this.ordered = ordered;
+            this.task = task;
+            this.failure = failure;
+        }
+    }
+
+    /**
+     * Per-connection state. Holds no buffer while the client is idle; a partial
+     * frame is only copied out of the shared read buffer when it spans reads.
+     */
+    private static final class Connection {
+        final SocketChannel channel;
+        final IoLoop loop;
+        final Queue<Frame> frames = new ArrayDeque<>();
+        final Queue<ByteBuffer> writes = new ConcurrentLinkedQueue<>();
+        volatile int protocol = PROTOCOL_UNKNOWN;
+        SelectionKey key;
+        SubscriptionHub.Channel pushChannel;
+
+        // Guarded by the connection monitor
+        int inFlight;
+        boolean orderedRunning;
+        boolean readSuspended;
+
+        // Text protocol: bytes of a request line that spans reads
+        ByteArrayOutputStream partial;
+
+        // Binary protocol: preamble progress, current header and pooled payload buffer
+        int preambleRead;
+        ByteBuffer header;
+        ByteBuffer payload;
+        int requestId;
+        short actionCode;
+
+        Connection(SocketChannel channel, IoLoop loop) {
+            this.channel = channel;
+            this.loop = loop;
+        }
+    }
+
+    private final class IoLoop implements Runnable {
+        private final Selector selector;
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+        private final Queue<Connection> pendingRegistrations = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> pendingResumes = new ConcurrentLinkedQueue<>();
+        private volatile boolean running = true;
+
+        IoLoop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        void register(Connection conn) {
+            pendingRegistrations.add(conn);
+            selector.wakeup();
+        }
+
+        void requestWrite(Connection conn) {
+            pendingWrites.add(conn);
+            selector.wakeup();
+        }
+
+        void requestResume(Connection conn) {
+            pendingResumes.add(conn);
+            selector.wakeup();
+        }
+
+        void shutdown() {
+            running = false;
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (running) {
+                    selector.select();
+                    processPending();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection conn = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                read(conn);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                write(conn);
+                            }
+                        } catch (IOException e) {
+                            logger.warning("Client disconnected: " + e.getMessage());
+                            close(conn);
+                        }
+                    }
+                }
+            } catch (IOException | ClosedSelectorException e) {
+                logger.warning("NIO I/O loop stopped: " + e.getMessage());
+            } finally {
+                for (SelectionKey key : selector.keys()) {
+                    if (key.attachment() instanceof Connection) {
+                        close((Connection) key.attachment());
+                    }
+                }
+                try {
+                    selector.close();
+                } catch (IOException e) {
+                    logger.warning("Error closing selector: " + e.getMessage());
+                }
+            }
+        }
+
+        private void processPending() {
+            Connection conn;
+            while ((conn = pendingRegistrations.poll()) != null) {
+                try {
+                    conn.key = conn.channel.register(selector, SelectionKey.OP_READ, conn);
+                } catch (IOException e) {
+                    logger.warning("Error registering client channel: " + e.getMessage());
+                    close(conn);
+                }
+            }
+            while ((conn = pendingWrites.poll()) != null) {
+                if (conn.key != null && conn.key.isValid()) {
+                    conn.key.interestOps(conn.key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            }
+            while ((conn = pendingResumes.poll()) != null) {
+                synchronized (conn) {
+                    if (!conn.readSuspended && conn.key != null && conn.key.isValid()) {
+                        conn.key.interestOps(conn.key.interestOps() | SelectionKey.OP_READ);
+                    }
+                }
+            }
+        }
+
+        private void read(Connection conn) throws IOException {
+            readBuffer.clear();
+            int n = conn.channel.read(readBuffer);
+            if (n < 0) {
+                close(conn);
+                return;
+            }
+            readBuffer.flip();
+            if (!readBuffer.hasRemaining()) {
+                return;
+            }
+
+            if (conn.protocol == PROTOCOL_UNKNOWN) {
+                conn.protocol = BinaryProtocol.isPreambleStart(readBuffer.get(readBuffer.position()))
+                        ? PROTOCOL_BINARY : PROTOCOL_TEXT;
+            }
+            if (conn.protocol == PROTOCOL_BINARY) {
+                readBinary(conn);
+            } else {
+                readText(conn);
+            }
+        }
+
+        private void readText(Connection conn) throws IOException {
+            int start = readBuffer.position();
+            for (int i = start; i < readBuffer.limit(); i++) {
+                if (readBuffer.get(i) != '\n') {
+                    continue;
+                }
+                ByteBuffer slice = readBuffer.duplicate();
+                slice.position(start).limit(i);
+                String frame;
+                if (conn.partial != null) {
+                    appendPartial(conn, slice);
+                    frame = conn.partial.toString(StandardCharsets.UTF_8);
+                    conn.partial = null;
+                } else {
+                    frame = StandardCharsets.UTF_8.decode(slice).toString();
+                }
+                if (!frame.isBlank()) {
+                    onTextFrame(conn, frame);
+                }
+                start = i + 1;
+            }
+
+            if (start < readBuffer.limit()) {
+                ByteBuffer rest = readBuffer.duplicate();
+                rest.position(start);
+                if (conn.partial == null) {
+                    conn.partial = new ByteArrayOutputStream(rest.remaining());
+                }
+                appendPartial(conn, rest);
+                if (conn.partial.size() > MAX_FRAME_SIZE) {
+                    throw new IOException("Request frame exceeds " + MAX_FRAME_SIZE + " bytes");
+                }
+            }
+        }
+
+        private void readBinary(Connection conn) throws IOException {
+            while (readBuffer.hasRemaining()) {
+                if (conn.preambleRead < BinaryProtocol.PREAMBLE.length) {
+                    if (readBuffer.get() != BinaryProtocol.PREAMBLE[conn.preambleRead++]) {
+                        throw new IOException("Unsupported protocol preamble");
+                    }
+                    if (conn.preambleRead == BinaryProtocol.PREAMBLE.length) {
+                        conn.writes.add(ByteBuffer.wrap(BinaryProtocol.PREAMBLE.clone()));
+                        conn.key.interestOps(conn.key.interestOps() | SelectionKey.OP_WRITE);
+                    }
+                    continue;
+                }
+
+                if (conn.payload == null) {
+                    if (conn.header == null) {
+                        conn.header = ByteBuffer.allocate(BinaryProtocol.HEADER_SIZE);
+                    }
+                    transfer(readBuffer, conn.header);
+                    if (conn.header.hasRemaining()) {
+                        return;
+                    }
+                    conn.header.flip();
+                    int length = conn.header.getInt();
+                    conn.requestId = conn.header.getInt();
+                    conn.actionCode = conn.header.getShort();
+                    conn.header.clear();
+                    if (length < 0 || length > BinaryProtocol.MAX_PAYLOAD_SIZE) {
+                        throw new IOException("Invalid frame length: " + length);
+                    }
+                    conn.payload = BinaryProtocol.BUFFERS.acquire(length);
+                    conn.payload.limit(length);
+                }
+
+                transfer(readBuffer, conn.payload);
+                if (!conn.payload.hasRemaining()) {
+                    conn.payload.flip();
+                    onBinaryFrame(conn, conn.requestId, conn.actionCode, conn.payload);
+                    conn.payload = null;
+                }
+            }
+        }
+
+        private void transfer(ByteBuffer from, ByteBuffer to) {
+            int n = Math.min(from.remaining(), to.remaining());
+            ByteBuffer chunk = from.duplicate();
+            chunk.limit(chunk.position() + n);
+            to.put(chunk);
+            from.position(from.position() + n);
+        }
+
+        private void appendPartial(Connection conn, ByteBuffer bytes) {
+            byte[] chunk = new byte[bytes.remaining()];
+            bytes.get(chunk);
+            conn.partial.write(chunk, 0, chunk.length);
+        }
+
+        private void write(Connection conn) throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = conn.writes.peek()) != null) {
+                conn.channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                BinaryProtocol.BUFFERS.release(conn.writes.poll());
+            }
+            conn.key.interestOps(conn.key.interestOps() & ~SelectionKey.OP_WRITE);
+            // A worker may have queued a response after the loop above drained the queue
+            if (!conn.writes.isEmpty()) {
+                conn.key.interestOps(conn.key.interestOps() | SelectionKey.OP_WRITE);
+            }
+        }
+
+        private void close(Connection conn) {
+            if (conn.key != null) {
+                conn.key.cancel();
+            }
+            try {
+                if (conn.channel.isOpen()) {
+                    conn.channel.close();
+                    openConnections.decrementAndGet();
+                }
+            } catch (IOException e) {
+                logger.warning("Error closing client channel: " + e.getMessage());
+            }
+            SubscriptionHub.getInstance().unsubscribeAll(conn.pushChannel);
+            conn.partial = null;
+            conn.writes.clear();
+            if (conn.payload != null) {
+                BinaryProtocol.BUFFERS.release(conn.payload);
+                conn.payload = null;
+            }
+        }
+    }
+}
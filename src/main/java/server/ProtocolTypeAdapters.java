@@ -0,0 +1,1246 @@
+package server;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import models.Employee;
+import models.HistoryQuery;
+import models.RequestPayloads;
+import models.ServerRequest;
+import models.ServerResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written streaming Gson adapters for the server protocol.
+ *
+ * ServerRequest "data" is decoded straight into the typed payload of its action,
+ * so the hot path no longer builds a LinkedTreeMap of boxed Doubles or walks
+ * fields reflectively. Requests for actions without a payload class keep the
+ * untyped data map.
+ */
+public class ProtocolTypeAdapters implements TypeAdapterFactory {
+
+    /** Payload class per action; actions missing here carry no data or keep the data map */
+    static final Map<String, Class<?>> PAYLOAD_TYPES = new HashMap<>();
+
+    static {
+
+        PAYLOAD_TYPES.put("login", RequestPayloads.Login.class);
+        PAYLOAD_TYPES.put("updateKPI", RequestPayloads.UpdateKpi.class);
+        PAYLOAD_TYPES.put("saveKPIs", RequestPayloads.SaveKpis.class);
+        PAYLOAD_TYPES.put("uploadReport", RequestPayloads.UploadReport.class);
+        PAYLOAD_TYPES.put("evaluateEmployee", RequestPayloads.EvaluateEmployee.class);
+        PAYLOAD_TYPES.put("saveMonthlyEvaluation", RequestPayloads.MonthlyEvaluation.class);
+        PAYLOAD_TYPES.put("getAttendance", RequestPayloads.EmployeeQuery.class);
+        PAYLOAD_TYPES.put("saveAttendance", RequestPayloads.SaveAttendance.class);
+        PAYLOAD_TYPES.put("saveMeeting", RequestPayloads.SaveMeeting.class);
+        PAYLOAD_TYPES.put("saveLeaveRequest", RequestPayloads.SaveLeaveRequest.class);
+        PAYLOAD_TYPES.put("approveLeaveRequest", RequestPayloads.ApproveLeaveRequest.class);
+        PAYLOAD_TYPES.put("approveLeaveRequests", RequestPayloads.ApproveLeaveRequests.class);
+        PAYLOAD_TYPES.put("batch", RequestPayloads.Batch.class);
+        PAYLOAD_TYPES.put("subscribe", RequestPayloads.Subscribe.class);
+        PAYLOAD_TYPES.put("unsubscribe", RequestPayloads.Subscribe.class);
+        PAYLOAD_TYPES.put("getMeetings", RequestPayloads.EmployeeQuery.class);
+        PAYLOAD_TYPES.put("getLeaveRequests", RequestPayloads.EmployeeQuery.class);
+        PAYLOAD_TYPES.put("getSalaryHistory", RequestPayloads.EmployeeQuery.class);
+        PAYLOAD_TYPES.put("getEmployee", RequestPayloads.EmployeeQuery.class);
+        PAYLOAD_TYPES.put("getEmployeesByDivision", RequestPayloads.DivisionQuery.class);
+        PAYLOAD_TYPES.put("updateEmployee", Employee.class);
+        PAYLOAD_TYPES.put("addEmployee", Employee.class);
+        PAYLOAD_TYPES.put("getReportsByDivision", RequestPayloads.DivisionQuery.class);
+        PAYLOAD_TYPES.put("updateReportStatus", RequestPayloads.UpdateReportStatus.class);
+        PAYLOAD_TYPES.put("getReportContent", RequestPayloads.ReportQuery.class);
+        PAYLOAD_TYPES.put("search", RequestPayloads.SearchQuery.class);
+        PAYLOAD_TYPES.put("runPayroll", RequestPayloads.RunPayroll.class);
+        PAYLOAD_TYPES.put("updateProfile", RequestPayloads.UpdateProfile.class);
+        PAYLOAD_TYPES.put("getTodayAttendance", RequestPayloads.EmployeeQuery.class);
+        PAYLOAD_TYPES.put("clockOut", RequestPayloads.ClockOut.class);
+        PAYLOAD_TYPES.put("getLeaveRequestsForApproval", RequestPayloads.EmployeeQuery.class);
+        PAYLOAD_TYPES.put("getPendingLeaveRequestsByEmployee", RequestPayloads.EmployeeQuery.class);
+        PAYLOAD_TYPES.put("hasMonthlyEvaluation", RequestPayloads.MonthlyEvaluationQuery.class);
+        PAYLOAD_TYPES.put("getMonthlyEvaluationsBySupervisor", RequestPayloads.EmployeeQuery.class);
+        PAYLOAD_TYPES.put("getAllMeetings", HistoryQuery.class);
+        PAYLOAD_TYPES.put("getAllAttendance", HistoryQuery.class);
+        PAYLOAD_TYPES.put("getAllLeaveRequests", HistoryQuery.class);
+        PAYLOAD_TYPES.put("getAllSalaryHistory", HistoryQuery.class);
+        PAYLOAD_TYPES.put("getAllEvaluations", HistoryQuery.class);
+    }
+
+    /**
+     * Creates the Gson instance shared by the server transports and RemoteDataStore, with these
+     * adapters registered. Dates travel as epoch milliseconds, like the date fields of the payloads.
+     */
+    public static Gson createGson() {
+        return new GsonBuilder()
+                .registerTypeAdapterFactory(new ProtocolTypeAdapters())
+                .registerTypeHierarchyAdapter(Date.class, new DateAdapter().nullSafe())
+                .create();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        Class<? super T> raw = type.getRawType();
+        if (raw == ServerRequest.class) {
+            return (TypeAdapter<T>) new ServerRequestAdapter(gson);
+        }
+        if (raw == ServerResponse.class) {
+            return (TypeAdapter<T>) new ServerResponseAdapter(gson);
+        }
+        if (raw == Employee.class) {
+            return (TypeAdapter<T>) new EmployeeAdapter(false);
+        }
+        if (raw == RequestPayloads.Login.class) {
+            return (TypeAdapter<T>) new LoginAdapter();
+        }
+        if (raw == RequestPayloads.UpdateKpi.class) {
+            return (TypeAdapter<T>) new UpdateKpiAdapter();
+        }
+        if (raw == RequestPayloads.UploadReport.class) {
+            return (TypeAdapter<T>) new UploadReportAdapter();
+        }
+        if (raw == RequestPayloads.EvaluateEmployee.class) {
+            return (TypeAdapter<T>) new EvaluateEmployeeAdapter();
+        }
+        if (raw == RequestPayloads.MonthlyEvaluation.class) {
+            return (TypeAdapter<T>) new MonthlyEvaluationAdapter();
+        }
+        if (raw == RequestPayloads.EmployeeQuery.class) {
+            return (TypeAdapter<T>) new EmployeeQueryAdapter();
+        }
+        if (raw == RequestPayloads.SaveAttendance.class) {
+            return (TypeAdapter<T>) new SaveAttendanceAdapter();
+        }
+        if (raw == RequestPayloads.SaveMeeting.class) {
+            return (TypeAdapter<T>) new SaveMeetingAdapter();
+        }
+        if (raw == RequestPayloads.SaveLeaveRequest.class) {
+            return (TypeAdapter<T>) new SaveLeaveRequestAdapter();
+        }
+        if (raw == RequestPayloads.ApproveLeaveRequest.class) {
+            return (TypeAdapter<T>) new ApproveLeaveRequestAdapter();
+        }
+        if (raw == RequestPayloads.Batch.class) {
+            return (TypeAdapter<T>) new BatchAdapter(gson);
+        }
+        if (raw == RequestPayloads.Subscribe.class) {
+            return (TypeAdapter<T>) new SubscribeAdapter();
+        }
+        if (raw == RequestPayloads.DivisionQuery.class) {
+            return (TypeAdapter<T>) new DivisionQueryAdapter();
+        }
+        if (raw == RequestPayloads.UpdateReportStatus.class) {
+            return (TypeAdapter<T>) new UpdateReportStatusAdapter();
+        }
+        if (raw == RequestPayloads.ClockOut.class) {
+            return (TypeAdapter<T>) new ClockOutAdapter();
+        }
+        if (raw == RequestPayloads.MonthlyEvaluationQuery.class) {
+            return (TypeAdapter<T>) new MonthlyEvaluationQueryAdapter();
+        }
+        return null;
+    }
+
+    /**
+     * Reads a ServerRequest, decoding "data" into the payload class of its action. When
+     * "data" arrives before "action" the value is buffered as a tree and bound afterwards.
+     */
+    static final class ServerRequestAdapter extends TypeAdapter<ServerRequest> {
+        private final Gson gson;
+        private final TypeAdapter<Map<String, Object>> mapAdapter;
+
+        ServerRequestAdapter(Gson gson) {
+            this.gson = gson;
+            this.mapAdapter = gson.getAdapter(new TypeToken<Map<String, Object>>() {});
+        }
+
+        @Override
+        public void write(JsonWriter out, ServerRequest value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("action").value(value.getAction());
+            if (value.getPayload() != null) {
+                out.name("data");
+                writePayload(out, value.getPayload());
+            } else if (value.getData() != null) {
+                out.name("data");
+                mapAdapter.write(out, value.getData());
+            }
+            out.name("userId").value(value.getUserId());
+            if (value.getRequestId() != null) {
+                out.name("requestId").value(value.getRequestId());
+            }
+            if (value.getSessionToken() != null) {
+                out.name("sessionToken").value(value.getSessionToken());
+            }
+            out.endObject();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void writePayload(JsonWriter out, Object payload) throws IOException {
+            if (payload instanceof Employee) {
+                // addEmployee and updateEmployee carry the password the user typed
+                new EmployeeAdapter(true).write(out, (Employee) payload);
+                return;
+            }
+            ((TypeAdapter<Object>) gson.getAdapter(payload.getClass())).write(out, payload);
+        }
+
+        @Override
+        public ServerRequest read(JsonReader in) throws IOException {
+            return read(in, null);
+        }
+
+        /**
+         * Reads a request; actionHint names the action when it travels outside the JSON,
+         * as with the binary protocol's action code.
+         */
+        ServerRequest read(JsonReader in, String actionHint) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ServerRequest request = new ServerRequest();
+            request.setAction(actionHint);
+            JsonElement buffered = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "action":
+                        String action = nextString(in);
+                        if (actionHint == null) {
+                            request.setAction(action);
+                        }
+                        break;
+                    case "userId":
+                        request.setUserId(nextString(in));
+                        break;
+                    case "requestId":
+                        request.setRequestId(nextString(in));
+                        break;
+                    case "sessionToken":
+                        request.setSessionToken(nextString(in));
+                        break;
+                    case "data":
+                        if (request.getAction() != null) {
+                            readData(in, request);
+                        } else {
+                            buffered = JsonParser.parseReader(in);
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            if (buffered != null && !buffered.isJsonNull()) {
+                Class<?> type = PAYLOAD_TYPES.get(request.getAction());
+                if (type != null) {
+                    request.setPayload(gson.getAdapter(type).fromJsonTree(buffered));
+                } else {
+                    request.setData(mapAdapter.fromJsonTree(buffered));
+                }
+            }
+            return request;
+        }
+
+        private void readData(JsonReader in, ServerRequest request) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return;
+            }
+            Class<?> type = PAYLOAD_TYPES.get(request.getAction());
+            if (type != null) {
+                request.setPayload(gson.getAdapter(type).read(in));
+            } else {
+                request.setData(mapAdapter.read(in));
+            }
+        }
+    }
+
+    /**
+     * Writes the response envelope directly; the data object is written with the adapter
+     * of its runtime type.
+     */
+    static final class ServerResponseAdapter extends TypeAdapter<ServerResponse> {
+        private final Gson gson;
+
+        ServerResponseAdapter(Gson gson) {
+            this.gson = gson;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(JsonWriter out, ServerResponse value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("status").value(value.getStatus());
+            out.name("message").value(value.getMessage());
+            if (value.getData() != null) {
+                out.name("data");
+                ((TypeAdapter<Object>) gson.getAdapter(value.getData().getClass())).write(out, value.getData());
+            }
+            if (value.getRequestId() != null) {
+                out.name("requestId").value(value.getRequestId());
+            }
+            if (value.getSessionToken() != null) {
+                out.name("sessionToken").value(value.getSessionToken());
+            }
+            out.endObject();
+        }
+
+        @Override
+        public ServerResponse read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            ServerResponse response = new ServerResponse();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "status":
+                        response.setStatus(nextString(in));
+                        break;
+                    case "message":
+                        response.setMessage(nextString(in));
+                        break;
+                    case "requestId":
+                        response.setRequestId(nextString(in));
+                        break;
+                    case "sessionToken":
+                        response.setSessionToken(nextString(in));
+                        break;
+                    case "data":
+                        response.setData(gson.getAdapter(Object.class).read(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return response;
+        }
+    }
+
+    // Token helpers: JSON null leaves the field at its default
+
+    private static String nextString(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        return in.nextString();
+    }
+
+    private static boolean isNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    private static List<String> nextStringList(JsonReader in) throws IOException {
+        if (isNull(in)) {
+            return null;
+        }
+        List<String> values = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            values.add(nextString(in));
+        }
+        in.endArray();
+        return values;
+    }
+
+
+    /**
+     * Employees as sent in responses and pushed events never carry the password; only request
+     * payloads write it, through an adapter created with writePassword set
+     */
+    static final class EmployeeAdapter extends TypeAdapter<Employee> {
+        private final boolean writePassword;
+
+        EmployeeAdapter(boolean writePassword) {
+            this.writePassword = writePassword;
+        }
+
+        @Override
+        public void write(JsonWriter out, Employee value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(value.getId());
+            out.name("nama").value(value.getNama());
+            if (writePassword) {
+                out.name("password").value(value.getPassword());
+            }
+            out.name("role").value(value.getRole());
+            out.name("divisi").value(value.getDivisi());
+            out.name("jabatan").value(value.getJabatan());
+            if (value.getTglMasuk() != null) {
+                out.name("tglMasuk").value(value.getTglMasuk().getTime());
+            }
+            out.name("sisaCuti").value(value.getSisaCuti());
+            out.name("gajiPokok").value(value.getGajiPokok());
+            out.name("kpiScore").value(value.getKpiScore());
+            out.name("supervisorRating").value(value.getSupervisorRating());
+            out.name("attendanceScore").value(value.getAttendanceScore());
+            out.name("overallRating").value(value.getOverallRating());
+            out.name("layoffRisk").value(value.isLayoffRisk());
+            out.endObject();
+        }
+
+        @Override
+        public Employee read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            Employee value = new Employee();
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (isNull(in)) {
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        value.setId(in.nextString());
+                        break;
+                    case "nama":
+                        value.setNama(in.nextString());
+                        break;
+                    case "password":
+                        value.setPassword(in.nextString());
+                        break;
+                    case "role":
+                        value.setRole(in.nextString());
+                        break;
+                    case "divisi":
+                        value.setDivisi(in.nextString());
+                        break;
+                    case "jabatan":
+                        value.setJabatan(in.nextString());
+                        break;
+                    case "tglMasuk":
+                        value.setTglMasuk(new Date(in.nextLong()));
+                        break;
+                    case "sisaCuti":
+                        value.setSisaCuti(in.nextInt());
+                        break;
+                    case "gajiPokok":
+                        value.setGajiPokok(in.nextDouble());
+                        break;
+                    case "kpiScore":
+                        value.setKpiScore(in.nextDouble());
+                        break;
+                    case "supervisorRating":
+                        value.setSupervisorRating(in.nextDouble());
+                        break;
+                    case "attendanceScore":
+                        value.setAttendanceScore(in.nextDouble());
+                        break;
+                    case "overallRating":
+                        value.setOverallRating(in.nextDouble());
+                        break;
+                    case "layoffRisk":
+                        value.setLayoffRisk(in.nextBoolean());
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class LoginAdapter extends TypeAdapter<RequestPayloads.Login> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.Login value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("employeeId").value(value.getEmployeeId());
+            out.name("password").value(value.getPassword());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.Login read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.Login value = new RequestPayloads.Login();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "employeeId":
+                        value.setEmployeeId(nextString(in));
+                        break;
+                    case "password":
+                        value.setPassword(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class UpdateKpiAdapter extends TypeAdapter<RequestPayloads.UpdateKpi> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.UpdateKpi value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("divisi").value(value.getDivisi());
+            out.name("bulan").value(value.getBulan());
+            out.name("tahun").value(value.getTahun());
+            out.name("score").value(value.getScore());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.UpdateKpi read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.UpdateKpi value = new RequestPayloads.UpdateKpi();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "divisi":
+                        value.setDivisi(nextString(in));
+                        break;
+                    case "bulan":
+                        if (!isNull(in)) {
+                            value.setBulan(in.nextInt());
+                        }
+                        break;
+                    case "tahun":
+                        if (!isNull(in)) {
+                            value.setTahun(in.nextInt());
+                        }
+                        break;
+                    case "score":
+                        if (!isNull(in)) {
+                            value.setScore(in.nextDouble());
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class UploadReportAdapter extends TypeAdapter<RequestPayloads.UploadReport> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.UploadReport value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("divisi").value(value.getDivisi());
+            out.name("bulan").value(value.getBulan());
+            out.name("tahun").value(value.getTahun());
+            out.name("filePath").value(value.getFilePath());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.UploadReport read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.UploadReport value = new RequestPayloads.UploadReport();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "divisi":
+                        value.setDivisi(nextString(in));
+                        break;
+                    case "bulan":
+                        if (!isNull(in)) {
+                            value.setBulan(in.nextInt());
+                        }
+                        break;
+                    case "tahun":
+                        if (!isNull(in)) {
+                            value.setTahun(in.nextInt());
+                        }
+                        break;
+                    case "filePath":
+                        value.setFilePath(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class EvaluateEmployeeAdapter extends TypeAdapter<RequestPayloads.EvaluateEmployee> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.EvaluateEmployee value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("employeeId").value(value.getEmployeeId());
+            out.name("punctualityScore").value(value.getPunctualityScore());
+            out.name("attendanceScore").value(value.getAttendanceScore());
+            out.name("overallRating").value(value.getOverallRating());
+            out.name("comments").value(value.getComments());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.EvaluateEmployee read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.EvaluateEmployee value = new RequestPayloads.EvaluateEmployee();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "employeeId":
+                        value.setEmployeeId(nextString(in));
+                        break;
+                    case "punctualityScore":
+                        if (!isNull(in)) {
+                            value.setPunctualityScore(in.nextDouble());
+                        }
+                        break;
+                    case "attendanceScore":
+                        if (!isNull(in)) {
+                            value.setAttendanceScore(in.nextDouble());
+                        }
+                        break;
+                    case "overallRating":
+                        if (!isNull(in)) {
+                            value.setOverallRating(in.nextDouble());
+                        }
+                        break;
+                    case "comments":
+                        value.setComments(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class MonthlyEvaluationAdapter extends TypeAdapter<RequestPayloads.MonthlyEvaluation> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.MonthlyEvaluation value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("employeeId").value(value.getEmployeeId());
+            out.name("month").value(value.getMonth());
+            out.name("year").value(value.getYear());
+            out.name("punctualityScore").value(value.getPunctualityScore());
+            out.name("attendanceScore").value(value.getAttendanceScore());
+            out.name("productivityScore").value(value.getProductivityScore());
+            out.name("overallRating").value(value.getOverallRating());
+            out.name("comments").value(value.getComments());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.MonthlyEvaluation read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.MonthlyEvaluation value = new RequestPayloads.MonthlyEvaluation();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "employeeId":
+                        value.setEmployeeId(nextString(in));
+                        break;
+                    case "month":
+                        if (!isNull(in)) {
+                            value.setMonth(in.nextInt());
+                        }
+                        break;
+                    case "year":
+                        if (!isNull(in)) {
+                            value.setYear(in.nextInt());
+                        }
+                        break;
+                    case "punctualityScore":
+                        if (!isNull(in)) {
+                            value.setPunctualityScore(in.nextDouble());
+                        }
+                        break;
+                    case "attendanceScore":
+                        if (!isNull(in)) {
+                            value.setAttendanceScore(in.nextDouble());
+                        }
+                        break;
+                    case "productivityScore":
+                        if (!isNull(in)) {
+                            value.setProductivityScore(in.nextDouble());
+                        }
+                        break;
+                    case "overallRating":
+                        if (!isNull(in)) {
+                            value.setOverallRating(in.nextDouble());
+                        }
+                        break;
+                    case "comments":
+                        value.setComments(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class EmployeeQueryAdapter extends TypeAdapter<RequestPayloads.EmployeeQuery> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.EmployeeQuery value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("employeeId").value(value.getEmployeeId());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.EmployeeQuery read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.EmployeeQuery value = new RequestPayloads.EmployeeQuery();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "employeeId":
+                        value.setEmployeeId(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class SaveAttendanceAdapter extends TypeAdapter<RequestPayloads.SaveAttendance> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.SaveAttendance value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("status").value(value.getStatus());
+            out.name("jamMasuk").value(value.getJamMasuk());
+            out.name("jamKeluar").value(value.getJamKeluar());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.SaveAttendance read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.SaveAttendance value = new RequestPayloads.SaveAttendance();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "status":
+                        value.setStatus(nextString(in));
+                        break;
+                    case "jamMasuk":
+                        value.setJamMasuk(nextString(in));
+                        break;
+                    case "jamKeluar":
+                        value.setJamKeluar(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class SaveMeetingAdapter extends TypeAdapter<RequestPayloads.SaveMeeting> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.SaveMeeting value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("title").value(value.getTitle());
+            out.name("description").value(value.getDescription());
+            out.name("tanggal").value(value.getTanggal());
+            out.name("waktuMulai").value(value.getWaktuMulai());
+            out.name("waktuSelesai").value(value.getWaktuSelesai());
+            out.name("lokasi").value(value.getLokasi());
+            out.name("participantIds");
+            if (value.getParticipantIds() == null) {
+                out.nullValue();
+            } else {
+                out.beginArray();
+                for (String item : value.getParticipantIds()) {
+                    out.value(item);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.SaveMeeting read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.SaveMeeting value = new RequestPayloads.SaveMeeting();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "title":
+                        value.setTitle(nextString(in));
+                        break;
+                    case "description":
+                        value.setDescription(nextString(in));
+                        break;
+                    case "tanggal":
+                        if (!isNull(in)) {
+                            value.setTanggal(in.nextLong());
+                        }
+                        break;
+                    case "waktuMulai":
+                        value.setWaktuMulai(nextString(in));
+                        break;
+                    case "waktuSelesai":
+                        value.setWaktuSelesai(nextString(in));
+                        break;
+                    case "lokasi":
+                        value.setLokasi(nextString(in));
+                        break;
+                    case "participantIds":
+                        value.setParticipantIds(nextStringList(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class SaveLeaveRequestAdapter extends TypeAdapter<RequestPayloads.SaveLeaveRequest> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.SaveLeaveRequest value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("leaveType").value(value.getLeaveType());
+            out.name("startDate").value(value.getStartDate());
+            out.name("endDate").value(value.getEndDate());
+            out.name("reason").value(value.getReason());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.SaveLeaveRequest read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.SaveLeaveRequest value = new RequestPayloads.SaveLeaveRequest();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "leaveType":
+                        value.setLeaveType(nextString(in));
+                        break;
+                    case "startDate":
+                        if (!isNull(in)) {
+                            value.setStartDate(in.nextLong());
+                        }
+                        break;
+                    case "endDate":
+                        if (!isNull(in)) {
+                            value.setEndDate(in.nextLong());
+                        }
+                        break;
+                    case "reason":
+                        value.setReason(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class ApproveLeaveRequestAdapter extends TypeAdapter<RequestPayloads.ApproveLeaveRequest> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.ApproveLeaveRequest value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("leaveRequestId").value(value.getLeaveRequestId());
+            out.name("notes").value(value.getNotes());
+            out.name("action").value(value.getAction());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.ApproveLeaveRequest read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.ApproveLeaveRequest value = new RequestPayloads.ApproveLeaveRequest();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "leaveRequestId":
+                        if (!isNull(in)) {
+                            value.setLeaveRequestId(in.nextInt());
+                        }
+                        break;
+                    case "notes":
+                        value.setNotes(nextString(in));
+                        break;
+                    case "action":
+                        value.setAction(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class BatchAdapter extends TypeAdapter<RequestPayloads.Batch> {
+        private final Gson gson;
+
+        BatchAdapter(Gson gson) {
+            this.gson = gson;
+        }
+
+        @Override
+        public void write(JsonWriter out, RequestPayloads.Batch value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("requests");
+            TypeAdapter<ServerRequest> requestAdapter = gson.getAdapter(ServerRequest.class);
+            if (value.getRequests() == null) {
+                out.nullValue();
+            } else {
+                out.beginArray();
+                for (ServerRequest item : value.getRequests()) {
+                    requestAdapter.write(out, item);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.Batch read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.Batch value = new RequestPayloads.Batch();
+            TypeAdapter<ServerRequest> requestAdapter = gson.getAdapter(ServerRequest.class);
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "requests":
+                        if (!isNull(in)) {
+                            List<ServerRequest> requests = new ArrayList<>();
+                            in.beginArray();
+                            while (in.hasNext()) {
+                                requests.add(requestAdapter.read(in));
+                            }
+                            in.endArray();
+                            value.setRequests(requests);
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class SubscribeAdapter extends TypeAdapter<RequestPayloads.Subscribe> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.Subscribe value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("topics");
+            if (value.getTopics() == null) {
+                out.nullValue();
+            } else {
+                out.beginArray();
+                for (String item : value.getTopics()) {
+                    out.value(item);
+                }
+                out.endArray();
+            }
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.Subscribe read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.Subscribe value = new RequestPayloads.Subscribe();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "topics":
+                        value.setTopics(nextStringList(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    /**
+     * Writes any java.util.Date, including java.sql.Date and Timestamp, as epoch milliseconds
+     */
+    static final class DateAdapter extends TypeAdapter<Date> {
+        @Override
+        public void write(JsonWriter out, Date value) throws IOException {
+            out.value(value.getTime());
+        }
+
+        @Override
+        public Date read(JsonReader in) throws IOException {
+            return new Date(in.nextLong());
+        }
+    }
+
+    static final class DivisionQueryAdapter extends TypeAdapter<RequestPayloads.DivisionQuery> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.DivisionQuery value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("divisi").value(value.getDivisi());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.DivisionQuery read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.DivisionQuery value = new RequestPayloads.DivisionQuery();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "divisi":
+                        value.setDivisi(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class UpdateReportStatusAdapter extends TypeAdapter<RequestPayloads.UpdateReportStatus> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.UpdateReportStatus value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("reportId").value(value.getReportId());
+            out.name("status").value(value.getStatus());
+            out.name("managerNotes").value(value.getManagerNotes());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.UpdateReportStatus read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.UpdateReportStatus value = new RequestPayloads.UpdateReportStatus();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "reportId":
+                        if (!isNull(in)) {
+                            value.setReportId(in.nextInt());
+                        }
+                        break;
+                    case "status":
+                        value.setStatus(nextString(in));
+                        break;
+                    case "managerNotes":
+                        value.setManagerNotes(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class ClockOutAdapter extends TypeAdapter<RequestPayloads.ClockOut> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.ClockOut value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("jamKeluar").value(value.getJamKeluar());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.ClockOut read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.ClockOut value = new RequestPayloads.ClockOut();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "jamKeluar":
+                        value.setJamKeluar(nextString(in));
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+
+    static final class MonthlyEvaluationQueryAdapter extends TypeAdapter<RequestPayloads.MonthlyEvaluationQuery> {
+        @Override
+        public void write(JsonWriter out, RequestPayloads.MonthlyEvaluationQuery value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("employeeId").value(value.getEmployeeId());
+            out.name("month").value(value.getMonth());
+            out.name("year").value(value.getYear());
+            out.endObject();
+        }
+
+        @Override
+        public RequestPayloads.MonthlyEvaluationQuery read(JsonReader in) throws IOException {
+            if (isNull(in)) {
+                return null;
+            }
+            RequestPayloads.MonthlyEvaluationQuery value = new RequestPayloads.MonthlyEvaluationQuery();
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "employeeId":
+                        value.setEmployeeId(nextString(in));
+                        break;
+                    case "month":
+                        if (!isNull(in)) {
+                            value.setMonth(in.nextInt());
+                        }
+                        break;
+                    case "year":
+                        if (!isNull(in)) {
+                            value.setYear(in.nextInt());
+                        }
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return value;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package server;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded LRU cache of serialized responses for read-mostly actions.
+ *
+ * Entries hold the UTF-8 JSON of a successful response without its correlation id, so
+ * a hit is answered without touching the data store or Gson. Keys have the form
+ * "action|scope", where scope is the user or parameter the response depends on;
+ * writes drop either every entry of an action or a single scope of it.
+ *
+ * A response computed while a write was in progress must not be cached, so callers take
+ * a stamp before reading the data store and put() discards the entry when any
+ * invalidation happened after that stamp.
+ */
+public class ResponseCache {
+    private static final int MAX_ENTRIES = 512;
+    private static final long TTL_MS = TimeUnit.SECONDS.toMillis(30);
+    private static final byte[] REQUEST_ID_FIELD = ",\"requestId\":".getBytes(StandardCharsets.UTF_8);
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLong invalidations = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Entry {
+        final byte[] json;
+        final long expiresAt;
+
+        Entry(byte[] json, long expiresAt) {
+            this.json = json;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private static final class Holder {
+        private static final ResponseCache INSTANCE = new ResponseCache(MAX_ENTRIES, TTL_MS);
+    }
+
+    public static ResponseCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    ResponseCache(int maxEntries, long ttlMillis) {
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+    }
+
+    static String key(String action, String scope) {
+        return scope == null ? action + "|" : action + "|" + scope;
+    }
+
+    /**
+     * Returns the cached JSON for a key, or null on a miss or an expired entry
+     */
+    public byte[] get(String key) {
+        lock.lock();
+        try {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAt >= System.currentTimeMillis()) {
+                hits.increment();
+                return entry.json;
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            misses.increment();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marker to take before computing a response that will be passed to put()
+     */
+    public long stamp() {
+        return invalidations.get();
+    }
+
+    public void put(String key, byte[] json, long stamp) {
+        lock.lock();
+        try {
+            if (invalidations.get() != stamp) {
+                return;
+            }
+            entries.put(key, new Entry(json, System.currentTimeMillis() + ttlMillis));
+            Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && eldest.hasNext()) {
+                eldest.next();
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops every cached response of an action
+     */
+    public void invalidateAction(String action) {
+        String prefix = action + "|";
+        lock.lock();
+        try {
+            invalidations.incrementAndGet();
+            entries.keySet().removeIf(key -> key.startsWith(prefix));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drops the cached response of one action for one scope
+     */
+    public void invalidate(String action, String scope) {
+        lock.lock();
+        try {
+            invalidations.incrementAndGet();
+            entries.remove(key(action, scope));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", size());
+        stats.put("hits", getHits());
+        stats.put("misses", getMisses());
+        stats.put("evictions", getEvictions());
+        stats.put("invalidations", getInvalidations());
+        return stats;
+    }
+
+    /**
+     * Appends a requestId member to a cached JSON object; the cached bytes are not modified
+     */
+    static byte[] withRequestId(byte[] json, String requestId) {
+        if (requestId == null) {
+            return json;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length + requestId.length() + 16);
+        out.write(json, 0, json.length - 1);
+        out.writeBytes(REQUEST_ID_FIELD);
+        out.writeBytes(quote(requestId).getBytes(StandardCharsets.UTF_8));
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
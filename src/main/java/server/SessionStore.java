@@ -0,0 +1,121 @@
+package server;
+
+import models.Employee;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * In-memory session store for authenticated clients.
+ * Login issues an opaque random token; every later request is checked against
+ * the token with a single hash lookup instead of re-sending the password to MySQL.
+ * Sessions expire after SESSION_TTL_MS without use.
+ */
+public class SessionStore {
+    private static final Logger logger = Logger.getLogger(SessionStore.class.getName());
+    private static final long SESSION_TTL_MS = TimeUnit.MINUTES.toMillis(30);
+    private static final long SWEEP_INTERVAL_MS = TimeUnit.MINUTES.toMillis(1);
+    private static final int TOKEN_BYTES = 32;
+
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlMillis;
+
+    /**
+     * Authenticated session bound to one employee
+     */
+    public static final class Session {
+        private final String token;
+        private final String employeeId;
+        private final String role;
+        private final String divisi;
+        private volatile long expiresAt;
+
+        Session(String token, String employeeId, String role, String divisi, long expiresAt) {
+            this.token = token;
+            this.employeeId = employeeId;
+            this.role = role;
+            this.divisi = divisi;
+            this.expiresAt = expiresAt;
+        }
+
+        public String getToken() { return token; }
+        public String getEmployeeId() { return employeeId; }
+        public String getRole() { return role; }
+        public String getDivisi() { return divisi; }
+        public long getExpiresAt() { return expiresAt; }
+    }
+
+    private static final class Holder {
+        private static final SessionStore INSTANCE = new SessionStore(SESSION_TTL_MS);
+    }
+
+    public static SessionStore getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    SessionStore(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gawe-session-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleAtFixedRate(this::purgeExpired, SWEEP_INTERVAL_MS, SWEEP_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    public Session create(Employee employee) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Session session = new Session(token, employee.getId(), employee.getRole(), employee.getDivisi(),
+                System.currentTimeMillis() + ttlMillis);
+        sessions.put(token, session);
+        return session;
+    }
+
+    /**
+     * Returns the live session for a token and extends its expiry, or null if unknown or expired
+     */
+    public Session validate(String token) {
+        if (token == null) {
+            return null;
+        }
+        Session session = sessions.get(token);
+        if (session == null) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        if (session.expiresAt < now) {
+            sessions.remove(token, session);
+            return null;
+        }
+        session.expiresAt = now + ttlMillis;
+        return session;
+    }
+
+    public void invalidate(String token) {
+        if (token != null) {
+            sessions.remove(token);
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int before = sessions.size();
+        sessions.values().removeIf(session -> session.expiresAt < now);
+        int purged = before - sessions.size();
+        if (purged > 0) {
+            logger.info("Purged " + purged + " expired sessions");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package server;
+
+import models.ChangeEvent;
+import models.ServerResponse;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Logger;
+
+/**
+ * Routes data store change events to the connections subscribed to their topic.
+ * A subscription to "kind:*" receives every scope of that kind.
+ *
+ * Events are delivered on a single background thread so a mutating request never
+ * waits on a subscriber's socket; a channel that cannot take an event is dropped.
+ */
+public class SubscriptionHub {
+    private static final Logger logger = Logger.getLogger(SubscriptionHub.class.getName());
+
+    /**
+     * A client connection able to receive pushed events
+     */
+    public interface Channel {
+        /** Queues an event for the client; returns false if the channel is closed or overloaded */
+        boolean push(ServerResponse event);
+    }
+
+    private final Map<String, Set<Channel>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Channel, Set<String>> topicsByChannel = new ConcurrentHashMap<>();
+    private final ExecutorService deliverer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "gawe-push");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class Holder {
+        private static final SubscriptionHub INSTANCE = new SubscriptionHub();
+    }
+
+    public static SubscriptionHub getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    SubscriptionHub() {
+    }
+
+    public void subscribe(Channel channel, String topic) {
+        subscribers.computeIfAbsent(topic, t -> ConcurrentHashMap.newKeySet()).add(channel);
+        topicsByChannel.computeIfAbsent(channel, c -> ConcurrentHashMap.newKeySet()).add(topic);
+    }
+
+    public void unsubscribe(Channel channel, String topic) {
+        Set<Channel> channels = subscribers.get(topic);
+        if (channels != null) {
+            channels.remove(channel);
+        }
+        Set<String> topics = topicsByChannel.get(channel);
+        if (topics != null) {
+            topics.remove(topic);
+        }
+    }
+
+    /**
+     * Removes every subscription of a channel; called when its connection closes
+     */
+    public void unsubscribeAll(Channel channel) {
+        Set<String> topics = topicsByChannel.remove(channel);
+        if (topics != null) {
+            for (String topic : topics) {
+                Set<Channel> channels = subscribers.get(topic);
+                if (channels != null) {
+                    channels.remove(channel);
+                }
+            }
+        }
+    }
+
+    public Set<String> topicsOf(Channel channel) {
+        Set<String> topics = topicsByChannel.get(channel);
+        return topics != null ? Set.copyOf(topics) : Set.of();
+    }
+
+    /**
+     * Data store change listener; returns immediately and delivers in the background
+     */
+    public void publish(ChangeEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        deliverer.execute(() -> deliver(event));
+    }
+
+    private void deliver(ChangeEvent event) {
+        ServerResponse message = new ServerResponse("event", event.getTopic(), event);
+        Set<Channel> exact = subscribers.getOrDefault(event.getTopic(), Set.of());
+        deliverTo(exact, message, Set.of());
+        int colon = event.getTopic().indexOf(':');
+        if (colon > 0) {
+            String wildcard = event.getTopic().substring(0, colon + 1) + "*";
+            deliverTo(subscribers.getOrDefault(wildcard, Set.of()), message, exact);
+        }
+    }
+
+    private void deliverTo(Set<Channel> channels, ServerResponse message, Set<Channel> alreadyDelivered) {
+        for (Channel channel : channels) {
+            if (alreadyDelivered.contains(channel)) {
+                continue;
+            }
+            boolean delivered;
+            try {
+                delivered = channel.push(message);
+            } catch (RuntimeException e) {
+                logger.warning("Error pushing event: " + e.getMessage());
+                delivered = false;
+            }
+            if (!delivered) {
+                unsubscribeAll(channel);
+            }
+        }
+    }
+}
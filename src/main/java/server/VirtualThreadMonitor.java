@@ -0,0 +1,122 @@
+package server;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Reports virtual-thread scheduler health for the VIRTUAL server mode.
+ * Carrier utilisation is sampled from the state of the scheduler's carrier
+ * threads, pinning is observed through the JFR jdk.VirtualThreadPinned event.
+ */
+public class VirtualThreadMonitor implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(VirtualThreadMonitor.class.getName());
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+    private static final long SAMPLE_INTERVAL_MS = 100;
+    private static final long REPORT_INTERVAL_MS = 60_000;
+
+    private final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+    private final ScheduledExecutorService sampler;
+    private final AtomicLong pinnedEvents = new AtomicLong();
+    private final AtomicLong pinnedNanos = new AtomicLong();
+    private RecordingStream pinnedStream;
+
+    // Written by the sampler thread only
+    private long busySamples = 0;
+    private long carrierSamples = 0;
+    private int peakCarriers = 0;
+
+    public VirtualThreadMonitor() {
+        this.sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "gawe-vthread-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void start() {
+        try {
+            pinnedStream = new RecordingStream();
+            pinnedStream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+            pinnedStream.onEvent(PINNED_EVENT, this::onPinned);
+            pinnedStream.startAsync();
+        } catch (Exception e) {
+            logger.warning("Virtual thread pinning events unavailable: " + e.getMessage());
+        }
+        sampler.scheduleAtFixedRate(this::sample, SAMPLE_INTERVAL_MS, SAMPLE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+        sampler.scheduleAtFixedRate(this::report, REPORT_INTERVAL_MS, REPORT_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedEvents.incrementAndGet();
+        pinnedNanos.addAndGet(event.getDuration().toNanos());
+        String location = "unknown";
+        if (event.getStackTrace() != null) {
+            List<RecordedFrame> frames = event.getStackTrace().getFrames();
+            for (RecordedFrame frame : frames) {
+                String type = frame.getMethod().getType().getName();
+                if (!type.startsWith("java.") && !type.startsWith("jdk.")) {
+                    location = type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+                    break;
+                }
+            }
+        }
+        logger.warning("Virtual thread pinned for " + event.getDuration().toMillis() + " ms at " + location);
+    }
+
+    /**
+     * Counts carrier threads of the default virtual thread scheduler and how many are running
+     */
+    private void sample() {
+        int carriers = 0;
+        int busy = 0;
+        for (ThreadInfo info : threadBean.getThreadInfo(threadBean.getAllThreadIds(), 0)) {
+            if (info == null || !isCarrier(info.getThreadName())) {
+                continue;
+            }
+            carriers++;
+            if (info.getThreadState() == Thread.State.RUNNABLE) {
+                busy++;
+            }
+        }
+        busySamples += busy;
+        carrierSamples += carriers;
+        peakCarriers = Math.max(peakCarriers, carriers);
+    }
+
+    private static boolean isCarrier(String name) {
+        return name.startsWith("ForkJoinPool-") && name.contains("-worker-");
+    }
+
+    private void report() {
+        double utilisation = carrierSamples == 0 ? 0.0 : 100.0 * busySamples / carrierSamples;
+        logger.info(String.format("Virtual threads: carrier utilisation %.1f%% (peak %d carriers), pinned events %d (%d ms total)",
+                utilisation, peakCarriers, pinnedEvents.get(), TimeUnit.NANOSECONDS.toMillis(pinnedNanos.get())));
+        busySamples = 0;
+        carrierSamples = 0;
+        peakCarriers = 0;
+    }
+
+    public long getPinnedEvents() {
+        return pinnedEvents.get();
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+        if (pinnedStream != null) {
+            pinnedStream.close();
+        }
+    }
+}
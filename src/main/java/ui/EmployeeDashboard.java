@@ -1,7 +1,7 @@
 package ui;
 
 import app.HelloApplication;
-import data.MySQLDataStore;
+import data.IDataStore;
 import models.Employee;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -17,11 +17,11 @@ import java.util.logging.Logger;
  */
 public class EmployeeDashboard extends Application {
     private final Employee employee;
-    private static MySQLDataStore dataStore;
+    private static IDataStore dataStore;
 
     private static final Logger logger = Logger.getLogger(EmployeeDashboard.class.getName());
 
-    public EmployeeDashboard(Employee employee, MySQLDataStore dataStore) {
+    public EmployeeDashboard(Employee employee, IDataStore dataStore) {
         this.employee = employee;
         // For consistency with other dashboards, you might also fetch it from HelloApplication if null.
         if (EmployeeDashboard.dataStore == null) {
@@ -30,7 +30,7 @@ public class EmployeeDashboard extends Application {
         if (EmployeeDashboard.dataStore == null) {
             EmployeeDashboard.dataStore = HelloApplication.getDataStore(); // Fallback to shared instance
             if (EmployeeDashboard.dataStore == null) {
-                logger.severe("MySQLDataStore is null when initializing EmployeeDashboard");
+                logger.severe("DataStore is null when initializing EmployeeDashboard");
             }
         }
     }
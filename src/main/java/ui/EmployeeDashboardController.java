@@ -1,9 +1,10 @@
 package ui;
 
 import app.HelloApplication;
-import data.MySQLDataStore;
+import data.IDataStore;
 import models.Attendance;
 import models.Employee;
+import models.HistoryQuery;
 import models.LeaveRequest;
 import models.Meeting;
 import models.SalaryHistory;
@@ -49,7 +50,7 @@ public class EmployeeDashboardController {
     private StackPane contentArea;
 
     private Employee employee;
-    private MySQLDataStore dataStore;
+    private IDataStore dataStore;
     private Stage stage;
 
     private DecimalFormat df = new DecimalFormat("#.##");
@@ -68,7 +69,7 @@ public class EmployeeDashboardController {
         initializeContent();
     }
 
-    public void setDataStore(MySQLDataStore dataStore) {
+    public void setDataStore(IDataStore dataStore) {
         this.dataStore = dataStore;
     }
 
@@ -270,7 +271,7 @@ public class EmployeeDashboardController {
             return statsContainer;
         }
 
-        Employee refreshedEmployee = dataStore.authenticateUser(employee.getId(), employee.getPassword());
+        Employee refreshedEmployee = dataStore.getEmployeeById(employee.getId());
         if (refreshedEmployee != null) {
             employee = refreshedEmployee;
         } else {
@@ -400,8 +401,8 @@ public class EmployeeDashboardController {
         table.getColumns().addAll(dateCol, clockInCol, clockOutCol, statusCol);
 
         if (dataStore != null && employee != null) {
-            List<Attendance> myAttendance = dataStore.getAttendanceByEmployee(employee.getId());
-            table.setItems(FXCollections.observableArrayList(myAttendance));
+            new PagedTableLoader<>(table, HistoryQuery.forEmployee(employee.getId()),
+                    dataStore::getAllAttendance, Attendance::getTanggal, Attendance::getId, rows -> {}).start();
         }
         table.setPrefHeight(600);
 
@@ -732,8 +733,8 @@ public class EmployeeDashboardController {
         table.getColumns().addAll(monthCol, yearCol, baseSalaryCol, totalSalaryCol);
 
         if (dataStore != null && employee != null) {
-            List<SalaryHistory> mySalaryHistory = dataStore.getSalaryHistoryByEmployee(employee.getId());
-            table.setItems(FXCollections.observableArrayList(mySalaryHistory));
+            new PagedTableLoader<>(table, HistoryQuery.forEmployee(employee.getId()),
+                    dataStore::getAllSalaryHistory, SalaryHistory::getPeriodStart, SalaryHistory::getId, rows -> {}).start();
         }
         table.setPrefHeight(300);
 
@@ -767,7 +768,7 @@ public class EmployeeDashboardController {
         nameField.setText(employee.getNama());
 
         PasswordField passwordField = new PasswordField();
-        passwordField.setText(employee.getPassword());
+        passwordField.setPromptText("Leave blank to keep current password");
 
         grid.add(new Label("👤 Name:"), 0, 0);
         grid.add(nameField, 1, 0);
@@ -780,9 +781,11 @@ public class EmployeeDashboardController {
         dialog.showAndWait().ifPresent(result -> {
             if (result == ButtonType.OK) {
                 employee.setNama(nameField.getText());
-                employee.setPassword(passwordField.getText());
+                if (!passwordField.getText().isEmpty()) {
+                    employee.setPassword(passwordField.getText());
+                }
                 try {
-                    dataStore.updateEmployee(employee);
+                    dataStore.updateProfile(employee.getId(), nameField.getText(), passwordField.getText());
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Profile updated successfully!");
                     userWelcomeLabel.setText("Welcome, " + employee.getNama() + " (Employee)");
                     navUserGreeting.setText("Hello, " + employee.getNama() + "!");
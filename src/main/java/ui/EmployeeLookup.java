@@ -0,0 +1,69 @@
+package ui;
+
+import data.IDataStore;
+import models.Employee;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.logging.Logger;
+
+/**
+ * Employees referenced by dashboard table rows.
+ * Rows are passed through resolve() when a table is loaded, which fetches every
+ * referenced employee with one getEmployeesByIds call; cell value factories then read
+ * from memory instead of querying the data store for each rendered cell.
+ */
+final class EmployeeLookup {
+    private static final Logger logger = Logger.getLogger(EmployeeLookup.class.getName());
+
+    private final IDataStore dataStore;
+    private final Map<String, Employee> employees = new ConcurrentHashMap<>();
+
+    EmployeeLookup(IDataStore dataStore) {
+        this.dataStore = dataStore;
+    }
+
+    /**
+     * Loads the employees referenced by the rows through the given id getters; returns the rows
+     */
+    @SafeVarargs
+    final <T> List<T> resolve(List<T> rows, Function<T, String>... idGetters) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (T row : rows) {
+            for (Function<T, String> idGetter : idGetters) {
+                String id = idGetter.apply(row);
+                if (id != null) {
+                    ids.add(id);
+                }
+            }
+        }
+        if (!ids.isEmpty()) {
+            try {
+                employees.putAll(dataStore.getEmployeesByIds(ids));
+            } catch (Exception e) {
+                logger.warning("Error resolving employees: " + e.getMessage());
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Returns the employee, querying the data store only for ids no resolve() covered
+     */
+    Employee get(String id) {
+        if (id == null) {
+            return null;
+        }
+        Employee employee = employees.get(id);
+        if (employee == null) {
+            employee = dataStore.getEmployeeById(id);
+            if (employee != null) {
+                employees.put(id, employee);
+            }
+        }
+        return employee;
+    }
+}
@@ -1,6 +1,6 @@
 package ui;
 
-import data.MySQLDataStore;
+import data.IDataStore;
 import models.Employee;
 import models.LeaveRequest;
 import javafx.geometry.Insets;
@@ -16,13 +16,13 @@ import java.text.SimpleDateFormat;
 public class LeaveRequestApprovalDialog extends Dialog<ButtonType> {
 
     private final SimpleDateFormat sdf = new SimpleDateFormat("dd/MM/yyyy");
-    private final MySQLDataStore dataStore;
+    private final IDataStore dataStore;
     private final LeaveRequest request;
     private final Employee supervisor;
     private final boolean isApproval;
     private TextArea notesArea;
 
-    public LeaveRequestApprovalDialog(LeaveRequest request, Employee supervisor, MySQLDataStore dataStore, boolean isApproval) {
+    public LeaveRequestApprovalDialog(LeaveRequest request, Employee supervisor, IDataStore dataStore, boolean isApproval) {
         this.request = request;
         this.supervisor = supervisor;
         this.dataStore = dataStore;
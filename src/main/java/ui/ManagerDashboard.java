@@ -1,6 +1,7 @@
 package ui;
 
 import app.HelloApplication;
+import data.IDataStore;
 import data.MySQLDataStore;
 import models.Employee;
 import javafx.application.Application;
@@ -14,7 +15,7 @@ import java.util.logging.Logger;
 
 public class ManagerDashboard extends Application {
     private final Employee manager;
-    private static MySQLDataStore dataStore;
+    private static IDataStore dataStore;
 
     private static final Logger logger = Logger.getLogger(ManagerDashboard.class.getName());
 
@@ -24,7 +25,7 @@ public class ManagerDashboard extends Application {
         if (dataStore == null) {
             dataStore = HelloApplication.getDataStore();
             if (dataStore == null) {
-                logger.severe("MySQLDataStore is null when initializing ManagerDashboard");
+                logger.severe("DataStore is null when initializing ManagerDashboard");
             }
         }
     }
@@ -1,6 +1,7 @@
 package ui;
 
 import app.HelloApplication;
+import data.IDataStore;
 import data.MySQLDataStore;
 import models.*;
 import javafx.application.Platform;
@@ -25,8 +26,10 @@ import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.logging.Logger;
 import java.util.stream.Collectors;
 
@@ -42,7 +45,8 @@ public class ManagerDashboardController {
     private StackPane contentArea;
 
     private Employee manager;
-    private MySQLDataStore dataStore;
+    private IDataStore dataStore;
+    private EmployeeLookup employeeLookup;
     private Stage stage;
 
     // TableView instances for refreshing
@@ -64,8 +68,9 @@ public class ManagerDashboardController {
         initializeContent();
     }
 
-    public void setDataStore(MySQLDataStore dataStore) {
+    public void setDataStore(IDataStore dataStore) {
         this.dataStore = dataStore;
+        this.employeeLookup = new EmployeeLookup(dataStore);
     }
 
     public void setStage(Stage stage) {
@@ -112,6 +117,7 @@ public class ManagerDashboardController {
                     createNavButton("🏖️ Leave Approvals", this::showLeaveApprovalsContent),
                     createNavButton("💰 Salary Management", this::showSalaryManagementContent),
                     createNavButton("📋 All History", this::showAllHistoryContent),
+                    createNavButton("🔍 Search", this::showSearchContent),
                     createNavButton("👤 Edit Profile", this::showEditProfileDialog)
             };
             navButtonContainer.getChildren().addAll(navButtons);
@@ -267,17 +273,16 @@ public class ManagerDashboardController {
         }
 
         try {
-            List<Employee> allEmployees = dataStore.getAllEmployees();
-            List<Report> pendingReports = dataStore.getPendingReports();
-            List<LeaveRequest> pendingLeaves = dataStore.getPendingLeaveRequests();
+            // Counts come from the maintained dashboard counters rather than loading the lists
+            Map<String, Object> stats = dataStore.getDashboardStats();
 
             // Refresh manager object to get updated leave balance
-            Employee refreshedManager = dataStore.authenticateUser(manager.getId(), manager.getPassword());
+            Employee refreshedManager = dataStore.getEmployeeById(manager.getId());
             int managerLeaveDays = (refreshedManager != null) ? refreshedManager.getSisaCuti() : manager.getSisaCuti();
 
-            VBox totalEmployeesCard = createStatsCard("Total Employees", String.valueOf(allEmployees.size()), "👥", "#3498db");
-            VBox pendingReportsCard = createStatsCard("Pending Reports", String.valueOf(pendingReports.size()), "📄", "#e74c3c");
-            VBox pendingLeavesCard = createStatsCard("Pending Leaves", String.valueOf(pendingLeaves.size()), "🏖️", "#f39c12");
+            VBox totalEmployeesCard = createStatsCard("Total Employees", statValue(stats, "totalEmployees"), "👥", "#3498db");
+            VBox pendingReportsCard = createStatsCard("Pending Reports", statValue(stats, "pendingReports"), "📄", "#e74c3c");
+            VBox pendingLeavesCard = createStatsCard("Pending Leaves", statValue(stats, "pendingLeaveRequests"), "🏖️", "#f39c12");
             VBox myLeaveCard = createStatsCard("My Leave Days", String.valueOf(managerLeaveDays), "🌴", "#9b59b6");
 
             statsContainer.getChildren().addAll(totalEmployeesCard, pendingReportsCard, pendingLeavesCard, myLeaveCard);
@@ -288,6 +293,12 @@ public class ManagerDashboardController {
         return statsContainer;
     }
 
+    // Counts arrive as Integer from MySQL and as Double through the server's JSON
+    private static String statValue(Map<String, Object> stats, String key) {
+        Object value = stats.get(key);
+        return value instanceof Number ? String.valueOf(((Number) value).intValue()) : "0";
+    }
+
     private VBox createStatsCard(String title, String value, String icon, String color) {
         VBox card = new VBox(10);
         card.setAlignment(Pos.CENTER);
@@ -382,8 +393,8 @@ public class ManagerDashboardController {
 
         if (dataStore != null && manager != null) {
             try {
-                List<Attendance> myAttendance = dataStore.getAttendanceByEmployee(manager.getId());
-                table.setItems(FXCollections.observableArrayList(myAttendance));
+                new PagedTableLoader<>(table, HistoryQuery.forEmployee(manager.getId()),
+                        dataStore::getAllAttendance, Attendance::getTanggal, Attendance::getId, rows -> {}).start();
             } catch (Exception e) {
                 logger.severe("Error loading attendance: " + e.getMessage());
             }
@@ -768,22 +779,35 @@ public class ManagerDashboardController {
         formGrid.add(kpiSlider, 1, 3);
         formGrid.add(kpiValue, 2, 3);
 
+        CheckBox allDivisionsCheck = new CheckBox("All divisions");
+        CheckBox wholeYearCheck = new CheckBox("Every month of the year");
+        divisionCombo.disableProperty().bind(allDivisionsCheck.selectedProperty());
+        monthCombo.disableProperty().bind(wholeYearCheck.selectedProperty());
+        formGrid.add(allDivisionsCheck, 1, 4);
+        formGrid.add(wholeYearCheck, 1, 5);
+
         Button submitBtn = new Button("Set KPI");
         submitBtn.getStyleClass().add("action-button-green");
 
         submitBtn.setOnAction(e -> {
-            if (divisionCombo.getValue() != null) {
+            if (allDivisionsCheck.isSelected() || divisionCombo.getValue() != null) {
                 try {
-                    boolean success = dataStore.saveKPI(
-                            divisionCombo.getValue(),
-                            monthCombo.getSelectionModel().getSelectedIndex() + 1,
-                            yearCombo.getValue(),
-                            kpiSlider.getValue(),
-                            manager.getId()
-                    );
+                    List<String> divisions = allDivisionsCheck.isSelected()
+                            ? List.copyOf(divisionCombo.getItems()) : List.of(divisionCombo.getValue());
+                    int firstMonth = wholeYearCheck.isSelected() ? 1 : monthCombo.getSelectionModel().getSelectedIndex() + 1;
+                    int lastMonth = wholeYearCheck.isSelected() ? 12 : firstMonth;
+                    // Saved together in one transaction instead of one round-trip per division and month
+                    List<KPI> kpis = new ArrayList<>();
+                    for (String division : divisions) {
+                        for (int month = firstMonth; month <= lastMonth; month++) {
+                            kpis.add(new KPI(division, month, yearCombo.getValue(), kpiSlider.getValue(), manager.getId()));
+                        }
+                    }
+                    boolean success = dataStore.saveKPIs(kpis);
 
                     if (success) {
-                        showAlert(Alert.AlertType.INFORMATION, "Success", "KPI set successfully!");
+                        showAlert(Alert.AlertType.INFORMATION, "Success",
+                                kpis.size() == 1 ? "KPI set successfully!" : kpis.size() + " KPIs set successfully!");
                         divisionCombo.setValue(null);
                         kpiSlider.setValue(75);
                         refreshKPIHistoryTable();
@@ -892,6 +916,84 @@ public class ManagerDashboardController {
         setScrollableContent(content);
     }
 
+    // Full-text search over report bodies, evaluation comments and leave reasons
+    private void showSearchContent() {
+        if (manager == null || dataStore == null || contentArea == null) {
+            return;
+        }
+
+        contentArea.getChildren().clear();
+
+        VBox content = new VBox(20);
+        content.setAlignment(Pos.TOP_CENTER);
+        content.getStyleClass().add("dashboard-content-container");
+
+        Label title = new Label("Search");
+        title.getStyleClass().add("content-title");
+
+        TextField queryField = new TextField();
+        queryField.setPromptText("Search reports, evaluations and leave reasons...");
+        HBox.setHgrow(queryField, Priority.ALWAYS);
+
+        ComboBox<String> divisionCombo = new ComboBox<>();
+        divisionCombo.getItems().addAll("All Divisions", "HR", "Marketing", "Sales", "IT", "Finance");
+        divisionCombo.setValue("All Divisions");
+
+        Button searchBtn = new Button("Search");
+        searchBtn.getStyleClass().add("action-button-green");
+
+        HBox searchBar = new HBox(10, queryField, divisionCombo, searchBtn);
+        searchBar.setAlignment(Pos.CENTER);
+
+        TableView<SearchResult> table = new TableView<>();
+        table.setPrefHeight(400);
+        table.getStyleClass().add("data-table");
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        table.setPlaceholder(new Label("Enter search terms"));
+
+        TableColumn<SearchResult, String> typeCol = new TableColumn<>("Type");
+        typeCol.setCellValueFactory(new PropertyValueFactory<>("type"));
+
+        TableColumn<SearchResult, String> titleCol = new TableColumn<>("Title");
+        titleCol.setCellValueFactory(new PropertyValueFactory<>("title"));
+
+        TableColumn<SearchResult, String> snippetCol = new TableColumn<>("Excerpt");
+        snippetCol.setCellValueFactory(new PropertyValueFactory<>("snippet"));
+
+        TableColumn<SearchResult, String> dateCol = new TableColumn<>("Date");
+        dateCol.setCellValueFactory(cellData -> {
+            Date date = cellData.getValue().getDate();
+            return new javafx.beans.property.SimpleStringProperty(date != null ? sdf.format(date) : "");
+        });
+
+        TableColumn<SearchResult, String> scoreCol = new TableColumn<>("Relevance");
+        scoreCol.setCellValueFactory(cellData ->
+                new javafx.beans.property.SimpleStringProperty(String.format("%.2f", cellData.getValue().getScore())));
+
+        table.getColumns().addAll(typeCol, titleCol, snippetCol, dateCol, scoreCol);
+
+        Runnable runSearch = () -> {
+            String text = queryField.getText();
+            if (text == null || text.isBlank()) {
+                return;
+            }
+            String divisi = "All Divisions".equals(divisionCombo.getValue()) ? null : divisionCombo.getValue();
+            try {
+                List<SearchResult> results = dataStore.search(text, divisi, null, 50);
+                table.setItems(FXCollections.observableArrayList(results));
+                table.setPlaceholder(new Label("No matches"));
+            } catch (Exception e) {
+                logger.severe("Error searching: " + e.getMessage());
+                showAlert(Alert.AlertType.ERROR, "Error", "Search failed: " + e.getMessage());
+            }
+        };
+        searchBtn.setOnAction(e -> runSearch.run());
+        queryField.setOnAction(e -> runSearch.run());
+
+        content.getChildren().addAll(title, searchBar, table);
+        setScrollableContent(content);
+    }
+
     private TableView<Report> createPendingReportsTable() {
         TableView<Report> table = new TableView<>();
         table.setPrefHeight(400);
@@ -1013,7 +1115,16 @@ public class ManagerDashboardController {
         Label infoLabel = new Label(String.format("Division: %s\nMonth: %s %d\nSupervisor: %s",
                 report.getDivisi(), report.getMonthName(), report.getTahun(), report.getSupervisorId()));
 
-        TextArea reportContentArea = new TextArea(report.getContent());
+        // List views carry report headers only; the body is fetched when the report is opened
+        String reportContent;
+        try {
+            reportContent = dataStore.getReportContent(report.getId());
+        } catch (Exception e) {
+            logger.severe("Error loading report content: " + e.getMessage());
+            reportContent = "Failed to load report content: " + e.getMessage();
+        }
+
+        TextArea reportContentArea = new TextArea(reportContent != null ? reportContent : "");
         reportContentArea.setEditable(false);
         reportContentArea.setWrapText(true);
         reportContentArea.setPrefHeight(200);
@@ -1092,13 +1203,13 @@ public class ManagerDashboardController {
 
         TableColumn<MySQLDataStore.MonthlyEvaluation, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
         TableColumn<MySQLDataStore.MonthlyEvaluation, String> supervisorCol = new TableColumn<>("Supervisor");
         supervisorCol.setCellValueFactory(cellData -> {
-            Employee sup = dataStore.getEmployeeById(cellData.getValue().getSupervisorId());
+            Employee sup = employeeLookup.get(cellData.getValue().getSupervisorId());
             return new javafx.beans.property.SimpleStringProperty(sup != null ? sup.getNama() : "Unknown");
         });
 
@@ -1120,7 +1231,8 @@ public class ManagerDashboardController {
 
         try {
             List<MySQLDataStore.MonthlyEvaluation> evaluations = dataStore.getAllMonthlyEvaluations();
-            table.setItems(FXCollections.observableArrayList(evaluations));
+            table.setItems(FXCollections.observableArrayList(employeeLookup.resolve(evaluations,
+                    MySQLDataStore.MonthlyEvaluation::getEmployeeId, MySQLDataStore.MonthlyEvaluation::getSupervisorId)));
         } catch (Exception e) {
             logger.severe("Error loading monthly evaluations: " + e.getMessage());
         }
@@ -1136,13 +1248,13 @@ public class ManagerDashboardController {
 
         TableColumn<EmployeeEvaluation, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
         TableColumn<EmployeeEvaluation, String> supervisorCol = new TableColumn<>("Supervisor");
         supervisorCol.setCellValueFactory(cellData -> {
-            Employee sup = dataStore.getEmployeeById(cellData.getValue().getSupervisorId());
+            Employee sup = employeeLookup.get(cellData.getValue().getSupervisorId());
             return new javafx.beans.property.SimpleStringProperty(sup != null ? sup.getNama() : "Unknown");
         });
 
@@ -1165,8 +1277,10 @@ public class ManagerDashboardController {
         table.getColumns().addAll(employeeCol, supervisorCol, punctualityCol, attendanceCol, overallCol, dateCol);
 
         try {
-            List<EmployeeEvaluation> evaluations = dataStore.getAllEvaluations();
-            table.setItems(FXCollections.observableArrayList(evaluations));
+            new PagedTableLoader<>(table, new HistoryQuery(), dataStore::getAllEvaluations,
+                    EmployeeEvaluation::getEvaluationDate, EmployeeEvaluation::getId,
+                    rows -> employeeLookup.resolve(rows, EmployeeEvaluation::getEmployeeId, EmployeeEvaluation::getSupervisorId))
+                    .start();
         } catch (Exception e) {
             logger.severe("Error loading regular evaluations: " + e.getMessage());
         }
@@ -1213,14 +1327,14 @@ public class ManagerDashboardController {
 
         TableColumn<LeaveRequest, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() + " (" + emp.getId() + ")" : "Unknown");
         });
         employeeCol.setPrefWidth(180);
 
         TableColumn<LeaveRequest, String> roleCol = new TableColumn<>("Role");
         roleCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             String role = emp != null ? emp.getRole() : "Unknown";
             return new javafx.beans.property.SimpleStringProperty(
                     role.substring(0, 1).toUpperCase() + role.substring(1));
@@ -1228,7 +1342,7 @@ public class ManagerDashboardController {
 
         TableColumn<LeaveRequest, String> divisionCol = new TableColumn<>("Division");
         divisionCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getDivisi() : "Unknown");
         });
 
@@ -1278,7 +1392,7 @@ public class ManagerDashboardController {
 
         if (dataStore != null && manager != null) {
             List<LeaveRequest> pendingRequests = dataStore.getLeaveRequestsForApproval(manager.getId());
-            table.setItems(FXCollections.observableArrayList(pendingRequests));
+            table.setItems(FXCollections.observableArrayList(employeeLookup.resolve(pendingRequests, LeaveRequest::getEmployeeId)));
         }
         table.setPrefHeight(400);
 
@@ -1292,7 +1406,7 @@ public class ManagerDashboardController {
 
         TableColumn<LeaveRequest, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
@@ -1334,7 +1448,7 @@ public class ManagerDashboardController {
                         return d2.compareTo(d1);
                     })
                     .collect(Collectors.toList());
-            table.setItems(FXCollections.observableArrayList(processedRequests));
+            table.setItems(FXCollections.observableArrayList(employeeLookup.resolve(processedRequests, LeaveRequest::getEmployeeId)));
         }
         table.setPrefHeight(400);
 
@@ -1441,7 +1555,7 @@ public class ManagerDashboardController {
         if (dataStore != null && manager != null) {
             try {
                 List<LeaveRequest> pendingRequests = dataStore.getLeaveRequestsForApproval(manager.getId());
-                table.setItems(FXCollections.observableArrayList(pendingRequests));
+                table.setItems(FXCollections.observableArrayList(employeeLookup.resolve(pendingRequests, LeaveRequest::getEmployeeId)));
             } catch (Exception e) {
                 logger.severe("Error loading leave requests for approval: " + e.getMessage());
             }
@@ -1473,10 +1587,58 @@ public class ManagerDashboardController {
 
         tabPane.getTabs().addAll(salaryOverviewTab, salaryHistoryTab);
 
-        content.getChildren().addAll(title, tabPane);
+        content.getChildren().addAll(title, createPayrollRunBar(), tabPane);
         contentArea.getChildren().add(content);
     }
 
+    // Pays every employee for a month in one server-side run
+    private HBox createPayrollRunBar() {
+        ComboBox<String> monthCombo = new ComboBox<>();
+        monthCombo.getItems().addAll("January", "February", "March", "April", "May", "June",
+                "July", "August", "September", "October", "November", "December");
+        monthCombo.getSelectionModel().select(LocalDate.now().getMonthValue() - 1);
+
+        ComboBox<Integer> yearCombo = new ComboBox<>();
+        for (int year = 2020; year <= 2030; year++) {
+            yearCombo.getItems().add(year);
+        }
+        yearCombo.setValue(LocalDate.now().getYear());
+
+        CheckBox rerunCheck = new CheckBox("Recalculate if already paid");
+
+        Button runBtn = new Button("💰 Run Payroll");
+        runBtn.getStyleClass().add("action-button-green");
+        runBtn.setOnAction(e -> {
+            int month = monthCombo.getSelectionModel().getSelectedIndex() + 1;
+            int year = yearCombo.getValue();
+            Alert confirm = new Alert(Alert.AlertType.CONFIRMATION,
+                    "Pay all employees for " + monthCombo.getValue() + " " + year + "?", ButtonType.OK, ButtonType.CANCEL);
+            confirm.setHeaderText("Run Payroll");
+            if (confirm.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+                return;
+            }
+            try {
+                PayrollSummary summary = dataStore.runPayroll(month, year, rerunCheck.isSelected());
+                if (summary.isSkipped()) {
+                    showAlert(Alert.AlertType.INFORMATION, "Payroll",
+                            "Payroll for " + monthCombo.getValue() + " " + year + " has already been run.");
+                } else {
+                    showAlert(Alert.AlertType.INFORMATION, "Payroll", String.format(
+                            "Paid %d employees, Rp %,.0f in total (%d ms).",
+                            summary.getEmployees(), summary.getTotalSalary(), summary.getTotalMillis()));
+                    showSalaryManagementContent();
+                }
+            } catch (Exception ex) {
+                logger.severe("Error running payroll: " + ex.getMessage());
+                showAlert(Alert.AlertType.ERROR, "Error", "Payroll run failed: " + ex.getMessage());
+            }
+        });
+
+        HBox bar = new HBox(10, new Label("Payroll period:"), monthCombo, yearCombo, rerunCheck, runBtn);
+        bar.setAlignment(Pos.CENTER);
+        return bar;
+    }
+
     private TableView<Employee> createSalaryOverviewTable() {
         TableView<Employee> table = new TableView<>();
         table.getStyleClass().add("data-table");
@@ -1527,7 +1689,7 @@ public class ManagerDashboardController {
 
         TableColumn<SalaryHistory, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
@@ -1557,8 +1719,9 @@ public class ManagerDashboardController {
         table.getColumns().addAll(employeeCol, monthCol, yearCol, baseSalaryCol, kpiBonusCol, supervisorBonusCol, totalSalaryCol);
 
         try {
-            List<SalaryHistory> allSalaryHistory = dataStore.getAllSalaryHistory();
-            table.setItems(FXCollections.observableArrayList(allSalaryHistory));
+            new PagedTableLoader<>(table, new HistoryQuery(), dataStore::getAllSalaryHistory,
+                    SalaryHistory::getPeriodStart, SalaryHistory::getId,
+                    rows -> employeeLookup.resolve(rows, SalaryHistory::getEmployeeId)).start();
         } catch (Exception e) {
             logger.severe("Error loading salary history: " + e.getMessage());
         }
@@ -1612,7 +1775,7 @@ public class ManagerDashboardController {
 
         TableColumn<LeaveRequest, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
@@ -1633,7 +1796,7 @@ public class ManagerDashboardController {
         approverCol.setCellValueFactory(cellData -> {
             String approverId = cellData.getValue().getApproverId();
             if (approverId != null) {
-                Employee approver = dataStore.getEmployeeById(approverId);
+                Employee approver = employeeLookup.get(approverId);
                 return new javafx.beans.property.SimpleStringProperty(approver != null ? approver.getNama() : approverId);
             }
             return new javafx.beans.property.SimpleStringProperty("");
@@ -1642,8 +1805,9 @@ public class ManagerDashboardController {
         table.getColumns().addAll(employeeCol, typeCol, startDateCol, daysCol, statusCol, approverCol);
 
         try {
-            List<LeaveRequest> allLeaveRequests = dataStore.getAllLeaveRequests();
-            table.setItems(FXCollections.observableArrayList(allLeaveRequests));
+            new PagedTableLoader<>(table, new HistoryQuery(), dataStore::getAllLeaveRequests,
+                    LeaveRequest::getStartDate, LeaveRequest::getId,
+                    rows -> employeeLookup.resolve(rows, LeaveRequest::getEmployeeId, LeaveRequest::getApproverId)).start();
         } catch (Exception e) {
             logger.severe("Error loading leave requests history: " + e.getMessage());
         }
@@ -1671,7 +1835,7 @@ public class ManagerDashboardController {
 
         TableColumn<Meeting, String> organizerCol = new TableColumn<>("Organizer");
         organizerCol.setCellValueFactory(cellData -> {
-            Employee organizer = dataStore.getEmployeeById(cellData.getValue().getOrganizerId());
+            Employee organizer = employeeLookup.get(cellData.getValue().getOrganizerId());
             return new javafx.beans.property.SimpleStringProperty(organizer != null ? organizer.getNama() : "Unknown");
         });
 
@@ -1681,12 +1845,8 @@ public class ManagerDashboardController {
         table.getColumns().addAll(titleCol, dateCol, timeCol, organizerCol, statusCol);
 
         try {
-            // For simplicity, we'll get all meetings by getting meetings for all employees
-            List<Meeting> allMeetings = dataStore.getAllEmployees().stream()
-                    .flatMap(emp -> dataStore.getMeetingsByEmployee(emp.getId()).stream())
-                    .distinct()
-                    .collect(Collectors.toList());
-            table.setItems(FXCollections.observableArrayList(allMeetings));
+            List<Meeting> allMeetings = dataStore.getAllMeetings(new HistoryQuery());
+            table.setItems(FXCollections.observableArrayList(employeeLookup.resolve(allMeetings, Meeting::getOrganizerId)));
         } catch (Exception e) {
             logger.severe("Error loading meetings history: " + e.getMessage());
         }
@@ -1702,7 +1862,7 @@ public class ManagerDashboardController {
 
         TableColumn<Attendance, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
@@ -1722,11 +1882,9 @@ public class ManagerDashboardController {
         table.getColumns().addAll(employeeCol, dateCol, clockInCol, clockOutCol, statusCol);
 
         try {
-            // For simplicity, we'll get attendance for all employees in the last 30 days
-            List<Attendance> allAttendance = dataStore.getAllEmployees().stream()
-                    .flatMap(emp -> dataStore.getAttendanceByEmployee(emp.getId()).stream())
-                    .collect(Collectors.toList());
-            table.setItems(FXCollections.observableArrayList(allAttendance));
+            new PagedTableLoader<>(table, new HistoryQuery().lastDays(30), dataStore::getAllAttendance,
+                    Attendance::getTanggal, Attendance::getId,
+                    rows -> employeeLookup.resolve(rows, Attendance::getEmployeeId)).start();
         } catch (Exception e) {
             logger.severe("Error loading attendance history: " + e.getMessage());
         }
@@ -1761,7 +1919,7 @@ public class ManagerDashboardController {
         nameField.setText(manager.getNama());
 
         PasswordField passwordField = new PasswordField();
-        passwordField.setText(manager.getPassword());
+        passwordField.setPromptText("Leave blank to keep current password");
 
         grid.add(new Label("Name:"), 0, 0);
         grid.add(nameField, 1, 0);
@@ -1775,9 +1933,11 @@ public class ManagerDashboardController {
         dialog.showAndWait().ifPresent(result -> {
             if (result == ButtonType.OK) {
                 manager.setNama(nameField.getText());
-                manager.setPassword(passwordField.getText());
+                if (!passwordField.getText().isEmpty()) {
+                    manager.setPassword(passwordField.getText());
+                }
                 try {
-                    dataStore.updateEmployee(manager);
+                    dataStore.updateProfile(manager.getId(), nameField.getText(), passwordField.getText());
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Profile updated successfully!");
                     userWelcomeLabel.setText("Welcome, " + manager.getNama() + " (Manager)");
                 } catch (Exception e) {
@@ -0,0 +1,166 @@
+package ui;
+
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Orientation;
+import javafx.scene.Node;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ScrollBar;
+import javafx.scene.control.TableView;
+import javafx.scene.control.skin.VirtualFlow;
+import models.HistoryQuery;
+
+import java.util.ArrayDeque;
+import java.util.Date;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.logging.Logger;
+
+/**
+ * Lazily paged rows for a history TableView.
+ *
+ * Pages come from a keyset-paged data store method and are fetched off the FX thread as
+ * the user scrolls near either end of the table. At most MAX_PAGES pages are held: reading
+ * past that drops the page at the opposite end, which is read again through the reverse
+ * cursor if the user scrolls back, so memory stays bounded however long the history is.
+ */
+final class PagedTableLoader<T> {
+    private static final Logger logger = Logger.getLogger(PagedTableLoader.class.getName());
+    private static final int PAGE_SIZE = 200;
+    private static final int MAX_PAGES = 5;
+    private static final double EDGE = 0.05;  // scroll fraction from either end that triggers a fetch
+
+    private final TableView<T> table;
+    private final HistoryQuery filter;
+    private final Function<HistoryQuery, List<T>> fetch;
+    private final Function<T, Date> keyOf;
+    private final ToIntFunction<T> idOf;
+    private final Consumer<List<T>> onPage;
+    private final ObservableList<T> rows = FXCollections.observableArrayList();
+    private final Deque<Integer> pageSizes = new ArrayDeque<>();
+
+    // FX thread only
+    private boolean loading = false;
+    private boolean olderExhausted = false;
+    private boolean newerDropped = false;
+
+    /**
+     * @param fetch  data store method reading one page for a query
+     * @param keyOf  row date the data store sorts by, the first half of the keyset cursor
+     * @param idOf   row id, the second half of the keyset cursor
+     * @param onPage called off the FX thread with each page before it is shown,
+     *               e.g. to resolve the employees it references
+     */
+    PagedTableLoader(TableView<T> table, HistoryQuery filter, Function<HistoryQuery, List<T>> fetch,
+                     Function<T, Date> keyOf, ToIntFunction<T> idOf, Consumer<List<T>> onPage) {
+        this.table = table;
+        this.filter = filter;
+        this.fetch = fetch;
+        this.keyOf = keyOf;
+        this.idOf = idOf;
+        this.onPage = onPage;
+        filter.setLimit(PAGE_SIZE);
+    }
+
+    /**
+     * Shows the newest page and starts paging on scroll
+     */
+    void start() {
+        table.setItems(rows);
+        table.skinProperty().addListener((obs, oldSkin, newSkin) -> attachScrollListener());
+        attachScrollListener();
+        load(filter.nextPage(null, 0), false);
+    }
+
+    private void attachScrollListener() {
+        // The scroll bar exists once the skin is laid out
+        Platform.runLater(() -> {
+            for (Node node : table.lookupAll(".scroll-bar")) {
+                if (node instanceof ScrollBar && ((ScrollBar) node).getOrientation() == Orientation.VERTICAL) {
+                    ScrollBar bar = (ScrollBar) node;
+                    bar.valueProperty().addListener((obs, oldValue, value) -> onScroll(bar, value.doubleValue()));
+                    return;
+                }
+            }
+        });
+    }
+
+    private void onScroll(ScrollBar bar, double value) {
+        if (loading || rows.isEmpty()) {
+            return;
+        }
+        double range = bar.getMax() - bar.getMin();
+        if (value >= bar.getMax() - EDGE * range && !olderExhausted) {
+            T last = rows.get(rows.size() - 1);
+            load(filter.nextPage(keyOf.apply(last), idOf.applyAsInt(last)), false);
+        } else if (value <= bar.getMin() + EDGE * range && newerDropped) {
+            T first = rows.get(0);
+            load(filter.previousPage(keyOf.apply(first), idOf.applyAsInt(first)), true);
+        }
+    }
+
+    private void load(HistoryQuery page, boolean newer) {
+        loading = true;
+        Thread worker = new Thread(() -> {
+            try {
+                List<T> fetched = fetch.apply(page);
+                onPage.accept(fetched);
+                Platform.runLater(() -> show(fetched, newer));
+            } catch (Exception e) {
+                logger.severe("Error loading history page: " + e.getMessage());
+                Platform.runLater(() -> loading = false);
+            }
+        }, "gawe-table-page");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private void show(List<T> page, boolean newer) {
+        loading = false;
+        int anchor = firstVisibleIndex();
+        if (newer) {
+            newerDropped = page.size() == PAGE_SIZE;
+            if (page.isEmpty()) {
+                return;
+            }
+            rows.addAll(0, page);
+            pageSizes.addFirst(page.size());
+            anchor += page.size();
+            if (pageSizes.size() > MAX_PAGES) {
+                int dropped = pageSizes.removeLast();
+                rows.remove(rows.size() - dropped, rows.size());
+                olderExhausted = false;
+            }
+        } else {
+            olderExhausted = page.size() < PAGE_SIZE;
+            if (page.isEmpty()) {
+                return;
+            }
+            rows.addAll(page);
+            pageSizes.addLast(page.size());
+            if (pageSizes.size() > MAX_PAGES) {
+                int dropped = pageSizes.removeFirst();
+                rows.remove(0, dropped);
+                anchor -= dropped;
+                newerDropped = true;
+            }
+        }
+        // Keep the rows the user was looking at in view after rows were added or dropped above them
+        table.scrollTo(Math.max(0, anchor));
+    }
+
+    private int firstVisibleIndex() {
+        Node flow = table.lookup(".virtual-flow");
+        if (flow instanceof VirtualFlow) {
+            IndexedCell<?> first = ((VirtualFlow<?>) flow).getFirstVisibleCell();
+            if (first != null) {
+                return first.getIndex();
+            }
+        }
+        return 0;
+    }
+}
@@ -1,7 +1,7 @@
 package ui;
 
 import app.HelloApplication;
-import data.MySQLDataStore;
+import data.IDataStore;
 import models.Employee;
 import javafx.application.Application;
 import javafx.fxml.FXMLLoader;
@@ -17,7 +17,7 @@ import java.util.logging.Logger;
  */
 public class SupervisorDashboard extends Application {
     private final Employee supervisor;
-    private static MySQLDataStore dataStore;
+    private static IDataStore dataStore;
 
     private static final Logger logger = Logger.getLogger(SupervisorDashboard.class.getName());
 
@@ -27,7 +27,7 @@ public class SupervisorDashboard extends Application {
         if (dataStore == null) {
             dataStore = HelloApplication.getDataStore();
             if (dataStore == null) {
-                logger.severe("MySQLDataStore is null when initializing SupervisorDashboard");
+                logger.severe("DataStore is null when initializing SupervisorDashboard");
             }
         }
     }
@@ -1,6 +1,7 @@
 package ui;
 
 import app.HelloApplication;
+import data.IDataStore;
 import data.MySQLDataStore;
 import models.*;
 import javafx.application.Platform;
@@ -45,7 +46,8 @@ public class SupervisorDashboardController {
     private StackPane contentArea;
 
     private Employee supervisor;
-    private MySQLDataStore dataStore;
+    private IDataStore dataStore;
+    private EmployeeLookup employeeLookup;
     private Stage stage;
 
     // TableView instances for refreshing
@@ -67,8 +69,9 @@ public class SupervisorDashboardController {
         initializeContent();
     }
 
-    public void setDataStore(MySQLDataStore dataStore) {
+    public void setDataStore(IDataStore dataStore) {
         this.dataStore = dataStore;
+        this.employeeLookup = new EmployeeLookup(dataStore);
     }
 
     public void setStage(Stage stage) {
@@ -291,7 +294,7 @@ public class SupervisorDashboardController {
             VBox atRiskCard = createStatsCard("At Risk", String.valueOf(atRiskCount), "⚠️", "#e74c3c");
 
             // Refresh supervisor object to get updated leave balance
-            Employee refreshedSupervisor = dataStore.authenticateUser(supervisor.getId(), supervisor.getPassword());
+            Employee refreshedSupervisor = dataStore.getEmployeeById(supervisor.getId());
             int supervisorLeaveDays = (refreshedSupervisor != null) ? refreshedSupervisor.getSisaCuti() : supervisor.getSisaCuti();
             VBox leaveCard = createStatsCard("My Leave Days", String.valueOf(supervisorLeaveDays), "🏖️", "#9b59b6");
 
@@ -401,8 +404,8 @@ public class SupervisorDashboardController {
 
         if (dataStore != null && supervisor != null) {
             try {
-                List<Attendance> myAttendance = dataStore.getAttendanceByEmployee(supervisor.getId());
-                table.setItems(FXCollections.observableArrayList(myAttendance));
+                new PagedTableLoader<>(table, HistoryQuery.forEmployee(supervisor.getId()),
+                        dataStore::getAllAttendance, Attendance::getTanggal, Attendance::getId, rows -> {}).start();
             } catch (Exception e) {
                 logger.severe("Error loading attendance: " + e.getMessage());
             }
@@ -733,18 +736,48 @@ public class SupervisorDashboardController {
             refreshLeaveApprovalsTable(leaveApprovalsTable);
         }
 
-        content.getChildren().addAll(title, leaveApprovalsTable);
+        Button approveSelectedBtn = new Button("✅ Approve Selected");
+        approveSelectedBtn.getStyleClass().add("action-button-green");
+        approveSelectedBtn.setOnAction(e -> approveSelectedLeaveRequests(leaveApprovalsTable));
+
+        content.getChildren().addAll(title, approveSelectedBtn, leaveApprovalsTable);
         setScrollableContent(content);
     }
 
+    // Approves every selected request in one call; requests decided elsewhere meanwhile are skipped
+    private void approveSelectedLeaveRequests(TableView<LeaveRequest> table) {
+        List<Integer> ids = table.getSelectionModel().getSelectedItems().stream()
+                .map(LeaveRequest::getId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            showAlert(Alert.AlertType.WARNING, "No Selection", "Please select the leave requests to approve.");
+            return;
+        }
+
+        try {
+            List<Integer> approved = dataStore.approveLeaveRequests(ids, supervisor.getId(), "Approved by supervisor");
+            if (approved.size() == ids.size()) {
+                showAlert(Alert.AlertType.INFORMATION, "Success", approved.size() + " leave request(s) approved.");
+            } else {
+                showAlert(Alert.AlertType.WARNING, "Partially Approved", approved.size() + " of " + ids.size()
+                        + " leave request(s) approved. The others were no longer pending.");
+            }
+        } catch (Exception e) {
+            logger.severe("Error approving leave requests: " + e.getMessage());
+            showAlert(Alert.AlertType.ERROR, "Error", "Failed to approve leave requests: " + e.getMessage());
+        }
+        refreshLeaveApprovalsTable(table);
+    }
+
     private TableView<LeaveRequest> createLeaveApprovalTable() {
         TableView<LeaveRequest> table = new TableView<>();
         table.getStyleClass().add("data-table");
         table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY); // PERUBAHAN DI SINI
+        table.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
         TableColumn<LeaveRequest, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
@@ -805,7 +838,7 @@ public class SupervisorDashboardController {
         if (dataStore != null && supervisor != null) {
             try {
                 List<LeaveRequest> pendingRequests = dataStore.getLeaveRequestsForApproval(supervisor.getId());
-                table.setItems(FXCollections.observableArrayList(pendingRequests));
+                table.setItems(FXCollections.observableArrayList(employeeLookup.resolve(pendingRequests, LeaveRequest::getEmployeeId)));
             } catch (Exception e) {
                 logger.severe("Error loading leave requests for approval: " + e.getMessage());
             }
@@ -1146,7 +1179,7 @@ public class SupervisorDashboardController {
 
         TableColumn<MySQLDataStore.MonthlyEvaluation, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
@@ -1194,7 +1227,7 @@ public class SupervisorDashboardController {
         if (dataStore != null && supervisor != null) {
             try {
                 List<MySQLDataStore.MonthlyEvaluation> evaluations = dataStore.getMonthlyEvaluationsBySupervisor(supervisor.getId());
-                table.setItems(FXCollections.observableArrayList(evaluations));
+                table.setItems(FXCollections.observableArrayList(employeeLookup.resolve(evaluations, MySQLDataStore.MonthlyEvaluation::getEmployeeId)));
             } catch (Exception e) {
                 logger.severe("Error loading evaluation history: " + e.getMessage());
             }
@@ -1547,7 +1580,7 @@ public class SupervisorDashboardController {
 
         TableColumn<SalaryHistory, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
@@ -1579,15 +1612,9 @@ public class SupervisorDashboardController {
         if (dataStore != null && supervisor != null) {
             try {
                 // Get salary history for team members
-                List<Employee> teamMembers = dataStore.getEmployeesByDivision(supervisor.getDivisi()).stream()
-                        .filter(emp -> emp.getRole().equals("pegawai"))
-                        .collect(Collectors.toList());
-
-                List<SalaryHistory> teamSalaryHistory = teamMembers.stream()
-                        .flatMap(emp -> dataStore.getSalaryHistoryByEmployee(emp.getId()).stream())
-                        .collect(Collectors.toList());
-
-                table.setItems(FXCollections.observableArrayList(teamSalaryHistory));
+                new PagedTableLoader<>(table, teamHistory(), dataStore::getAllSalaryHistory,
+                        SalaryHistory::getPeriodStart, SalaryHistory::getId,
+                        rows -> employeeLookup.resolve(rows, SalaryHistory::getEmployeeId)).start();
             } catch (Exception e) {
                 logger.severe("Error loading team salary history: " + e.getMessage());
             }
@@ -1639,7 +1666,7 @@ public class SupervisorDashboardController {
 
         TableColumn<LeaveRequest, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
@@ -1665,15 +1692,9 @@ public class SupervisorDashboardController {
         if (dataStore != null && supervisor != null) {
             try {
                 // Get leave requests for team members
-                List<Employee> teamMembers = dataStore.getEmployeesByDivision(supervisor.getDivisi()).stream()
-                        .filter(emp -> emp.getRole().equals("pegawai"))
-                        .collect(Collectors.toList());
-
-                List<LeaveRequest> teamLeaveRequests = teamMembers.stream()
-                        .flatMap(emp -> dataStore.getLeaveRequestsByEmployee(emp.getId()).stream())
-                        .collect(Collectors.toList());
-
-                table.setItems(FXCollections.observableArrayList(teamLeaveRequests));
+                new PagedTableLoader<>(table, teamHistory(), dataStore::getAllLeaveRequests,
+                        LeaveRequest::getStartDate, LeaveRequest::getId,
+                        rows -> employeeLookup.resolve(rows, LeaveRequest::getEmployeeId)).start();
             } catch (Exception e) {
                 logger.severe("Error loading team leave requests: " + e.getMessage());
             }
@@ -1728,7 +1749,7 @@ public class SupervisorDashboardController {
 
         TableColumn<Attendance, String> employeeCol = new TableColumn<>("Employee");
         employeeCol.setCellValueFactory(cellData -> {
-            Employee emp = dataStore.getEmployeeById(cellData.getValue().getEmployeeId());
+            Employee emp = employeeLookup.get(cellData.getValue().getEmployeeId());
             return new javafx.beans.property.SimpleStringProperty(emp != null ? emp.getNama() : "Unknown");
         });
 
@@ -1750,15 +1771,9 @@ public class SupervisorDashboardController {
         if (dataStore != null && supervisor != null) {
             try {
                 // Get attendance for team members (last 30 days)
-                List<Employee> teamMembers = dataStore.getEmployeesByDivision(supervisor.getDivisi()).stream()
-                        .filter(emp -> emp.getRole().equals("pegawai"))
-                        .collect(Collectors.toList());
-
-                List<Attendance> teamAttendance = teamMembers.stream()
-                        .flatMap(emp -> dataStore.getAttendanceByEmployee(emp.getId()).stream())
-                        .collect(Collectors.toList());
-
-                table.setItems(FXCollections.observableArrayList(teamAttendance));
+                new PagedTableLoader<>(table, teamHistory().lastDays(30), dataStore::getAllAttendance,
+                        Attendance::getTanggal, Attendance::getId,
+                        rows -> employeeLookup.resolve(rows, Attendance::getEmployeeId)).start();
             } catch (Exception e) {
                 logger.severe("Error loading team attendance: " + e.getMessage());
             }
@@ -1768,6 +1783,11 @@ public class SupervisorDashboardController {
         return table;
     }
 
+    // History filter for the supervisor's team: the pegawai of their division
+    private HistoryQuery teamHistory() {
+        return new HistoryQuery(supervisor.getDivisi(), "pegawai");
+    }
+
     private void showAlert(Alert.AlertType type, String title, String message) {
         Alert alert = new Alert(type);
         alert.setTitle(title);
@@ -1794,7 +1814,7 @@ public class SupervisorDashboardController {
         nameField.setText(supervisor.getNama());
 
         PasswordField passwordField = new PasswordField();
-        passwordField.setText(supervisor.getPassword());
+        passwordField.setPromptText("Leave blank to keep current password");
 
         grid.add(new Label("Name:"), 0, 0);
         grid.add(nameField, 1, 0);
@@ -1808,9 +1828,11 @@ public class SupervisorDashboardController {
         dialog.showAndWait().ifPresent(result -> {
             if (result == ButtonType.OK) {
                 supervisor.setNama(nameField.getText());
-                supervisor.setPassword(passwordField.getText());
+                if (!passwordField.getText().isEmpty()) {
+                    supervisor.setPassword(passwordField.getText());
+                }
                 try {
-                    dataStore.updateEmployee(supervisor);
+                    dataStore.updateProfile(supervisor.getId(), nameField.getText(), passwordField.getText());
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Profile updated successfully!");
                     userWelcomeLabel.setText("Welcome, " + supervisor.getNama() + " (" + supervisor.getDivisi() + ")");
                 } catch (Exception e) {